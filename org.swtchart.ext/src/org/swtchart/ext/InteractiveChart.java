@@ -16,6 +16,7 @@ import org.swtchart.Chart;
 import org.swtchart.IAxis;
 import org.swtchart.Range;
 import org.swtchart.IAxis.Direction;
+import org.swtchart.IPlotArea;
 import org.swtchart.ext.internal.SelectionRectangle;
 import org.swtchart.ext.internal.properties.AxisPage;
 import org.swtchart.ext.internal.properties.AxisTickPage;
@@ -227,7 +228,9 @@ public class InteractiveChart extends Chart implements PaintListener {
     private void handleMouseMoveEvent(Event event) {
         if (!selection.isDisposed()) {
             selection.setEndPoint(event.x, event.y);
-            redraw();
+
+            // the series don't have to be drawn again to move selection
+            ((IPlotArea) getPlotArea()).redrawOverlay();
         }
     }
 
@@ -0,0 +1,183 @@
+/*******************************************************************************
+ * Copyright (c) 2008-2016 SWTChart project. All rights reserved.
+ *
+ * This code is distributed under the terms of the Eclipse Public License v1.0
+ * which is available at http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.swtchart;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.swtchart.ISeries.SeriesType;
+
+/**
+ * Tests the series data created with <tt>SeriesDataFactory</tt> and set to a
+ * series of chart.
+ */
+public class SeriesDataFactoryTest {
+
+    /** the shell */
+    private Shell shell;
+
+    /** the chart */
+    private Chart chart;
+
+    /**
+     * Creates the chart.
+     */
+    @Before
+    public void setUp() {
+        shell = new Shell(Display.getDefault());
+        chart = new Chart(shell, SWT.NONE);
+    }
+
+    /**
+     * Disposes the chart.
+     */
+    @After
+    public void tearDown() {
+        shell.dispose();
+    }
+
+    /**
+     * Tests the series mapped from a file of interleaved X and Y values.
+     *
+     * @throws IOException
+     *             if the file cannot be written or mapped
+     */
+    @Test
+    public void testMappedInterleaved() throws IOException {
+        File file = createFile(new double[] { 1, 10, 2, 20, 3, 15 });
+        ISeries series = chart.getSeriesSet().createSeries(SeriesType.LINE,
+                "mapped");
+        series.setSeries(SeriesDataFactory.createMappedSeriesData(file));
+
+        ISeriesData data = series.getSeriesData();
+        assertEquals(3, data.size());
+        assertEquals(2, data.getX(1), 0);
+        assertEquals(20, data.getY(1), 0);
+        assertEquals(3, data.getX(2), 0);
+        assertEquals(15, data.getY(2), 0);
+        assertEquals(3, series.getSeries().size());
+    }
+
+    /**
+     * Tests the series mapped from a file of Y values sampled at a fixed X
+     * interval.
+     *
+     * @throws IOException
+     *             if the file cannot be written or mapped
+     */
+    @Test
+    public void testMappedSampled() throws IOException {
+        File file = createFile(new double[] { 5, 6, 7, 8 });
+        ISeries series = chart.getSeriesSet().createSeries(SeriesType.LINE,
+                "mapped");
+        series.setSeries(SeriesDataFactory.createMappedSeriesData(file, 100,
+                0.5));
+
+        ISeriesData data = series.getSeriesData();
+        assertEquals(4, data.size());
+        assertEquals(100, data.getX(0), 0);
+        assertEquals(101.5, data.getX(3), 0);
+        assertEquals(5, data.getY(0), 0);
+        assertEquals(8, data.getY(3), 0);
+    }
+
+    /**
+     * Tests that data points cannot be appended to the mapped series.
+     *
+     * @throws IOException
+     *             if the file cannot be written or mapped
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testAppendToMapped() throws IOException {
+        File file = createFile(new double[] { 1, 10, 2, 20 });
+        ISeries series = chart.getSeriesSet().createSeries(SeriesType.LINE,
+                "mapped");
+        series.setSeries(SeriesDataFactory.createMappedSeriesData(file));
+        series.appendPoints(new double[] { 3 }, new double[] { 30 });
+    }
+
+    /**
+     * Tests appending data points to the ring buffer series beyond its
+     * capacity, so that the oldest ones are overwritten.
+     */
+    @Test
+    public void testRingBufferWraparound() {
+        ISeries series = chart.getSeriesSet().createSeries(SeriesType.LINE,
+                "ring");
+        series.setSeries(SeriesDataFactory.createRingBufferSeriesData(4));
+
+        series.appendPoints(new double[] { 1, 2, 3 }, new double[] { 10, 20,
+                30 });
+        ISeriesData data = series.getSeriesData();
+        assertEquals(3, data.size());
+        assertEquals(1, data.getX(0), 0);
+
+        // wraps around the end of buffer
+        series.appendPoints(new double[] { 4, 5, 6 }, new double[] { 40, 50,
+                60 });
+        assertEquals(4, data.size());
+        assertEquals(3, data.getX(0), 0);
+        assertEquals(30, data.getY(0), 0);
+        assertEquals(6, data.getX(3), 0);
+        assertEquals(60, data.getY(3), 0);
+
+        // only the latest points are kept if more than capacity is appended
+        series.appendPoints(new double[] { 7, 8, 9, 10, 11 }, new double[] {
+                70, 80, 90, 100, 110 });
+        assertEquals(4, data.size());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(8 + i, data.getX(i), 0);
+            assertEquals(80 + i * 10, data.getY(i), 0);
+        }
+    }
+
+    /**
+     * Tests that the ring buffer requires positive capacity.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testRingBufferWithoutCapacity() {
+        SeriesDataFactory.createRingBufferSeriesData(0);
+    }
+
+    /**
+     * Creates a temporary file of raw little-endian double values.
+     *
+     * @param values
+     *            the values
+     * @return the file
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    private static File createFile(double[] values) throws IOException {
+        File file = File.createTempFile("series", ".bin");
+        file.deleteOnExit();
+
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * 8).order(
+                ByteOrder.LITTLE_ENDIAN);
+        for (double value : values) {
+            buffer.putDouble(value);
+        }
+        FileOutputStream stream = new FileOutputStream(file);
+        try {
+            stream.write(buffer.array());
+        } finally {
+            stream.close();
+        }
+        return file;
+    }
+}
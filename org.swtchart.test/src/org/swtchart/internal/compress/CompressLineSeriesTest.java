@@ -0,0 +1,259 @@
+/*******************************************************************************
+ * Copyright (c) 2008-2016 SWTChart project. All rights reserved.
+ *
+ * This code is distributed under the terms of the Eclipse Public License v1.0
+ * which is available at http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.swtchart.internal.compress;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+import org.swtchart.ISeriesData;
+import org.swtchart.compress.CompressConfig;
+import org.swtchart.internal.series.ArraySeriesData;
+
+/**
+ * Tests that compressing line series in parallel gives exactly the same
+ * compressed series as compressing serially.
+ * <p>
+ * The series are split into small chunks, so that the chunk boundaries fall
+ * on every kind of state transition, such as stepping in and out of range.
+ */
+public class CompressLineSeriesTest {
+
+    /** the number of random series to be compressed */
+    private static final int ITERATIONS = 200;
+
+    /** the minimum number of data points in a chunk */
+    private static final int CHUNK_SIZE = 16;
+
+    /** the number of threads */
+    private static final int THREADS = 4;
+
+    /**
+     * Tests compressing random series in linear scale.
+     */
+    @Test
+    public void testParallelInLinearScale() {
+        Random random = new Random(1);
+        for (int i = 0; i < ITERATIONS; i++) {
+            ArraySeriesData series = createSeries(random, false);
+            CompressConfig config = createConfig(random, series, false);
+            assertCompressedSame(series, config, "iteration " + i);
+        }
+    }
+
+    /**
+     * Tests compressing random series in log scale.
+     */
+    @Test
+    public void testParallelInLogScale() {
+        Random random = new Random(2);
+        for (int i = 0; i < ITERATIONS; i++) {
+            ArraySeriesData series = createSeries(random, true);
+            CompressConfig config = createConfig(random, series, true);
+            assertCompressedSame(series, config, "iteration " + i);
+        }
+    }
+
+    /**
+     * Tests appending data points to the series compressed in parallel.
+     */
+    @Test
+    public void testAppendAfterParallel() {
+        Random random = new Random(3);
+        for (int i = 0; i < ITERATIONS; i++) {
+            boolean logScale = random.nextBoolean();
+            ArraySeriesData series = createSeries(random, logScale);
+            CompressConfig config = createConfig(random, series, logScale);
+
+            CompressLineSeries serial = new CompressLineSeries();
+            serial.setSeries(series);
+            serial.compress(config);
+
+            CompressLineSeries parallel = createParallelCompressor();
+            parallel.setSeries(series);
+            parallel.compress(config);
+
+            for (int j = 0; j < 3; j++) {
+                int fromIndex = series.size();
+                append(random, series, 1 + random.nextInt(200), logScale);
+                serial.seriesAppended(fromIndex);
+                parallel.seriesAppended(fromIndex);
+
+                String message = "iteration " + i + ", append " + j;
+                assertSame(serial, parallel, message);
+
+                // the same as compressing all data points from scratch
+                CompressLineSeries fresh = new CompressLineSeries();
+                fresh.setSeries(series);
+                fresh.compress(config);
+                assertSame(fresh, parallel, message);
+            }
+        }
+    }
+
+    /**
+     * Asserts that the series is compressed in parallel to the same
+     * compressed series as serially.
+     *
+     * @param series
+     *            the series
+     * @param config
+     *            the configuration
+     * @param message
+     *            the message to identify the case
+     */
+    private static void assertCompressedSame(ISeriesData series,
+            CompressConfig config, String message) {
+        CompressLineSeries serial = new CompressLineSeries();
+        serial.setSeries(series);
+        serial.compress(config);
+
+        CompressLineSeries parallel = createParallelCompressor();
+        parallel.setSeries(series);
+        parallel.compress(config);
+
+        assertSame(serial, parallel, message);
+    }
+
+    /**
+     * Asserts that the compressors have the same compressed series.
+     *
+     * @param expected
+     *            the expected compressor
+     * @param actual
+     *            the actual compressor
+     * @param message
+     *            the message to identify the case
+     */
+    private static void assertSame(CompressLineSeries expected,
+            CompressLineSeries actual, String message) {
+        ISeriesData expectedSeries = expected.getCompressedSeries();
+        ISeriesData actualSeries = actual.getCompressedSeries();
+        int size = expectedSeries.size();
+        assertEquals(message, size, actualSeries.size());
+        assertArrayEquals(message,
+                Arrays.copyOf(expected.getCompressedIndexes(), size),
+                Arrays.copyOf(actual.getCompressedIndexes(), size));
+        for (int i = 0; i < size; i++) {
+            assertEquals(message, expectedSeries.getX(i),
+                    actualSeries.getX(i), 0);
+            assertEquals(message, expectedSeries.getY(i),
+                    actualSeries.getY(i), 0);
+        }
+    }
+
+    /**
+     * Creates the compressor splitting even small series into chunks.
+     *
+     * @return the compressor
+     */
+    private static CompressLineSeries createParallelCompressor() {
+        CompressLineSeries compressor = new CompressLineSeries();
+        compressor.setChunking(0, CHUNK_SIZE, THREADS);
+        return compressor;
+    }
+
+    /**
+     * Creates a random walk series with monotone increasing X values. The Y
+     * values wander in and out of the range to be compressed, and often stay
+     * in the same grid for a while.
+     *
+     * @param random
+     *            the random number generator
+     * @param logScale
+     *            true to create positive values for log scale
+     * @return the series
+     */
+    private static ArraySeriesData createSeries(Random random,
+            boolean logScale) {
+        ArraySeriesData series = new ArraySeriesData(new double[] { 1 },
+                new double[] { 1 });
+        append(random, series, 1 + random.nextInt(2000), logScale);
+        return series;
+    }
+
+    /**
+     * Appends random walk data points to the series.
+     *
+     * @param random
+     *            the random number generator
+     * @param series
+     *            the series
+     * @param count
+     *            the number of data points to append
+     * @param logScale
+     *            true to append positive values for log scale
+     */
+    private static void append(Random random, ArraySeriesData series,
+            int count, boolean logScale) {
+        double[] xValues = new double[count];
+        double[] yValues = new double[count];
+        double x = series.getX(series.size() - 1);
+        double y = series.getY(series.size() - 1);
+        for (int i = 0; i < count; i++) {
+            x += random.nextInt(4) == 0 ? 0 : random.nextDouble();
+            double step = random.nextInt(8) == 0 ? random.nextGaussian() * 4
+                    : random.nextGaussian() * 0.01;
+            y = logScale ? y * Math.pow(10, step) : y + step;
+            xValues[i] = x;
+            yValues[i] = y;
+        }
+        series.append(xValues, yValues, count);
+    }
+
+    /**
+     * Creates a configuration with random ranges around the series.
+     *
+     * @param random
+     *            the random number generator
+     * @param series
+     *            the series
+     * @param logScale
+     *            true to compress in log scale
+     * @return the configuration
+     */
+    private static CompressConfig createConfig(Random random,
+            ISeriesData series, boolean logScale) {
+        double xMin = series.getX(0);
+        double xMax = series.getX(series.size() - 1);
+        double yMin = Double.MAX_VALUE;
+        double yMax = -Double.MAX_VALUE;
+        for (int i = 0; i < series.size(); i++) {
+            yMin = Math.min(yMin, series.getY(i));
+            yMax = Math.max(yMax, series.getY(i));
+        }
+
+        // the ranges may cover a part of series or be wider than series
+        double xLower = xMin + (xMax - xMin) * (random.nextDouble() - 0.2);
+        double xUpper = xLower + (xMax - xMin) * random.nextDouble() * 1.2;
+        double yLower = yMin + (yMax - yMin) * (random.nextDouble() - 0.2);
+        double yUpper = yLower + (yMax - yMin) * random.nextDouble() * 1.2;
+        if (logScale) {
+            xLower = Math.max(xLower, xMin);
+            yLower = Math.max(yLower, yMin);
+        }
+        if (!(xLower < xUpper)) {
+            xUpper = xLower + 1;
+        }
+        if (!(yLower < yUpper)) {
+            yUpper = yLower * 2 + 1;
+        }
+
+        CompressConfig config = new CompressConfig();
+        config.setSizeInPixel(50 + random.nextInt(400),
+                50 + random.nextInt(300));
+        config.setXLogScale(logScale);
+        config.setYLogScale(logScale);
+        config.setXRange(xLower, xUpper);
+        config.setYRange(yLower, yUpper);
+        config.setParallelEnabled(true);
+        return config;
+    }
+}
@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * Copyright (c) 2008-2016 SWTChart project. All rights reserved.
+ *
+ * This code is distributed under the terms of the Eclipse Public License v1.0
+ * which is available at http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.swtchart.internal.compress;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.layout.FillLayout;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.swtchart.Chart;
+import org.swtchart.IAxis;
+import org.swtchart.Range;
+import org.swtchart.compress.Compress;
+import org.swtchart.compress.CompressConfig;
+import org.swtchart.internal.series.ArraySeriesData;
+
+/**
+ * A benchmark comparing the compression and the axis mapping of 10M data
+ * points in linear scale and in log scale.
+ * <p>
+ * The range is panned at every frame so that the cache is always missed. The
+ * median and best times per frame are printed together with the hash of
+ * compressed indexes, which has to be the same before and after changing a
+ * compressor. The average is not printed, since a single garbage collection
+ * of the 10M data points can shift it by tens of milliseconds.
+ */
+public class LogScaleBenchmark {
+
+    /** the number of data points */
+    private static final int SIZE = 10000000;
+
+    /** the number of frames to be measured */
+    private static final int FRAMES = 10;
+
+    /** the number of frames to warm up */
+    private static final int WARMUP_FRAMES = 2;
+
+    /** the width of plot area */
+    private static final int WIDTH = 1600;
+
+    /** the height of plot area */
+    private static final int HEIGHT = 900;
+
+    /**
+     * The main method.
+     *
+     * @param args
+     *            the arguments
+     */
+    public static void main(String[] args) {
+        double[] xSeries = new double[SIZE];
+        double[] ySeries = new double[SIZE];
+        Random random = new Random(7);
+        for (int i = 0; i < SIZE; i++) {
+            xSeries[i] = 1 + i;
+            ySeries[i] = Math.pow(10, 3 + random.nextGaussian());
+        }
+        ArraySeriesData series = new ArraySeriesData(xSeries, ySeries);
+
+        for (String name : new String[] { "line", "line-par", "scatter",
+                "lttb" }) {
+            benchmarkCompress(name, series, false);
+            benchmarkCompress(name, series, true);
+        }
+
+        Display display = new Display();
+        Shell shell = new Shell(display);
+        shell.setSize(WIDTH, HEIGHT);
+        shell.setLayout(new FillLayout());
+        Chart chart = new Chart(shell, SWT.NONE);
+        shell.layout();
+        IAxis axis = chart.getAxisSet().getXAxis(0);
+        axis.setRange(new Range(1, SIZE));
+        benchmarkAxis(axis, xSeries, false);
+        benchmarkAxis(axis, xSeries, true);
+        display.dispose();
+    }
+
+    /**
+     * Measures the compression.
+     *
+     * @param name
+     *            the name of compressor
+     * @param series
+     *            the series
+     * @param logScale
+     *            true to compress in log scale
+     */
+    private static void benchmarkCompress(String name, ArraySeriesData series,
+            boolean logScale) {
+        Compress compressor;
+        if (name.equals("scatter")) {
+            compressor = new CompressScatterSeries();
+        } else if (name.equals("lttb")) {
+            compressor = new CompressLTTBSeries(2000);
+        } else {
+            compressor = new CompressLineSeries();
+        }
+        compressor.setCacheBudget(0);
+        compressor.setSeries(series);
+
+        long hash = 0;
+        long[] times = new long[FRAMES];
+        for (int frame = 0; frame < WARMUP_FRAMES + FRAMES; frame++) {
+            double lower = 1 + frame * 1000;
+            double upper = SIZE - frame * (SIZE / 100);
+            CompressConfig config = new CompressConfig();
+            config.setSizeInPixel(WIDTH, HEIGHT);
+            config.setParallelEnabled(name.equals("line-par"));
+            config.setXLogScale(logScale);
+            config.setYLogScale(logScale);
+            config.setXRange(lower, upper);
+            config.setYRange(0.5 + frame * 0.01, 2e6);
+            config.setXAxis(lower, upper, WIDTH, true, false);
+
+            long start = System.nanoTime();
+            compressor.compress(config);
+            long time = System.nanoTime() - start;
+            if (frame >= WARMUP_FRAMES) {
+                times[frame - WARMUP_FRAMES] = time;
+            }
+
+            int size = compressor.getCompressedSeries().size();
+            int[] indexes = compressor.getCompressedIndexes();
+            for (int i = 0; i < size; i++) {
+                hash = hash * 31 + indexes[i];
+            }
+            hash = hash * 31 + size;
+        }
+        Arrays.sort(times);
+        System.out.printf("%-9s %-6s median=%7.1f ms best=%7.1f ms hash=%x%n",
+                name, logScale ? "log" : "linear", times[FRAMES / 2] / 1e6,
+                times[0] / 1e6, hash);
+    }
+
+    /**
+     * Measures the mapping of data points to pixel coordinates.
+     *
+     * @param axis
+     *            the axis
+     * @param values
+     *            the values to be mapped
+     * @param logScale
+     *            true to map in log scale
+     */
+    private static void benchmarkAxis(IAxis axis, double[] values,
+            boolean logScale) {
+        axis.enableLogScale(logScale);
+
+        long sum = 0;
+        long best = Long.MAX_VALUE;
+        for (int frame = 0; frame < WARMUP_FRAMES + FRAMES; frame++) {
+            long start = System.nanoTime();
+            for (double value : values) {
+                sum += axis.getPixelCoordinate(value);
+            }
+            long time = System.nanoTime() - start;
+            if (frame >= WARMUP_FRAMES) {
+                best = Math.min(best, time);
+            }
+        }
+        System.out.printf("axis      %-6s best=%7.1f ms sum=%d%n",
+                logScale ? "log" : "linear", best / 1e6, sum);
+    }
+}
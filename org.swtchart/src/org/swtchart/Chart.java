@@ -6,6 +6,8 @@
  *******************************************************************************/
 package org.swtchart;
 
+import java.util.concurrent.ExecutorService;
+
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.graphics.GC;
@@ -17,6 +19,7 @@ import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.Listener;
+import org.swtchart.compress.Compress;
 import org.swtchart.internal.ChartLayout;
 import org.swtchart.internal.ChartLayoutData;
 import org.swtchart.internal.ChartTitle;
@@ -49,6 +52,21 @@ public class Chart extends Composite implements Listener {
     /** the state indicating if compressing series is enabled */
     private boolean compressEnabled;
 
+    /** the state indicating if compressing series in parallel is enabled */
+    private boolean parallelCompressEnabled;
+
+    /** the state indicating if compressing series in background is enabled */
+    private boolean asyncCompressEnabled;
+
+    /** the state indicating if rasterizing series in background is enabled */
+    private boolean asyncRenderEnabled;
+
+    /** the executor to compress series, or null to use the default one */
+    private ExecutorService compressExecutor;
+
+    /** the memory budget per series for the cache of compressed series */
+    private long compressCacheBudget;
+
     /** the state indicating if the update of chart appearance is suspended */
     private boolean updateSuspended;
 
@@ -65,6 +83,8 @@ public class Chart extends Composite implements Listener {
 
         orientation = SWT.HORIZONTAL;
         compressEnabled = true;
+        parallelCompressEnabled = true;
+        compressCacheBudget = Compress.DEFAULT_CACHE_BUDGET;
         updateSuspended = false;
 
         parent.layout();
@@ -218,6 +238,149 @@ public class Chart extends Composite implements Listener {
         return compressEnabled;
     }
 
+    /**
+     * Enables compressing series in parallel. By default, the series are
+     * compressed in parallel, and the results are joined before the chart is
+     * painted. If disabled, the series are compressed one after another on the
+     * UI thread.
+     * 
+     * @param enabled
+     *            true if enabling compressing series in parallel
+     */
+    public void enableParallelCompress(boolean enabled) {
+        parallelCompressEnabled = enabled;
+    }
+
+    /**
+     * Gets the state indicating if compressing series in parallel is enabled.
+     * 
+     * @return true if compressing series in parallel is enabled
+     */
+    public boolean isParallelCompressEnabled() {
+        return parallelCompressEnabled;
+    }
+
+    /**
+     * Enables compressing series in background. By default, the series are
+     * compressed before the chart is painted. If enabled, the previous
+     * compressed series are painted on the current axes while the series are
+     * compressed on the compress executor, and the chart is redrawn when
+     * completed. The series which have not been compressed yet are still
+     * compressed before the chart is painted.
+     * 
+     * @param enabled
+     *            true if enabling compressing series in background
+     */
+    public void enableAsyncCompress(boolean enabled) {
+        asyncCompressEnabled = enabled;
+    }
+
+    /**
+     * Gets the state indicating if compressing series in background is
+     * enabled.
+     * 
+     * @return true if compressing series in background is enabled
+     */
+    public boolean isAsyncCompressEnabled() {
+        return asyncCompressEnabled;
+    }
+
+    /**
+     * Enables rasterizing series in background. By default, the series are
+     * drawn with the graphics context on UI thread. If enabled, the series are
+     * rasterized into image data on the compress executor, and UI thread only
+     * creates an image from the completed frame and draws it. The previous
+     * frame is painted until the next one is completed.
+     * <p>
+     * The series are rasterized without anti-aliasing. The chart is drawn on
+     * UI thread as before if any visible series has anything which cannot be
+     * rasterized, i.e. bar series, trace density series, and line series with
+     * area, stack, density, labels, error bars or line style other than solid
+     * or none.
+     * 
+     * @param enabled
+     *            true if enabling rasterizing series in background
+     */
+    public void enableAsyncRender(boolean enabled) {
+        asyncRenderEnabled = enabled;
+        plotArea.redraw();
+    }
+
+    /**
+     * Gets the state indicating if rasterizing series in background is
+     * enabled.
+     * 
+     * @return true if rasterizing series in background is enabled
+     */
+    public boolean isAsyncRenderEnabled() {
+        return asyncRenderEnabled;
+    }
+
+    /**
+     * Sets the executor to compress series in parallel. By default, a fork join
+     * pool shared by all charts is used.
+     * 
+     * @param executor
+     *            the executor, or <tt>null</tt> to use the default one
+     */
+    public void setCompressExecutor(ExecutorService executor) {
+        compressExecutor = executor;
+    }
+
+    /**
+     * Gets the executor to compress series in parallel.
+     * 
+     * @return the executor, or <tt>null</tt> if the default one is used
+     */
+    public ExecutorService getCompressExecutor() {
+        return compressExecutor;
+    }
+
+    /**
+     * Sets the memory budget per series for the cache of compressed series.
+     * The compressed series are cached per view configuration (i.e. axis
+     * ranges, log scales and plot area size), so that going back to a
+     * previous zoom level doesn't compress the series again. The least
+     * recently used ones are evicted when exceeding the budget.
+     * 
+     * @param budget
+     *            the memory budget per series in bytes, or 0 to disable the
+     *            cache
+     */
+    public void setCompressCacheBudget(long budget) {
+        compressCacheBudget = Math.max(0, budget);
+    }
+
+    /**
+     * Gets the memory budget per series for the cache of compressed series.
+     * 
+     * @return the memory budget per series in bytes
+     */
+    public long getCompressCacheBudget() {
+        return compressCacheBudget;
+    }
+
+    /**
+     * Gets the number of times the compressed series of the current series
+     * have been served without compressing, either because the view hasn't
+     * changed or from the cache.
+     * 
+     * @return the number of cache hits
+     */
+    public long getCompressCacheHitCount() {
+        return ((SeriesSet) getSeriesSet()).getCompressCacheHitCount();
+    }
+
+    /**
+     * Gets the number of times the current series have been actually
+     * compressed.
+     * 
+     * @return the number of cache misses
+     */
+    public long getCompressCacheMissCount() {
+        return ((SeriesSet) getSeriesSet()).getCompressCacheMissCount();
+    }
+
     /**
      * Suspends the update of chart appearance.
      * 
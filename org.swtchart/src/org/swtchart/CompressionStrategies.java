@@ -0,0 +1,225 @@
+/*******************************************************************************
+ * Copyright (c) 2008-2016 SWTChart project. All rights reserved.
+ *
+ * This code is distributed under the terms of the Eclipse Public License v1.0
+ * which is available at http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.swtchart;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.swt.SWT;
+import org.swtchart.compress.ICompress;
+import org.swtchart.internal.compress.CompressBarSeries;
+import org.swtchart.internal.compress.CompressLTTBSeries;
+import org.swtchart.internal.compress.CompressLineSeries;
+import org.swtchart.internal.compress.CompressM4Series;
+import org.swtchart.internal.compress.CompressPolylineSeries;
+import org.swtchart.internal.compress.CompressScatterSeries;
+import org.swtchart.internal.compress.CompressStepSeries;
+
+/**
+ * The registry of compression strategies by name, which holds the built-in
+ * strategies and the ones registered by client code.
+ * <p>
+ * The built-in strategies for monotone X values fall back to the scatter
+ * strategy when X values are not monotone increasing. The line series select
+ * the built-in strategies <tt>LINE</tt>, <tt>M4</tt> and <tt>LTTB</tt> with
+ * <tt>ISeries.setCompressionType(CompressionType)</tt>, and the bar series
+ * use <tt>BAR</tt>, unless a strategy is set with
+ * <tt>ISeries.setCompressionStrategy(ICompressionStrategy)</tt>.
+ */
+public final class CompressionStrategies {
+
+    /** the name of strategy ignoring data points in the same grid as previous */
+    public static final String LINE = "Line"; //$NON-NLS-1$
+
+    /** the name of strategy ignoring data points in occupied grids */
+    public static final String SCATTER = "Scatter"; //$NON-NLS-1$
+
+    /** the name of strategy keeping a data point per grid of bars */
+    public static final String BAR = "Bar"; //$NON-NLS-1$
+
+    /**
+     * the name of strategy keeping the first, last, minimum and maximum data
+     * points per pixel column
+     */
+    public static final String M4 = "M4"; //$NON-NLS-1$
+
+    /**
+     * the name of strategy downsampling to the compression point count with
+     * Largest-Triangle-Three-Buckets
+     */
+    public static final String LTTB = "LTTB"; //$NON-NLS-1$
+
+    /** the strategies by name in registration order */
+    private static final Map<String, ICompressionStrategy> STRATEGIES = new LinkedHashMap<>();
+
+    static {
+        STRATEGIES.put(LINE, new ICompressionStrategy() {
+            public ICompress createCompressor(ISeries series,
+                    boolean isXMonotoneIncreasing) {
+                if (isXMonotoneIncreasing && isStepEnabled(series)) {
+                    return new CompressStepSeries();
+                } else if (isXMonotoneIncreasing) {
+                    return new CompressLineSeries();
+                }
+                return createScatterCompressor(series);
+            }
+        });
+        STRATEGIES.put(SCATTER, new ICompressionStrategy() {
+            public ICompress createCompressor(ISeries series,
+                    boolean isXMonotoneIncreasing) {
+                return createScatterCompressor(series);
+            }
+        });
+        STRATEGIES.put(BAR, new ICompressionStrategy() {
+            public ICompress createCompressor(ISeries series,
+                    boolean isXMonotoneIncreasing) {
+                if (isXMonotoneIncreasing && series instanceof IBarSeries) {
+                    return new CompressBarSeries(((IBarSeries) series)
+                            .getAggregationMode());
+                } else if (isXMonotoneIncreasing) {
+                    return new CompressBarSeries();
+                }
+                return createScatterCompressor(series);
+            }
+        });
+        STRATEGIES.put(M4, new ICompressionStrategy() {
+            public ICompress createCompressor(ISeries series,
+                    boolean isXMonotoneIncreasing) {
+                if (isXMonotoneIncreasing && isStepEnabled(series)) {
+                    return new CompressStepSeries();
+                } else if (isXMonotoneIncreasing) {
+                    return new CompressM4Series();
+                }
+                return createScatterCompressor(series);
+            }
+        });
+        STRATEGIES.put(LTTB, new ICompressionStrategy() {
+            public ICompress createCompressor(ISeries series,
+                    boolean isXMonotoneIncreasing) {
+                if (isXMonotoneIncreasing && isStepEnabled(series)) {
+                    return new CompressStepSeries();
+                } else if (isXMonotoneIncreasing) {
+                    return new CompressLTTBSeries(series
+                            .getCompressionPointCount());
+                }
+                return createScatterCompressor(series);
+            }
+        });
+    }
+
+    /**
+     * Constructor.
+     */
+    private CompressionStrategies() {
+        // do nothing
+    }
+
+    /**
+     * Gets the state indicating if the given series is a line series with
+     * steps, whose levels have to be kept exactly.
+     * 
+     * @param series
+     *            the series
+     * @return true if step is enabled
+     */
+    private static boolean isStepEnabled(ISeries series) {
+        return series instanceof ILineSeries
+                && ((ILineSeries) series).isStepEnabled();
+    }
+
+    /**
+     * Creates the scatter compressor for the given series, or the polyline
+     * compressor keeping the line connecting data points if the series has
+     * visible line.
+     * 
+     * @param series
+     *            the series
+     * @return the compressor
+     */
+    private static ICompress createScatterCompressor(ISeries series) {
+        if (series instanceof ILineSeries
+                && ((ILineSeries) series).getLineStyle() != LineStyle.NONE) {
+            return new CompressPolylineSeries();
+        }
+        return new CompressScatterSeries();
+    }
+
+    /**
+     * Registers the compression strategy with the given name. The strategy
+     * already registered with the same name is replaced, except for the
+     * built-in strategies.
+     * 
+     * @param name
+     *            the name of strategy
+     * @param strategy
+     *            the strategy
+     */
+    public static synchronized void register(String name,
+            ICompressionStrategy strategy) {
+        if (name == null || strategy == null) {
+            SWT.error(SWT.ERROR_NULL_ARGUMENT);
+            return; // to suppress warning...
+        }
+        if (isBuiltIn(name)) {
+            throw new IllegalArgumentException(
+                    "Built-in strategy cannot be replaced: " + name); //$NON-NLS-1$
+        }
+        STRATEGIES.put(name, strategy);
+    }
+
+    /**
+     * Unregisters the compression strategy with the given name. The built-in
+     * strategies cannot be unregistered.
+     * 
+     * @param name
+     *            the name of strategy
+     */
+    public static synchronized void unregister(String name) {
+        if (name == null) {
+            SWT.error(SWT.ERROR_NULL_ARGUMENT);
+            return; // to suppress warning...
+        }
+        if (isBuiltIn(name)) {
+            throw new IllegalArgumentException(
+                    "Built-in strategy cannot be unregistered: " + name); //$NON-NLS-1$
+        }
+        STRATEGIES.remove(name);
+    }
+
+    /**
+     * Gets the compression strategy with the given name.
+     * 
+     * @param name
+     *            the name of strategy
+     * @return the strategy, or <tt>null</tt> if not registered
+     */
+    public static synchronized ICompressionStrategy get(String name) {
+        return STRATEGIES.get(name);
+    }
+
+    /**
+     * Gets the names of registered strategies, starting with the built-in
+     * strategies.
+     * 
+     * @return the names of strategies
+     */
+    public static synchronized String[] getNames() {
+        return STRATEGIES.keySet().toArray(new String[STRATEGIES.size()]);
+    }
+
+    /**
+     * Gets the state indicating if the given name is of built-in strategy.
+     * 
+     * @param name
+     *            the name of strategy
+     * @return true if the strategy is built-in
+     */
+    private static boolean isBuiltIn(String name) {
+        return LINE.equals(name) || SCATTER.equals(name) || BAR.equals(name)
+                || M4.equals(name) || LTTB.equals(name);
+    }
+}
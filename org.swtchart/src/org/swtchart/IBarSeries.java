@@ -26,6 +26,24 @@ public interface IBarSeries extends ISeries {
         FIXED;
     }
 
+    /**
+     * The aggregation mode of bars hidden behind a pixel column.
+     */
+    public enum AggregationMode {
+
+        /** the maximum y value is drawn. */
+        MAX,
+
+        /** the minimum y value is drawn. */
+        MIN,
+
+        /** the sum of y values is drawn. */
+        SUM,
+
+        /** the mean of y values is drawn. */
+        MEAN;
+    }
+
     /**
      * Gets the bar width style.
      * 
@@ -102,4 +120,23 @@ public interface IBarSeries extends ISeries {
      * @return the array of bar rectangles in pixels.
      */
     Rectangle[] getBounds();
-}
\ No newline at end of file
+
+    /**
+     * Gets the aggregation mode.
+     * 
+     * @return the aggregation mode
+     */
+    AggregationMode getAggregationMode();
+
+    /**
+     * Sets the aggregation mode. If there are more bars than pixels along X
+     * axis, the bars in each pixel column are merged into a single bar whose
+     * y value is aggregated with the given mode. The mode is active only when
+     * the X axis is not category axis and X values are monotone increasing.
+     * The default is <tt>AggregationMode.MAX</tt>.
+     * 
+     * @param mode
+     *            the aggregation mode, or <tt>null</tt> to set the default
+     */
+    void setAggregationMode(AggregationMode mode);
+}
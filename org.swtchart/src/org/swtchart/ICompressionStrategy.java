@@ -0,0 +1,44 @@
+/*******************************************************************************
+ * Copyright (c) 2008-2016 SWTChart project. All rights reserved.
+ *
+ * This code is distributed under the terms of the Eclipse Public License v1.0
+ * which is available at http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.swtchart;
+
+import org.swtchart.compress.Compress;
+import org.swtchart.compress.ICompress;
+
+/**
+ * A compression strategy, which creates the compressor reducing the data
+ * points of a series to the ones to be drawn.
+ * <p>
+ * The compressor can be implemented either from scratch with
+ * <tt>ICompress</tt>, or by extending <tt>Compress</tt> which takes care of
+ * the ranges, the cache and the compressed series, and only asks for the data
+ * points to be kept with <tt>Compress.addToList(double, double, int)</tt>.
+ * <p>
+ * The compressed series must be a subset of the series: the compressed
+ * indexes have to be the indexes of the kept data points in the series, so
+ * that the labels, error bars and symbol colors of the series line up with
+ * the compressed series.
+ * 
+ * @see CompressionStrategies
+ * @see ICompress
+ * @see Compress
+ */
+public interface ICompressionStrategy {
+
+    /**
+     * Creates the compressor for the given series. The compressor is created
+     * again whenever the series data is set or X values stop or start being
+     * monotone increasing.
+     * 
+     * @param series
+     *            the series
+     * @param isXMonotoneIncreasing
+     *            true if X values of series are monotone increasing
+     * @return the compressor
+     */
+    ICompress createCompressor(ISeries series, boolean isXMonotoneIncreasing);
+}
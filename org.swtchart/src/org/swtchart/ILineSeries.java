@@ -7,6 +7,7 @@
 package org.swtchart;
 
 import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.RGB;
 
 /**
  * Line series.
@@ -223,4 +224,52 @@ public interface ILineSeries extends ISeries {
      *            <tt>SWT.ON</tt> or <tt>SWT.OFF</tt>.
      */
     void setAntialias(int antialias);
+
+    /**
+     * Enables the density rendering. If enabled, the number of data points per
+     * pixel is drawn as a single image colored with the density color map
+     * instead of drawing the plot symbols and labels, so that the drawing cost
+     * doesn't depend on the number of data points.
+     *
+     * @param enabled
+     *            true if enabling density rendering
+     */
+    void enableDensity(boolean enabled);
+
+    /**
+     * Gets the state indicating if density rendering is enabled.
+     *
+     * @return true if density rendering is enabled
+     */
+    boolean isDensityEnabled();
+
+    /**
+     * Gets the density color map.
+     *
+     * @return the colors from sparse to dense
+     */
+    RGB[] getDensityColorMap();
+
+    /**
+     * Sets the density color map. The colors are interpolated, and the number
+     * of data points is mapped to the colors in log scale.
+     *
+     * @param colors
+     *            the colors from sparse to dense, or <tt>null</tt> to set the
+     *            default color map
+     */
+    void setDensityColorMap(RGB[] colors);
+
+    /**
+     * Gets the number of data points at the given pixel, which has been
+     * counted when the series was drawn last time with density rendering.
+     *
+     * @param x
+     *            the horizontal pixel coordinate in plot area
+     * @param y
+     *            the vertical pixel coordinate in plot area
+     * @return the number of data points, or 0 if density rendering is not
+     *         enabled
+     */
+    int getDensity(int x, int y);
 }
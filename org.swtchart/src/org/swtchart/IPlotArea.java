@@ -26,4 +26,16 @@ public interface IPlotArea {
      *            the custom paint listener
      */
     public void removeCustomPaintListener(ICustomPaintListener listener);
+
+    /**
+     * Redraws only the overlay, i.e. the custom paint listeners drawing over
+     * series and the other paint listeners added to plot area. The background,
+     * grids and series drawn last time are reused, unless the plot area size,
+     * axes, grids or series have been changed since then.
+     * <p>
+     * This is useful to redraw frequently changing overlay such as selection
+     * rectangle while dragging mouse. Unlike <tt>redraw()</tt>, the custom
+     * paint listeners drawing behind series are not called again.
+     */
+    public void redrawOverlay();
 }
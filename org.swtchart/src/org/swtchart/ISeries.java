@@ -25,7 +25,10 @@ public interface ISeries {
         LINE("Line"),
 
         /** the bar */
-        BAR("Bar");
+        BAR("Bar"),
+
+        /** the density of overlapping traces */
+        TRACE_DENSITY("Trace Density");
 
         /** the label for series type */
         public final String label;
@@ -41,6 +44,48 @@ public interface ISeries {
         }
     }
 
+    /**
+     * A compression type, which is the way to reduce the data points to be
+     * drawn. Each compression type selects a built-in compression strategy
+     * registered in <tt>CompressionStrategies</tt>.
+     */
+    public enum CompressionType {
+
+        /** the data points in the same grid as previous are ignored */
+        GRID("Grid", CompressionStrategies.LINE),
+
+        /**
+         * the first, last, minimum and maximum data points are kept for each
+         * pixel column
+         */
+        M4("M4", CompressionStrategies.M4),
+
+        /**
+         * the data points are downsampled to the compression point count with
+         * Largest-Triangle-Three-Buckets
+         */
+        LTTB("LTTB", CompressionStrategies.LTTB);
+
+        /** the label for compression type */
+        public final String label;
+
+        /** the name of compression strategy */
+        public final String strategyName;
+
+        /**
+         * Constructor.
+         * 
+         * @param label
+         *            the label for compression type
+         * @param strategyName
+         *            the name of compression strategy
+         */
+        private CompressionType(String label, String strategyName) {
+            this.label = label;
+            this.strategyName = strategyName;
+        }
+    }
+
     /**
      * Gets the series id.
      * 
@@ -88,13 +133,120 @@ public interface ISeries {
     boolean isStackEnabled();
 
     /**
-     * Sets the series.
+     * Sets the series. The list is not copied, so changes made to it become
+     * visible after calling <tt>invalidateData()</tt>.
      * 
      * @param series
      *            the series
      */
     void setSeries(ArrayList<XYdata> series);
-    
+
+    /**
+     * Sets the series with parallel arrays of X and Y values. The arrays are
+     * not copied, so changes made to them become visible after calling
+     * <tt>invalidateData()</tt>. If the lengths differ, the extra values of
+     * the longer array are ignored.
+     * 
+     * @param xSeries
+     *            the X series
+     * @param ySeries
+     *            the Y series
+     */
+    void setSeries(double[] xSeries, double[] ySeries);
+
+    /**
+     * Sets the source of series data. The built-in sources, such as the one
+     * mapped from a file or the ring buffer, are created with
+     * <tt>SeriesDataFactory</tt>.
+     * 
+     * @param data
+     *            the series data
+     */
+    void setSeries(ISeriesData data);
+
+    /**
+     * Appends data points to the end of the series. The range of series and
+     * the compressed series are updated only for the appended points, so that
+     * the cost does not depend on the number of points already in the series.
+     * <p>
+     * If the lengths differ, the extra values of the longer array are
+     * ignored. If the series was set with arrays, the given arrays are no
+     * longer used as storage after appending. If the series data is a ring
+     * buffer created with
+     * <tt>SeriesDataFactory.createRingBufferSeriesData(int)</tt>, the oldest
+     * points are overwritten once its capacity is reached.
+     * 
+     * @param xSeries
+     *            the X values to append
+     * @param ySeries
+     *            the Y values to append
+     * @throws IllegalStateException
+     *             if the series data does not support appending, e.g. it is
+     *             mapped from a file
+     */
+    void appendPoints(double[] xSeries, double[] ySeries);
+
+    /**
+     * Sets the compression type. The compression type is applied to line
+     * series by selecting the built-in compression strategy with the name
+     * <tt>CompressionType.strategyName</tt>, and ignored by other series. It
+     * is ignored as well while a compression strategy is set with
+     * <tt>setCompressionStrategy(ICompressionStrategy)</tt>, which takes
+     * precedence. The default is <tt>CompressionType.GRID</tt>.
+     * 
+     * @param type
+     *            the compression type
+     */
+    void setCompressionType(CompressionType type);
+
+    /**
+     * Gets the compression type.
+     * 
+     * @return the compression type
+     */
+    CompressionType getCompressionType();
+
+    /**
+     * Sets the number of data points to be kept by the LTTB compression
+     * strategy, regardless of plot area size. It applies whether the strategy
+     * is selected with <tt>CompressionType.LTTB</tt> or set with
+     * <tt>setCompressionStrategy(ICompressionStrategy)</tt>. The default is
+     * 2000.
+     * 
+     * @param count
+     *            the number of data points, which is at least 3
+     */
+    void setCompressionPointCount(int count);
+
+    /**
+     * Gets the number of data points to be kept by the LTTB compression
+     * strategy.
+     * 
+     * @return the number of data points
+     */
+    int getCompressionPointCount();
+
+    /**
+     * Sets the compression strategy, which creates the compressor reducing the
+     * data points to be drawn. The strategy takes precedence over the
+     * compression type, which selects the strategy only while no strategy is
+     * set. The built-in strategies and the ones registered by client code are
+     * available from <tt>CompressionStrategies</tt>.
+     * 
+     * @param strategy
+     *            the compression strategy, or <tt>null</tt> to use the default
+     *            strategy for the series type and compression type
+     */
+    void setCompressionStrategy(ICompressionStrategy strategy);
+
+    /**
+     * Gets the compression strategy.
+     * 
+     * @return the compression strategy, or <tt>null</tt> if the default
+     *         strategy is used
+     */
+    ICompressionStrategy getCompressionStrategy();
+
     /**
      * Forces the graph to recalculate it data
      */
@@ -102,11 +254,22 @@ public interface ISeries {
 
     /**
      * Gets the series. If the series is not set, empty array will be returned.
+     * <p>
+     * If the series was set as a list, the same list is returned. Otherwise a
+     * new list is created from the series data each time, so that it is
+     * preferable to use <tt>getSeriesData()</tt> for large series.
      * 
      * @return the series
      */
     ArrayList<XYdata> getSeries();
 
+    /**
+     * Gets the source of series data.
+     * 
+     * @return the series data
+     */
+    ISeriesData getSeriesData();
+
 
 //    /**
 //     * Sets the X date series.
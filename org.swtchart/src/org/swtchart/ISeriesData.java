@@ -0,0 +1,42 @@
+/*******************************************************************************
+ * Copyright (c) 2008-2016 SWTChart project. All rights reserved.
+ *
+ * This code is distributed under the terms of the Eclipse Public License v1.0
+ * which is available at http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.swtchart;
+
+/**
+ * A read-only source of series data.
+ * <p>
+ * The data is accessed by index with primitive accessors, so that the
+ * implementation can store the values in whatever form is cheapest (e.g.
+ * parallel <tt>double</tt> arrays) without creating an object per point.
+ */
+public interface ISeriesData {
+
+    /**
+     * Gets the number of data points.
+     *
+     * @return the number of data points
+     */
+    int size();
+
+    /**
+     * Gets the X value at the given index.
+     *
+     * @param index
+     *            the index between <tt>0</tt> and <tt>size() - 1</tt>
+     * @return the X value
+     */
+    double getX(int index);
+
+    /**
+     * Gets the Y value at the given index.
+     *
+     * @param index
+     *            the index between <tt>0</tt> and <tt>size() - 1</tt>
+     * @return the Y value
+     */
+    double getY(int index);
+}
@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright (c) 2008-2016 SWTChart project. All rights reserved.
+ *
+ * This code is distributed under the terms of the Eclipse Public License v1.0
+ * which is available at http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.swtchart;
+
+import org.eclipse.swt.graphics.RGB;
+
+/**
+ * Trace density series, which overlays a large number of traces such as
+ * waveform captures. The traces are rasterized into a single grid counting the
+ * traces crossing each pixel, and the grid is drawn as an image colored with
+ * the color map.
+ * <p>
+ * The series data is the concatenation of all traces. The data points set
+ * with <tt>setSeries</tt> make a single trace, and the data points appended
+ * with <tt>appendPoints</tt> extend the last trace.
+ */
+public interface ITraceDensitySeries extends ISeries {
+
+    /**
+     * Adds a trace. The data points are appended to the series data as a new
+     * trace.
+     *
+     * @param xSeries
+     *            the X series of trace
+     * @param ySeries
+     *            the Y series of trace
+     * @throws IllegalStateException
+     *             if the series data doesn't support appending
+     */
+    void addTrace(double[] xSeries, double[] ySeries);
+
+    /**
+     * Removes all traces.
+     */
+    void clearTraces();
+
+    /**
+     * Gets the number of traces.
+     *
+     * @return the number of traces
+     */
+    int getTraceCount();
+
+    /**
+     * Gets the color map.
+     *
+     * @return the colors from sparse to dense
+     */
+    RGB[] getColorMap();
+
+    /**
+     * Sets the color map. The colors are interpolated, and the number of
+     * traces crossing a pixel is mapped to the colors in log scale.
+     *
+     * @param colors
+     *            the colors from sparse to dense, or <tt>null</tt> to set the
+     *            default color map
+     */
+    void setColorMap(RGB[] colors);
+
+    /**
+     * Gets the number of traces crossing the given pixel, which has been
+     * counted when the series was drawn last time.
+     *
+     * @param x
+     *            the horizontal pixel coordinate in plot area
+     * @param y
+     *            the vertical pixel coordinate in plot area
+     * @return the number of traces
+     */
+    int getDensity(int x, int y);
+}
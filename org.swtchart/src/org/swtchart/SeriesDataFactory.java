@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2008-2016 SWTChart project. All rights reserved.
+ *
+ * This code is distributed under the terms of the Eclipse Public License v1.0
+ * which is available at http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.swtchart;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.eclipse.swt.SWT;
+import org.swtchart.internal.series.MappedSeriesData;
+import org.swtchart.internal.series.RingBufferSeriesData;
+
+/**
+ * The factory of series data sources, which are set to a series with
+ * <tt>ISeries.setSeries(ISeriesData)</tt>.
+ */
+public final class SeriesDataFactory {
+
+    /**
+     * Constructor.
+     */
+    private SeriesDataFactory() {
+        // do nothing
+    }
+
+    /**
+     * Creates the series data mapped from a file of interleaved X and Y
+     * values, which are raw little-endian <tt>double</tt> values. The values
+     * are read from the mapped file when needed and never copied to the heap,
+     * so that the heap footprint does not depend on the file size. The series
+     * data is read-only, and data points cannot be appended to it.
+     *
+     * @param file
+     *            the file
+     * @return the series data
+     * @throws IOException
+     *             if the file cannot be mapped
+     */
+    public static ISeriesData createMappedSeriesData(File file)
+            throws IOException {
+        if (file == null) {
+            SWT.error(SWT.ERROR_NULL_ARGUMENT);
+            return null; // to suppress warning...
+        }
+        return new MappedSeriesData(file);
+    }
+
+    /**
+     * Creates the series data mapped from a file of Y values sampled at a
+     * fixed X interval, which are raw little-endian <tt>double</tt> values.
+     * The values are read from the mapped file when needed and never copied
+     * to the heap, so that the heap footprint does not depend on the file
+     * size. The series data is read-only, and data points cannot be appended
+     * to it.
+     *
+     * @param file
+     *            the file
+     * @param xStart
+     *            the X value of the first sample
+     * @param xInterval
+     *            the X interval between samples
+     * @return the series data
+     * @throws IOException
+     *             if the file cannot be mapped
+     */
+    public static ISeriesData createMappedSeriesData(File file, double xStart,
+            double xInterval) throws IOException {
+        if (file == null) {
+            SWT.error(SWT.ERROR_NULL_ARGUMENT);
+            return null; // to suppress warning...
+        }
+        return new MappedSeriesData(file, xStart, xInterval);
+    }
+
+    /**
+     * Creates the empty series data holding the latest data points up to the
+     * given capacity. Data points are appended with
+     * <tt>ISeries.appendPoints(double[], double[])</tt>, and the oldest ones
+     * are overwritten once the capacity is reached. The range of series is
+     * updated in constant time per appended data point.
+     *
+     * @param capacity
+     *            the maximum number of data points
+     * @return the series data
+     * @throws IllegalArgumentException
+     *             if the capacity is not positive
+     */
+    public static ISeriesData createRingBufferSeriesData(int capacity) {
+        return new RingBufferSeriesData(capacity);
+    }
+}
@@ -0,0 +1,971 @@
+/*******************************************************************************
+ * Copyright (c) 2008-2016 SWTChart project. All rights reserved. 
+ * 
+ * This code is distributed under the terms of the Eclipse Public License v1.0
+ * which is available at http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.swtchart.compress;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import org.swtchart.ISeriesData;
+
+/**
+ * A base class for compressor providing default implementations.
+ */
+public abstract class Compress implements ICompress {
+
+    /** the initial capacity of the buffers for compressed series */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /** the default memory budget for the cache of compressed series in bytes */
+    public static final long DEFAULT_CACHE_BUDGET = 2 * 1024 * 1024;
+
+    /** the number of bytes per compressed data point (x, y and index) */
+    private static final int BYTES_PER_POINT = 20;
+
+    /** the previous X grid index */
+    protected int previousXGridIndex;
+
+    /** the previous Y grid index */
+    protected int previousYGridIndex;
+
+    /** the configuration for compressor */
+    protected CompressConfig config;
+
+    /** the previous configuration for compressor */
+    protected CompressConfig prevConfig;
+
+    /** the flag indicating whether the data is compressed */
+    protected boolean compressed;
+
+    /** the source series to be compressed */
+    protected ISeriesData series = null;
+
+    /** the compressed series */
+    protected transient ISeriesData compressedSeries = null;
+
+    /** the compressed series indexes */
+    protected transient int[] compressedIndexes = null;
+
+    /** the number of data points between checks of cancellation */
+    protected static final int CANCEL_CHECK_INTERVAL = 1 << 16;
+
+    /** the cancellation of compression in progress, or null */
+    protected ICancellation cancellation;
+
+    /** the x values of compressed series, reused across compressions */
+    private double[] xBuffer;
+
+    /** the y values of compressed series, reused across compressions */
+    private double[] yBuffer;
+
+    /** the indexes of compressed series, reused across compressions */
+    private int[] indexBuffer;
+
+    /** the number of points in the compressed series being built */
+    private int bufferSize;
+
+    /** the compressed series projected into a polyline in pixel coordinates */
+    private int[] polyline;
+
+    /** the buffer to build polyline, reused across projections */
+    private int[] polylineBuffer = new int[0];
+
+    /** the number of coordinates in the polyline being built */
+    private int polylineSize;
+
+    /** the compressed series from which the polyline has been projected */
+    private ISeriesData polylineSeries;
+
+    /** the configuration on whose axes the polyline has been projected */
+    private CompressConfig polylineConfig;
+
+    /** the lower value of x range */
+    protected double xLower;
+
+    /** the upper value of x range */
+    protected double xUpper;
+
+    /** the lower value of y range */
+    protected double yLower;
+
+    /** the upper value of y range */
+    protected double yUpper;
+
+    /** the state indicating if x axis is log scale */
+    private boolean isXLogScale;
+
+    /** the state indicating if y axis is log scale */
+    private boolean isYLogScale;
+
+    /** the lower value of x range in log scale if enabled */
+    protected double xLowerInScale;
+
+    /** the upper value of x range in log scale if enabled */
+    protected double xUpperInScale;
+
+    /** the lower value of y range in log scale if enabled */
+    protected double yLowerInScale;
+
+    /** the upper value of y range in log scale if enabled */
+    protected double yUpperInScale;
+
+    /**
+     * the logarithms of x values, or null if x axis is not log scale or the
+     * column of logarithms is disabled
+     */
+    protected double[] xLogSeries;
+
+    /**
+     * the logarithms of y values, or null if y axis is not log scale or the
+     * column of logarithms is disabled
+     */
+    protected double[] yLogSeries;
+
+    /** the state indicating if the columns of logarithms are kept */
+    private boolean logColumnEnabled = true;
+
+    /** the column of logarithms of x values, kept while in log scale */
+    private LogColumn xLogColumn;
+
+    /** the column of logarithms of y values, kept while in log scale */
+    private LogColumn yLogColumn;
+
+    /** the plot area width in pixels */
+    private long widthInPixel;
+
+    /** the plot area height in pixels */
+    private long heightInPixel;
+
+    /** the cache of compressed series in least recently used order */
+    private final LinkedHashMap<CompressConfig, CacheEntry> cache = new LinkedHashMap<>(
+            16, 0.75f, true);
+
+    /** the memory budget for the cache in bytes */
+    private long cacheBudget = DEFAULT_CACHE_BUDGET;
+
+    /** the memory used by the cache in bytes */
+    private long cacheSize;
+
+    /**
+     * the cache entry to which the buffers have been given, so that they are
+     * replaced before compressing again while the entry is cached
+     */
+    private CacheEntry bufferEntry;
+
+    /** the cache entry evicted last, whose buffers can be reused */
+    private CacheEntry spareEntry;
+
+    /** the number of compressions served without compressing */
+    private long cacheHitCount;
+
+    /** the number of compressions actually performed */
+    private long cacheMissCount;
+
+    /**
+     * the flag indicating whether the compressed series has been taken from
+     * the cache, in which case the state to add appended plots is not valid
+     */
+    private boolean restoredFromCache;
+
+    /*
+     * @see ICompress#setSeries(ISeriesData)
+     */
+    public void setSeries(ISeriesData series) {
+        if (series == null) {
+            return;
+        }
+
+        this.series = series;
+        compressedSeries = series;
+        compressedIndexes = null;
+
+        compressed = false;
+        clearCache();
+
+        // the series may have been changed in place
+        polylineSeries = null;
+
+        // the logarithms are computed again when compressing in log scale
+        xLogColumn = null;
+        yLogColumn = null;
+        xLogSeries = null;
+        yLogSeries = null;
+    }
+
+    /*
+     * @see ICompress#seriesAppended(int)
+     */
+    public void seriesAppended(int fromIndex) {
+        if (!compressed) {
+            setSeries(series);
+            return;
+        }
+
+        // the cached compressed series don't contain the appended points
+        clearCache();
+
+        if (!restoredFromCache) {
+            updateLogSeries();
+            if (addAppendedPlots(fromIndex)) {
+                compressedSeries = new CompressedSeriesData(xBuffer, yBuffer,
+                        bufferSize);
+                compressedIndexes = indexBuffer;
+                if (polylineConfig != null) {
+                    getCompressedPolyline(polylineConfig);
+                }
+                return;
+            }
+        }
+
+        // compress again from the beginning with the same configuration
+        CompressConfig compressConfig = prevConfig;
+        LogColumn xColumn = xLogColumn;
+        LogColumn yColumn = yLogColumn;
+        setSeries(series);
+
+        // the logarithms of the data points before appended ones are valid
+        xLogColumn = xColumn;
+        yLogColumn = yColumn;
+        compress(compressConfig);
+    }
+
+    /*
+     * @see ICompress#getCompressedSeries()
+     */
+    public ISeriesData getCompressedSeries() {
+        return compressedSeries;
+    }
+
+    /**
+     * Gets the backing array of X values of the compressed series, so that
+     * they can be read without copying. Only the first
+     * <tt>getCompressedSeries().size()</tt> elements are valid.
+     * 
+     * @return the X values, or <tt>null</tt> if the series has not been
+     *         compressed into the buffers of this compressor
+     */
+    public double[] getCompressedXSeries() {
+        if (compressedSeries instanceof CompressedSeriesData) {
+            return ((CompressedSeriesData) compressedSeries).xSeries;
+        }
+        return null;
+    }
+
+    /**
+     * Gets the backing array of Y values of the compressed series, so that
+     * they can be read without copying. Only the first
+     * <tt>getCompressedSeries().size()</tt> elements are valid.
+     * 
+     * @return the Y values, or <tt>null</tt> if the series has not been
+     *         compressed into the buffers of this compressor
+     */
+    public double[] getCompressedYSeries() {
+        if (compressedSeries instanceof CompressedSeriesData) {
+            return ((CompressedSeriesData) compressedSeries).ySeries;
+        }
+        return null;
+    }
+
+    /*
+     * @see ICompress#getCompressedIndexes()
+     */
+    public int[] getCompressedIndexes() {
+        if (compressedIndexes == null && compressedSeries != null) {
+
+            // the series is not compressed, so that indexes are identical
+            int size = compressedSeries.size();
+            compressedIndexes = new int[size];
+            for (int i = 0; i < size; i++) {
+                compressedIndexes[i] = i;
+            }
+        }
+        return compressedIndexes;
+    }
+
+    /*
+     * @see ICompress#getCompressedPolyline(CompressConfig)
+     */
+    public int[] getCompressedPolyline(CompressConfig config) {
+        if (compressedSeries == null || !config.isAxesSet()) {
+            return null;
+        }
+
+        if (polylineSeries != compressedSeries
+                || !config.hasSameAxes(polylineConfig)) {
+            polylineSize = 0;
+            project(config);
+
+            // the polyline is drawn as a whole, so that its length is exact
+            if (polyline == null || polyline.length != polylineSize) {
+                polyline = new int[polylineSize];
+            }
+            System.arraycopy(polylineBuffer, 0, polyline, 0, polylineSize);
+            polylineSeries = compressedSeries;
+            polylineConfig = new CompressConfig(config);
+        }
+        return polyline;
+    }
+
+    /**
+     * Projects the compressed series into a polyline on the axes of the given
+     * configuration. Only a single vertical line is added for the consecutive
+     * data points at the same X pixel coordinate, between the minimum and
+     * maximum Y pixel coordinates of them.
+     * <p>
+     * The points are added with <tt>addPolylinePoint(int, int, boolean)</tt>.
+     * Subclasses may override this method to draw the compressed series in
+     * another shape.
+     * 
+     * @param config
+     *            the configuration with X and Y axes set
+     */
+    protected void project(CompressConfig config) {
+        ISeriesData cseries = compressedSeries;
+        int size = cseries.size();
+        boolean isHorizontal = config.isXAxisHorizontal();
+
+        if (size > 0) {
+            int prevX = config.getXPixelCoordinate(cseries.getX(0));
+            int prevY = config.getYPixelCoordinate(cseries.getY(0));
+            addPolylinePoint(prevX, prevY, isHorizontal);
+
+            boolean isVerticalLine = false;
+            int verticalLineYLower = 0;
+            int verticalLineYUpper = 0;
+            for (int i = 0; i < size - 1; i++) {
+                int x = config.getXPixelCoordinate(cseries.getX(i + 1));
+                int y = config.getYPixelCoordinate(cseries.getY(i + 1));
+
+                if (x == prevX && i < size - 2) {
+                    if (isVerticalLine) {
+                        verticalLineYLower = Math.min(verticalLineYLower, y);
+                        verticalLineYUpper = Math.max(verticalLineYUpper, y);
+                    } else {
+                        verticalLineYLower = Math.min(prevY, y);
+                        verticalLineYUpper = Math.max(prevY, y);
+                        isVerticalLine = true;
+                    }
+                } else {
+                    if (isVerticalLine) {
+                        addPolylinePoint(prevX, verticalLineYLower,
+                                isHorizontal);
+                        addPolylinePoint(prevX, verticalLineYUpper,
+                                isHorizontal);
+                        addPolylinePoint(prevX, prevY, isHorizontal);
+                        isVerticalLine = false;
+                    }
+                    addPolylinePoint(x, y, isHorizontal);
+                }
+
+                prevX = x;
+                prevY = y;
+            }
+        }
+    }
+
+    /**
+     * Adds the point to the polyline being built.
+     * 
+     * @param x
+     *            the X pixel coordinate
+     * @param y
+     *            the Y pixel coordinate
+     * @param isHorizontal
+     *            true if the X axis is horizontal
+     */
+    protected void addPolylinePoint(int x, int y, boolean isHorizontal) {
+        if (polylineSize + 2 > polylineBuffer.length) {
+            polylineBuffer = Arrays.copyOf(polylineBuffer,
+                    Math.max(polylineSize + 2, polylineBuffer.length * 2));
+        }
+        if (isHorizontal) {
+            polylineBuffer[polylineSize++] = x;
+            polylineBuffer[polylineSize++] = y;
+        } else {
+            polylineBuffer[polylineSize++] = y;
+            polylineBuffer[polylineSize++] = x;
+        }
+    }
+
+    /*
+     * @see ICompress#compress(CompressConfig)
+     */
+    final public boolean compress(CompressConfig compressConfig) {
+        return compress(compressConfig, null);
+    }
+
+    /*
+     * @see ICompress#compress(CompressConfig, ICancellation)
+     */
+    final public boolean compress(CompressConfig compressConfig,
+            ICancellation compressCancellation) {
+
+        if (series == null || series.size() == 0) {
+            return false;
+        }
+
+        if (compressConfig.equals(prevConfig) && compressed
+                && isCompressedOnXAxis(compressConfig, prevConfig)) {
+            cacheHitCount++;
+
+            // the Y axis may have been changed
+            getCompressedPolyline(compressConfig);
+            return false;
+        }
+
+        // store the previous configuration
+        prevConfig = new CompressConfig(compressConfig);
+
+        CacheEntry entry = cache.get(prevConfig);
+        if (entry != null
+                && isCompressedOnXAxis(compressConfig, entry.config)) {
+            cacheHitCount++;
+            compressedSeries = entry.compressedSeries;
+            compressedIndexes = entry.indexBuffer;
+            compressed = true;
+            restoredFromCache = true;
+            getCompressedPolyline(compressConfig);
+            return true;
+        }
+        cacheMissCount++;
+
+        initialize(prevConfig);
+        updateLogSeries();
+
+        // add necessary plots to the array
+        cancellation = compressCancellation;
+        try {
+            addNecessaryPlots();
+        } finally {
+            cancellation = null;
+        }
+
+        // the partially compressed series is discarded
+        if (compressCancellation != null && compressCancellation.isCanceled()) {
+            compressedSeries = series;
+            compressedIndexes = null;
+            compressed = false;
+            prevConfig = null;
+            polylineSeries = null;
+            return false;
+        }
+
+        compressedSeries = new CompressedSeriesData(xBuffer, yBuffer,
+                bufferSize);
+        compressedIndexes = indexBuffer;
+
+        compressed = true;
+        restoredFromCache = false;
+
+        addToCache(prevConfig);
+
+        // the compressed series is also projected if the axes are set
+        getCompressedPolyline(compressConfig);
+
+        return true;
+    }
+
+    /*
+     * @see ICompress#setCacheBudget(long)
+     */
+    public void setCacheBudget(long budget) {
+        cacheBudget = Math.max(0, budget);
+        evict();
+    }
+
+    /**
+     * Sets the state indicating if the logarithms of values are kept in a
+     * column per axis in log scale, so that they are computed only once per
+     * data point. A column takes 8 bytes per data point on the heap, and
+     * should be disabled for series data not stored on the heap, such as the
+     * one mapped from a file. The logarithms are then computed for each data
+     * point at every compression. The default is <tt>true</tt>.
+     * 
+     * @param enabled
+     *            true to keep the columns of logarithms
+     */
+    public void setLogColumnEnabled(boolean enabled) {
+        logColumnEnabled = enabled;
+        if (!enabled) {
+            xLogColumn = null;
+            yLogColumn = null;
+            xLogSeries = null;
+            yLogSeries = null;
+        }
+    }
+
+    /**
+     * Gets the state indicating if the logarithms of values are kept in a
+     * column per axis in log scale.
+     * 
+     * @return true if the columns of logarithms are kept
+     */
+    public boolean isLogColumnEnabled() {
+        return logColumnEnabled;
+    }
+
+    /*
+     * @see ICompress#getCacheBudget()
+     */
+    public long getCacheBudget() {
+        return cacheBudget;
+    }
+
+    /*
+     * @see ICompress#getCacheHitCount()
+     */
+    public long getCacheHitCount() {
+        return cacheHitCount;
+    }
+
+    /*
+     * @see ICompress#getCacheMissCount()
+     */
+    public long getCacheMissCount() {
+        return cacheMissCount;
+    }
+
+    /**
+     * Checks if the series compressed with the given configuration can be
+     * used for the X axis of the other configuration. The X axis is quantized
+     * when comparing configurations, while the exact X axis is required if
+     * the compressed series depends on the X pixel coordinates.
+     * 
+     * @param config
+     *            the configuration to compress the series with
+     * @param compressedConfig
+     *            the configuration with which the series has been compressed
+     * @return true if the compressed series can be used
+     */
+    private boolean isCompressedOnXAxis(CompressConfig config,
+            CompressConfig compressedConfig) {
+        return !isXAxisDependent() || config.hasSameXAxis(compressedConfig);
+    }
+
+    /**
+     * Gets the state indicating if the compressed series depends on the X
+     * pixel coordinates given by the X axis, e.g. when the data points are
+     * aggregated per pixel column.
+     * 
+     * @return true if the compressed series depends on the X axis
+     */
+    protected boolean isXAxisDependent() {
+        return false;
+    }
+
+    /**
+     * Adds the current compressed series to the cache.
+     * 
+     * @param key
+     *            the configuration with which the series has been compressed
+     */
+    private void addToCache(CompressConfig key) {
+        long bytes = (long) indexBuffer.length * BYTES_PER_POINT;
+        if (bytes > cacheBudget) {
+            return;
+        }
+
+        // the buffers are given to the cache instead of being copied
+        CacheEntry entry = new CacheEntry(key, xBuffer, yBuffer, indexBuffer,
+                compressedSeries, bytes);
+        bufferEntry = entry;
+        CacheEntry oldEntry = cache.put(key, entry);
+        if (oldEntry != null) {
+            release(oldEntry);
+        }
+        cacheSize += bytes;
+        evict();
+    }
+
+    /**
+     * Removes the least recently used entries from the cache until the memory
+     * used by the cache fits in the budget.
+     */
+    private void evict() {
+        Iterator<CacheEntry> iterator = cache.values().iterator();
+        while (cacheSize > cacheBudget && iterator.hasNext()) {
+            release(iterator.next());
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Clears the cache.
+     */
+    private void clearCache() {
+        for (CacheEntry entry : cache.values()) {
+            release(entry);
+        }
+        cache.clear();
+        spareEntry = null;
+    }
+
+    /**
+     * Releases the entry removed from the cache. The buffers of the entry are
+     * kept to be reused by next compression, unless they hold the current
+     * compressed series.
+     * 
+     * @param entry
+     *            the entry removed from the cache
+     */
+    private void release(CacheEntry entry) {
+        entry.cached = false;
+        cacheSize -= entry.bytes;
+        if (entry != bufferEntry && entry.compressedSeries != compressedSeries
+                && (spareEntry == null || spareEntry.indexBuffer.length < entry.indexBuffer.length)) {
+            spareEntry = entry;
+        }
+    }
+
+    /**
+     * Initializes the state to start compressing with the given
+     * configuration.
+     * 
+     * @param compressConfig
+     *            the configuration for compressor
+     */
+    protected void initialize(CompressConfig compressConfig) {
+        this.config = compressConfig;
+
+        // store into fields to improve performance
+        xLower = config.getXLowerValue();
+        xUpper = config.getXUpperValue();
+        yLower = config.getYLowerValue();
+        yUpper = config.getYUpperValue();
+        isXLogScale = config.isXLogScale();
+        isYLogScale = config.isYLogScale();
+        xLowerInScale = isXLogScale ? Math.log10(xLower) : xLower;
+        xUpperInScale = isXLogScale ? Math.log10(xUpper) : xUpper;
+        yLowerInScale = isYLogScale ? Math.log10(yLower) : yLower;
+        yUpperInScale = isYLogScale ? Math.log10(yUpper) : yUpper;
+        widthInPixel = config.getWidthInPixel();
+        heightInPixel = config.getHeightInPixel();
+
+        previousXGridIndex = -1;
+        previousYGridIndex = -1;
+
+        // the buffers are reused across compressions unless held by the cache
+        if (indexBuffer == null) {
+            xBuffer = new double[INITIAL_CAPACITY];
+            yBuffer = new double[INITIAL_CAPACITY];
+            indexBuffer = new int[INITIAL_CAPACITY];
+        } else if (bufferEntry != null && bufferEntry.cached) {
+            if (spareEntry != null) {
+                xBuffer = spareEntry.xBuffer;
+                yBuffer = spareEntry.yBuffer;
+                indexBuffer = spareEntry.indexBuffer;
+                spareEntry = null;
+            } else {
+                int capacity = indexBuffer.length;
+                xBuffer = new double[capacity];
+                yBuffer = new double[capacity];
+                indexBuffer = new int[capacity];
+            }
+        }
+        bufferEntry = null;
+        bufferSize = 0;
+    }
+
+    /**
+     * Updates the logarithms of x and y values for the axes in log scale,
+     * which are computed only for the data points not seen before. The
+     * logarithms are released for the axes not in log scale, and not kept at
+     * all if the columns are disabled.
+     */
+    private void updateLogSeries() {
+        if (isXLogScale && logColumnEnabled) {
+            if (xLogColumn == null) {
+                xLogColumn = new LogColumn(series, true);
+            }
+            xLogSeries = xLogColumn.getValues();
+        } else {
+            xLogColumn = null;
+            xLogSeries = null;
+        }
+
+        if (isYLogScale && logColumnEnabled) {
+            if (yLogColumn == null) {
+                yLogColumn = new LogColumn(series, false);
+            }
+            yLogSeries = yLogColumn.getValues();
+        } else {
+            yLogColumn = null;
+            yLogSeries = null;
+        }
+    }
+
+    /**
+     * Adds the necessary plots to the compressed series with
+     * <tt>addToList(double, double, int)</tt>.
+     */
+    abstract protected void addNecessaryPlots();
+
+    /**
+     * Adds the necessary plots for the data points appended to the series
+     * since the last compression, continuing from the state in which
+     * <tt>addNecessaryPlots()</tt> has finished. The default implementation
+     * doesn't support this and returns false.
+     * 
+     * @param fromIndex
+     *            the index of the first appended data point
+     * @return true if the plots have been added, or false if the series has
+     *         to be compressed from the beginning
+     */
+    protected boolean addAppendedPlots(int fromIndex) {
+        return false;
+    }
+
+    /**
+     * Gets the index of the first data point whose x value is above the given
+     * value, using binary search. The x values of series have to be monotone
+     * increasing.
+     * 
+     * @param fromIndex
+     *            the index to start with
+     * @param x
+     *            the x value
+     * @param inclusive
+     *            true if the data point with the given value is also included
+     * @return the index, or the size of series if there is no such data point
+     */
+    protected int getFirstIndexAbove(int fromIndex, double x, boolean inclusive) {
+        int low = fromIndex;
+        int high = series.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            double value = series.getX(middle);
+            if (value < x || (!inclusive && value == x)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Adds the given coordinate to the compressed series.
+     * 
+     * @param x
+     *            the X coordinate
+     * @param y
+     *            the Y coordinate
+     * @param index
+     *            the series index
+     */
+    protected void addToList(double x, double y, int index) {
+        if (bufferSize == indexBuffer.length) {
+            int capacity = bufferSize * 2;
+            double[] newXBuffer = new double[capacity];
+            double[] newYBuffer = new double[capacity];
+            int[] newIndexBuffer = new int[capacity];
+            System.arraycopy(xBuffer, 0, newXBuffer, 0, bufferSize);
+            System.arraycopy(yBuffer, 0, newYBuffer, 0, bufferSize);
+            System.arraycopy(indexBuffer, 0, newIndexBuffer, 0, bufferSize);
+            xBuffer = newXBuffer;
+            yBuffer = newYBuffer;
+            indexBuffer = newIndexBuffer;
+        }
+        xBuffer[bufferSize] = x;
+        yBuffer[bufferSize] = y;
+        indexBuffer[bufferSize] = index;
+        bufferSize++;
+    }
+
+    /**
+     * Adds the points in the compressed series being built by another
+     * compressor.
+     * 
+     * @param source
+     *            the compressor holding the points
+     * @param from
+     *            the position of the first point to add
+     * @param to
+     *            the position after the last point to add
+     */
+    protected void addToList(Compress source, int from, int to) {
+        for (int i = from; i < to; i++) {
+            addToList(source.xBuffer[i], source.yBuffer[i],
+                    source.indexBuffer[i]);
+        }
+    }
+
+    /**
+     * Gets the number of points added to the compressed series so far.
+     * 
+     * @return the number of points
+     */
+    protected int getListSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Gets the series index of the point in the compressed series being built.
+     * 
+     * @param position
+     *            the position in the compressed series
+     * @return the series index
+     */
+    protected int getListIndex(int position) {
+        return indexBuffer[position];
+    }
+
+    /**
+     * Removes the points added to the compressed series after the given
+     * number of points.
+     * 
+     * @param size
+     *            the number of points to keep
+     */
+    protected void truncateList(int size) {
+        if (size < bufferSize) {
+            bufferSize = size;
+        }
+    }
+
+    /**
+     * The compressed series stored in the cache.
+     */
+    private static class CacheEntry {
+
+        /** the configuration with which the series has been compressed */
+        final CompressConfig config;
+
+        /** the compressed series */
+        final ISeriesData compressedSeries;
+
+        /** the buffer of X values of compressed series */
+        final double[] xBuffer;
+
+        /** the buffer of Y values of compressed series */
+        final double[] yBuffer;
+
+        /** the buffer of compressed series indexes */
+        final int[] indexBuffer;
+
+        /** the memory used by the buffers in bytes */
+        final long bytes;
+
+        /** the state indicating if the entry is in the cache */
+        boolean cached;
+
+        /**
+         * Constructor.
+         * 
+         * @param config
+         *            the configuration with which the series has been
+         *            compressed
+         * @param xBuffer
+         *            the buffer of X values of compressed series
+         * @param yBuffer
+         *            the buffer of Y values of compressed series
+         * @param indexBuffer
+         *            the buffer of compressed series indexes
+         * @param compressedSeries
+         *            the compressed series backed by the buffers
+         * @param bytes
+         *            the memory used by the buffers in bytes
+         */
+        CacheEntry(CompressConfig config, double[] xBuffer, double[] yBuffer,
+                int[] indexBuffer, ISeriesData compressedSeries, long bytes) {
+            this.config = config;
+            this.xBuffer = xBuffer;
+            this.yBuffer = yBuffer;
+            this.indexBuffer = indexBuffer;
+            this.compressedSeries = compressedSeries;
+            this.bytes = bytes;
+            cached = true;
+        }
+    }
+
+    /**
+     * Gets the state indicating if the compression in progress is canceled.
+     * The compressors check it every chunk of data points, and return early
+     * from <tt>addNecessaryPlots()</tt> if canceled.
+     * 
+     * @return true if the compression is canceled
+     */
+    protected boolean isCanceled() {
+        return cancellation != null && cancellation.isCanceled();
+    }
+
+    /**
+     * Gets the x value in log scale if enabled, reading the logarithm from
+     * the column if kept.
+     * 
+     * @param x
+     *            the x value
+     * @param index
+     *            the index of data point in the series
+     * @return the x value in scale
+     */
+    protected double getXInScale(double x, int index) {
+        if (xLogSeries != null) {
+            return xLogSeries[index];
+        }
+        return isXLogScale ? Math.log10(x) : x;
+    }
+
+    /**
+     * Gets the y value in log scale if enabled, reading the logarithm from
+     * the column if kept.
+     * 
+     * @param y
+     *            the y value
+     * @param index
+     *            the index of data point in the series
+     * @return the y value in scale
+     */
+    protected double getYInScale(double y, int index) {
+        if (yLogSeries != null) {
+            return yLogSeries[index];
+        }
+        return isYLogScale ? Math.log10(y) : y;
+    }
+
+    /**
+     * Checks if the given coordinate is in the same grid as previous.
+     * 
+     * @param x
+     *            the X coordinate
+     * @param y
+     *            the Y coordinate
+     * @param index
+     *            the index of data point in the series, which is used to get
+     *            the logarithms of coordinate in log scale
+     * @return true if the given coordinate is in the same grid as previous
+     */
+    protected boolean isInSameGridAsPrevious(double x, double y, int index) {
+        int xGridIndex;
+        int yGridIndex;
+
+        // calculate the X grid index
+        if (isXLogScale) {
+            xGridIndex = (int) ((getXInScale(x, index) - xLowerInScale)
+                    / (xUpperInScale - xLowerInScale) * widthInPixel);
+        } else {
+            xGridIndex = (int) ((x - xLower) / (xUpper - xLower) * widthInPixel);
+        }
+
+        // calculate the Y grid index
+        if (isYLogScale) {
+            yGridIndex = (int) ((getYInScale(y, index) - yLowerInScale)
+                    / (yUpperInScale - yLowerInScale) * heightInPixel);
+        } else {
+            yGridIndex = (int) ((y - yLower) / (yUpper - yLower) * heightInPixel);
+        }
+
+        // check if the grid index is the same as previous
+        boolean isInSameGridAsPrevious = (xGridIndex == previousXGridIndex && yGridIndex == previousYGridIndex);
+
+        // store the previous grid index
+        previousXGridIndex = xGridIndex;
+        previousYGridIndex = yGridIndex;
+
+        return isInSameGridAsPrevious;
+    }
+}
@@ -0,0 +1,622 @@
+/*******************************************************************************
+ * Copyright (c) 2008-2016 SWTChart project. All rights reserved. 
+ * 
+ * This code is distributed under the terms of the Eclipse Public License v1.0
+ * which is available at http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.swtchart.compress;
+
+/**
+ * Configuration for compression.
+ */
+public class CompressConfig {
+
+    /** the width in pixels */
+    private long widthInPixels;
+
+    /** the height in pixels */
+    private long heightInPixels;
+
+    /** the lower value of X range */
+    private double xLowerValue;
+
+    /** the upper value of X range */
+    private double xUpperValue;
+
+    /** the lower value of Y range */
+    private double yLowerValue;
+
+    /** the upper value of Y range */
+    private double yUpperValue;
+
+    /** the state indicating whether the X axis is log scale */
+    private boolean xLogScale;
+
+    /** the state indicating whether the Y axis is log scale */
+    private boolean yLogScale;
+
+    /** the lower value of X axis range */
+    private double xAxisLower;
+
+    /** the upper value of X axis range */
+    private double xAxisUpper;
+
+    /** the length of X axis in pixels, or 0 if not set */
+    private int xAxisLength;
+
+    /** the state indicating whether the X axis is horizontal */
+    private boolean xAxisHorizontal;
+
+    /** the state indicating whether the X axis is category axis */
+    private boolean xAxisCategory;
+
+    /** the lower value of Y axis range */
+    private double yAxisLower;
+
+    /** the upper value of Y axis range */
+    private double yAxisUpper;
+
+    /** the length of Y axis in pixels, or 0 if not set */
+    private int yAxisLength;
+
+    /** the state indicating whether compressing in parallel is allowed */
+    private boolean parallelEnabled;
+
+    /** the logarithm of lower X bound to get pixel coordinates */
+    private double xLogLower;
+
+    /** the logarithm of upper X bound to get pixel coordinates */
+    private double xLogUpper;
+
+    /** the reciprocal of the span between logarithms of X bounds */
+    private double xLogReciprocalSpan;
+
+    /** the logarithm of lower Y axis bound to get pixel coordinates */
+    private double yLogLower;
+
+    /** the logarithm of upper Y axis bound to get pixel coordinates */
+    private double yLogUpper;
+
+    /** the reciprocal of the span between logarithms of Y axis bounds */
+    private double yLogReciprocalSpan;
+
+    /**
+     * Constructor.
+     */
+    public CompressConfig() {
+        widthInPixels = 1024;
+        heightInPixels = 512;
+        xLogScale = false;
+        yLogScale = false;
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param config
+     *            the configuration for compression
+     */
+    public CompressConfig(CompressConfig config) {
+        widthInPixels = config.getWidthInPixel();
+        heightInPixels = config.getHeightInPixel();
+
+        xLowerValue = config.getXLowerValue();
+        xUpperValue = config.getXUpperValue();
+        yLowerValue = config.getYLowerValue();
+        yUpperValue = config.getYUpperValue();
+
+        xLogScale = config.isXLogScale();
+        yLogScale = config.isYLogScale();
+
+        xAxisLower = config.xAxisLower;
+        xAxisUpper = config.xAxisUpper;
+        xAxisLength = config.xAxisLength;
+        xAxisHorizontal = config.xAxisHorizontal;
+        xAxisCategory = config.xAxisCategory;
+        yAxisLower = config.yAxisLower;
+        yAxisUpper = config.yAxisUpper;
+        yAxisLength = config.yAxisLength;
+        parallelEnabled = config.parallelEnabled;
+
+        xLogLower = config.xLogLower;
+        xLogUpper = config.xLogUpper;
+        xLogReciprocalSpan = config.xLogReciprocalSpan;
+        yLogLower = config.yLogLower;
+        yLogUpper = config.yLogUpper;
+        yLogReciprocalSpan = config.yLogReciprocalSpan;
+    }
+
+    /*
+     * @see Object#equals(Object)
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == null || !(obj instanceof CompressConfig)) {
+            return false;
+        }
+
+        CompressConfig config = (CompressConfig) obj;
+
+        if (widthInPixels != config.getWidthInPixel()
+                || heightInPixels != config.getHeightInPixel()) {
+            return false;
+        }
+
+        if (config.isXLogScale() != xLogScale
+                || config.isYLogScale() != yLogScale) {
+            return false;
+        }
+
+        // the ranges are equal if they are in the same quantization step
+        double xStep = getQuantizationStep(xLowerValue, xUpperValue,
+                widthInPixels, xLogScale);
+        if (xStep != getQuantizationStep(config.xLowerValue,
+                config.xUpperValue, widthInPixels, xLogScale)
+                || quantize(xLowerValue, xStep, xLogScale) != quantize(
+                        config.xLowerValue, xStep, xLogScale)
+                || quantize(xUpperValue, xStep, xLogScale) != quantize(
+                        config.xUpperValue, xStep, xLogScale)) {
+            return false;
+        }
+
+        double yStep = getQuantizationStep(yLowerValue, yUpperValue,
+                heightInPixels, yLogScale);
+        if (yStep != getQuantizationStep(config.yLowerValue,
+                config.yUpperValue, heightInPixels, yLogScale)
+                || quantize(yLowerValue, yStep, yLogScale) != quantize(
+                        config.yLowerValue, yStep, yLogScale)
+                || quantize(yUpperValue, yStep, yLogScale) != quantize(
+                        config.yUpperValue, yStep, yLogScale)) {
+            return false;
+        }
+
+        // the X axis is quantized with the same step as the X range
+        if (config.xAxisLength != xAxisLength
+                || quantize(xAxisLower, xStep, xLogScale) != quantize(
+                        config.xAxisLower, xStep, xLogScale)
+                || quantize(xAxisUpper, xStep, xLogScale) != quantize(
+                        config.xAxisUpper, xStep, xLogScale)
+                || config.xAxisHorizontal != xAxisHorizontal
+                || config.xAxisCategory != xAxisCategory) {
+            return false;
+        }
+
+        return true;
+    }
+
+    /*
+     * @see Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        double xStep = getQuantizationStep(xLowerValue, xUpperValue,
+                widthInPixels, xLogScale);
+        double yStep = getQuantizationStep(yLowerValue, yUpperValue,
+                heightInPixels, yLogScale);
+
+        long hash = widthInPixels;
+        hash = hash * 31 + heightInPixels;
+        hash = hash * 31 + (xLogScale ? 1 : 0);
+        hash = hash * 31 + (yLogScale ? 1 : 0);
+        hash = hash * 31 + Double.doubleToLongBits(xStep);
+        hash = hash * 31 + quantize(xLowerValue, xStep, xLogScale);
+        hash = hash * 31 + quantize(xUpperValue, xStep, xLogScale);
+        hash = hash * 31 + Double.doubleToLongBits(yStep);
+        hash = hash * 31 + quantize(yLowerValue, yStep, yLogScale);
+        hash = hash * 31 + quantize(yUpperValue, yStep, yLogScale);
+        hash = hash * 31 + xAxisLength;
+        hash = hash * 31 + quantize(xAxisLower, xStep, xLogScale);
+        hash = hash * 31 + quantize(xAxisUpper, xStep, xLogScale);
+        hash = hash * 31 + (xAxisHorizontal ? 1 : 0);
+        hash = hash * 31 + (xAxisCategory ? 1 : 0);
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    /**
+     * Gets the step to quantize the range, which is the largest power of two
+     * not exceeding the size of a pixel. The ranges differing by less than the
+     * step are regarded as the same, since the compressed series hardly
+     * changes.
+     * 
+     * @param lower
+     *            the lower value of range
+     * @param upper
+     *            the upper value of range
+     * @param pixels
+     *            the number of pixels
+     * @param logScale
+     *            true if the range is in log scale
+     * @return the step, or 0 if the range cannot be quantized
+     */
+    private static double getQuantizationStep(double lower, double upper,
+            long pixels, boolean logScale) {
+        double span = logScale ? Math.log10(upper) - Math.log10(lower)
+                : upper - lower;
+        double pixel = span / pixels;
+        if (!(pixel > 0) || Double.isInfinite(pixel)) {
+            return 0;
+        }
+        return Math.scalb(1.0, Math.getExponent(pixel));
+    }
+
+    /**
+     * Quantizes the value with the given step.
+     * 
+     * @param value
+     *            the value
+     * @param step
+     *            the step, or 0 to get the exact value
+     * @param logScale
+     *            true if the value is in log scale
+     * @return the quantized value
+     */
+    private static long quantize(double value, double step, boolean logScale) {
+        if (step == 0) {
+            return Double.doubleToLongBits(value);
+        }
+        double v = logScale ? Math.log10(value) : value;
+        return (long) Math.floor(v / step);
+    }
+
+    /**
+     * Sets the size in pixels.
+     * 
+     * @param width
+     *            the width in pixels
+     * @param height
+     *            the height in pixels
+     */
+    public void setSizeInPixel(long width, long height) {
+        widthInPixels = width;
+        heightInPixels = height;
+    }
+
+    /**
+     * Gets the width of plot area in pixels
+     * 
+     * @return the width of plot area in pixels
+     */
+    public long getWidthInPixel() {
+        return widthInPixels;
+    }
+
+    /**
+     * Gets the height of plot area in pixels
+     * 
+     * @return the height of plot area in pixels
+     */
+    public long getHeightInPixel() {
+        return heightInPixels;
+    }
+
+    /**
+     * Sets the X range.
+     * 
+     * @param lower
+     *            the lower value of x range
+     * @param upper
+     *            the upper value of x range
+     */
+    public void setXRange(double lower, double upper) {
+        xLowerValue = lower;
+        xUpperValue = upper;
+        updateXLogBounds();
+    }
+
+    /**
+     * Sets the Y range.
+     * 
+     * @param lower
+     *            the lower value of y range
+     * @param upper
+     *            the upper value of y range
+     */
+    public void setYRange(double lower, double upper) {
+        yLowerValue = lower;
+        yUpperValue = upper;
+    }
+
+    /**
+     * Gets the lower value of x range.
+     * 
+     * @return the lower value of x range
+     */
+    public double getXLowerValue() {
+        return xLowerValue;
+    }
+
+    /**
+     * Gets the upper value of x range.
+     * 
+     * @return the upper value of x range
+     */
+    public double getXUpperValue() {
+        return xUpperValue;
+    }
+
+    /**
+     * Gets the lower value of y range.
+     * 
+     * @return the lower value of y range
+     */
+    public double getYLowerValue() {
+        return yLowerValue;
+    }
+
+    /**
+     * Gets the upper value of y range.
+     * 
+     * @return the upper value of y range
+     */
+    public double getYUpperValue() {
+        return yUpperValue;
+    }
+
+    /**
+     * Gets the state indicating whether the X axis is log scale.
+     * 
+     * @return true if the X axis is log scale
+     */
+    public boolean isXLogScale() {
+        return xLogScale;
+    }
+
+    /**
+     * Sets the state indicating whether the X axis is log scale.
+     * 
+     * @param value
+     *            the state indicating whether the X axis is log scale
+     */
+    public void setXLogScale(boolean value) {
+        this.xLogScale = value;
+    }
+
+    /**
+     * Gets the state indicating whether the Y axis is log scale.
+     * 
+     * @return true if the Y axis is log scale
+     */
+    public boolean isYLogScale() {
+        return yLogScale;
+    }
+
+    /**
+     * Sets the state indicating whether the Y axis is log scale.
+     * 
+     * @param value
+     *            the state indicating whether the Y axis is log scale
+     */
+    public void setYLogScale(boolean value) {
+        this.yLogScale = value;
+    }
+
+    /**
+     * Sets the state indicating whether compressing in parallel is allowed. A
+     * compressor may then split a large series into chunks compressed
+     * concurrently. The compressed series doesn't depend on this state.
+     * 
+     * @param enabled
+     *            true if compressing in parallel is allowed
+     */
+    public void setParallelEnabled(boolean enabled) {
+        parallelEnabled = enabled;
+    }
+
+    /**
+     * Gets the state indicating whether compressing in parallel is allowed.
+     * 
+     * @return true if compressing in parallel is allowed
+     */
+    public boolean isParallelEnabled() {
+        return parallelEnabled;
+    }
+
+    /**
+     * Sets the X axis on which the series is drawn. This allows compressors to
+     * get exactly the same pixel coordinates as the X axis gives.
+     * 
+     * @param lower
+     *            the lower value of X axis range
+     * @param upper
+     *            the upper value of X axis range
+     * @param length
+     *            the length of X axis in pixels
+     * @param horizontal
+     *            true if the X axis is horizontal
+     * @param category
+     *            true if the X axis is category axis
+     */
+    public void setXAxis(double lower, double upper, int length,
+            boolean horizontal, boolean category) {
+        xAxisLower = lower;
+        xAxisUpper = upper;
+        xAxisLength = length;
+        xAxisHorizontal = horizontal;
+        xAxisCategory = category;
+        updateXLogBounds();
+    }
+
+    /**
+     * Updates the logarithms of X bounds, which are the bounds of X axis if
+     * set and otherwise the X range, so that they are not computed for each
+     * data point to get pixel coordinates in log scale.
+     */
+    private void updateXLogBounds() {
+        boolean axisSet = xAxisLength > 0;
+        xLogLower = Math.log10(axisSet ? xAxisLower : xLowerValue);
+        xLogUpper = Math.log10(axisSet ? xAxisUpper : xUpperValue);
+        xLogReciprocalSpan = 1 / (xLogUpper - xLogLower);
+    }
+
+    /**
+     * Sets the Y axis on which the series is drawn. With both X and Y axes
+     * set, the compressed series is also projected into a polyline in pixel
+     * coordinates, which can be drawn without transforming each data point.
+     * The compressed series doesn't depend on the Y axis, so that it is not
+     * compressed again when only the Y axis is changed.
+     * 
+     * @param lower
+     *            the lower value of Y axis range
+     * @param upper
+     *            the upper value of Y axis range
+     * @param length
+     *            the length of Y axis in pixels
+     */
+    public void setYAxis(double lower, double upper, int length) {
+        yAxisLower = lower;
+        yAxisUpper = upper;
+        yAxisLength = length;
+
+        // the logarithms are not computed for each data point in log scale
+        yLogLower = Math.log10(lower);
+        yLogUpper = Math.log10(upper);
+        yLogReciprocalSpan = 1 / (yLogUpper - yLogLower);
+    }
+
+    /**
+     * Gets the state indicating if both X and Y axes are set.
+     * 
+     * @return true if both X and Y axes are set
+     */
+    public boolean isAxesSet() {
+        return xAxisLength > 0 && yAxisLength > 0;
+    }
+
+    /**
+     * Checks if the given configuration has the same X and Y axes, so that
+     * the data points are projected at the same pixel coordinates.
+     * 
+     * @param config
+     *            the configuration, or null
+     * @return true if the axes are the same
+     */
+    boolean hasSameAxes(CompressConfig config) {
+        return hasSameXAxis(config) && config.xAxisHorizontal == xAxisHorizontal
+                && config.xAxisCategory == xAxisCategory
+                && config.xLogScale == xLogScale
+                && config.yAxisLength == yAxisLength
+                && config.yAxisLower == yAxisLower
+                && config.yAxisUpper == yAxisUpper
+                && config.yLogScale == yLogScale;
+    }
+
+    /**
+     * Checks if the given configuration has exactly the same X axis range and
+     * length, so that the data points are at the same X pixel coordinates.
+     * The X axis is only quantized when comparing configurations with
+     * <tt>equals(Object)</tt>.
+     * 
+     * @param config
+     *            the configuration, or null
+     * @return true if the X axis is the same
+     */
+    boolean hasSameXAxis(CompressConfig config) {
+        return config != null && config.xAxisLength == xAxisLength
+                && config.xAxisLower == xAxisLower
+                && config.xAxisUpper == xAxisUpper;
+    }
+
+    /**
+     * Gets the state indicating if the X axis is horizontal.
+     * 
+     * @return true if the X axis is horizontal
+     */
+    public boolean isXAxisHorizontal() {
+        return xAxisHorizontal;
+    }
+
+    /**
+     * Gets the state indicating if the X axis is category axis.
+     * 
+     * @return true if the X axis is category axis
+     */
+    public boolean isXAxisCategory() {
+        return xAxisCategory;
+    }
+
+    /**
+     * Gets the state indicating if the given pixel coordinate on X axis is
+     * within the plot area. If the X axis is not set, the coordinate in the
+     * grid of <tt>getWidthInPixel()</tt> is checked.
+     * 
+     * @param coordinate
+     *            the pixel coordinate on X axis
+     * @return true if the pixel coordinate is within the plot area
+     */
+    public boolean isXPixelCoordinateVisible(int coordinate) {
+        long length = (xAxisLength > 0) ? xAxisLength : widthInPixels;
+        return coordinate >= 0 && coordinate < length;
+    }
+
+    /**
+     * Gets the pixel coordinate on X axis corresponding to the given X value,
+     * in the same way as <tt>Axis.getPixelCoordinate(double)</tt>. If the X
+     * axis is not set, the coordinate in the grid of
+     * <tt>getWidthInPixel()</tt> over the X range is returned.
+     * 
+     * @param x
+     *            the X value
+     * @return the pixel coordinate
+     */
+    public int getXPixelCoordinate(double x) {
+        if (xAxisLength <= 0) {
+            if (xLogScale) {
+                return (int) ((Math.log10(x) - xLogLower) * xLogReciprocalSpan * widthInPixels);
+            }
+            return (int) ((x - xLowerValue) / (xUpperValue - xLowerValue) * widthInPixels);
+        }
+
+        double lower = xAxisLower;
+        double upper = xAxisUpper;
+        if (xAxisHorizontal) {
+            if (xLogScale) {
+                return (int) ((Math.log10(x) - xLogLower) * xLogReciprocalSpan * xAxisLength);
+            } else if (xAxisCategory) {
+                return (int) ((x + 0.5 - lower) / (upper + 1 - lower) * xAxisLength);
+            }
+            return (int) ((x - lower) / (upper - lower) * xAxisLength);
+        }
+        if (xLogScale) {
+            return (int) ((xLogUpper - Math.log10(x)) * xLogReciprocalSpan * xAxisLength);
+        } else if (xAxisCategory) {
+            return (int) ((upper - x + 0.5) / (upper + 1 - lower) * xAxisLength);
+        }
+        return (int) ((upper - x) / (upper - lower) * xAxisLength);
+    }
+
+    /**
+     * Gets the pixel coordinate on Y axis corresponding to the given Y value,
+     * in the same way as <tt>Axis.getPixelCoordinate(double)</tt>. The Y axis
+     * has to be set.
+     * 
+     * @param y
+     *            the Y value
+     * @return the pixel coordinate
+     */
+    public int getYPixelCoordinate(double y) {
+        double lower = yAxisLower;
+        double upper = yAxisUpper;
+        if (!xAxisHorizontal) {
+            if (yLogScale) {
+                return (int) ((Math.log10(y) - yLogLower) * yLogReciprocalSpan * yAxisLength);
+            }
+            return (int) ((y - lower) / (upper - lower) * yAxisLength);
+        }
+        if (yLogScale) {
+            return (int) ((yLogUpper - Math.log10(y)) * yLogReciprocalSpan * yAxisLength);
+        }
+        return (int) ((upper - y) / (upper - lower) * yAxisLength);
+    }
+
+    /*
+     * @see Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "pixelWidth = " + widthInPixels + ", " + "pixelHeight = "
+                + heightInPixels + ", " + "xLowerValue = " + xLowerValue + ", "
+                + "xUpperValue = " + xUpperValue + ", " + "yLowerValue = "
+                + yLowerValue + ", " + "yUpperValue = " + yUpperValue + ", "
+                + yLogScale;
+    }
+}
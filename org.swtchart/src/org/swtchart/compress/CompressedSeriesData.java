@@ -0,0 +1,62 @@
+/*******************************************************************************
+ * Copyright (c) 2008-2016 SWTChart project. All rights reserved.
+ *
+ * This code is distributed under the terms of the Eclipse Public License v1.0
+ * which is available at http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.swtchart.compress;
+
+import org.swtchart.ISeriesData;
+
+/**
+ * The compressed series backed by the buffers of compressor, which are not
+ * copied.
+ */
+class CompressedSeriesData implements ISeriesData {
+
+    /** the x series */
+    final double[] xSeries;
+
+    /** the y series */
+    final double[] ySeries;
+
+    /** the number of valid data points */
+    private final int size;
+
+    /**
+     * Constructor.
+     *
+     * @param xSeries
+     *            the x series
+     * @param ySeries
+     *            the y series
+     * @param size
+     *            the number of valid data points in the arrays
+     */
+    CompressedSeriesData(double[] xSeries, double[] ySeries, int size) {
+        this.xSeries = xSeries;
+        this.ySeries = ySeries;
+        this.size = size;
+    }
+
+    /*
+     * @see ISeriesData#size()
+     */
+    public int size() {
+        return size;
+    }
+
+    /*
+     * @see ISeriesData#getX(int)
+     */
+    public double getX(int index) {
+        return xSeries[index];
+    }
+
+    /*
+     * @see ISeriesData#getY(int)
+     */
+    public double getY(int index) {
+        return ySeries[index];
+    }
+}
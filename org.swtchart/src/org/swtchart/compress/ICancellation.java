@@ -0,0 +1,24 @@
+/*******************************************************************************
+ * Copyright (c) 2008-2016 SWTChart project. All rights reserved.
+ *
+ * This code is distributed under the terms of the Eclipse Public License v1.0
+ * which is available at http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.swtchart.compress;
+
+/**
+ * A cancellation of compression, which is checked by the compressor while
+ * compressing so that the compression no longer needed is abandoned early.
+ * 
+ * @see ICompress#compress(CompressConfig, ICancellation)
+ */
+public interface ICancellation {
+
+    /**
+     * Gets the state indicating if the compression is canceled. This may be
+     * called on any thread, and often while compressing.
+     * 
+     * @return true if the compression is canceled
+     */
+    boolean isCanceled();
+}
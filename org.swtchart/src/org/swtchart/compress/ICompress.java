@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2008-2016 SWTChart project. All rights reserved. 
+ * 
+ * This code is distributed under the terms of the Eclipse Public License v1.0
+ * which is available at http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.swtchart.compress;
+
+import org.swtchart.ISeriesData;
+
+/**
+ * A Compressor.
+ * <p>
+ * Client code can provide its own compressor for a series with
+ * <tt>ISeries.setCompressionStrategy(ICompressionStrategy)</tt>.
+ */
+public interface ICompress {
+
+    /**
+     * Gets the compressed series
+     * 
+     * @return the compressed series
+     */
+    public abstract ISeriesData getCompressedSeries();
+
+    /**
+     * Gets the compressed series indexes. Only the first
+     * <tt>getCompressedSeries().size()</tt> elements are valid.
+     * <p>
+     * Each index is the index in the series of the data point at the same
+     * position in the compressed series, so that the labels, error bars and
+     * symbol colors given per data point line up with the compressed series.
+     * 
+     * @return the compressed series indexes
+     */
+    public abstract int[] getCompressedIndexes();
+
+    /**
+     * Gets the compressed series projected into a polyline in pixel
+     * coordinates on the axes of the given configuration, as pairs of
+     * horizontal and vertical coordinates ready to be drawn with
+     * <tt>GC.drawPolyline(int[])</tt>. The consecutive data points at the
+     * same X pixel coordinate are merged into a single vertical line.
+     * <p>
+     * The polyline is projected when compressing with a configuration whose
+     * axes are set, and it is projected again only if the compressed series
+     * or the axes have been changed.
+     * 
+     * @param config
+     *            the configuration with X and Y axes set
+     * @return the polyline, or null if the axes are not set
+     */
+    public abstract int[] getCompressedPolyline(CompressConfig config);
+
+    /**
+     * Sets series which have to be sorted.
+     * 
+     * @param series
+     *            the series
+     */
+    public abstract void setSeries(ISeriesData series);
+
+    /**
+     * Notifies that data points have been appended to the series. The
+     * compressed series is updated only for the appended points if possible,
+     * and otherwise it is reset so that the next compression starts over.
+     * 
+     * @param fromIndex
+     *            the index of the first appended data point
+     */
+    public abstract void seriesAppended(int fromIndex);
+
+    /**
+     * Ignores the points which are in the same grid as the previous point.
+     * 
+     * @param config
+     *            the configuration for compression
+     * @return true if the compression succeeds
+     */
+    public abstract boolean compress(CompressConfig config);
+
+    /**
+     * Compresses in the same way as <tt>compress(CompressConfig)</tt>,
+     * checking the given cancellation every chunk of data points. If canceled,
+     * the compression is abandoned, and the compressor is left as if the
+     * series had just been set except that the cache is kept.
+     * 
+     * @param config
+     *            the configuration for compression
+     * @param cancellation
+     *            the cancellation, or null if the compression cannot be
+     *            canceled
+     * @return true if the compression succeeds, or false if it is canceled
+     */
+    public abstract boolean compress(CompressConfig config,
+            ICancellation cancellation);
+
+    /**
+     * Sets the memory budget for the cache of compressed series. The
+     * compressed series are cached per configuration, and the least recently
+     * used ones are evicted when exceeding the budget. The cache is cleared
+     * when the series is changed.
+     * 
+     * @param budget
+     *            the memory budget in bytes, or 0 to disable the cache
+     */
+    public abstract void setCacheBudget(long budget);
+
+    /**
+     * Gets the memory budget for the cache of compressed series.
+     * 
+     * @return the memory budget in bytes
+     */
+    public abstract long getCacheBudget();
+
+    /**
+     * Gets the number of compressions served without compressing, either
+     * because the configuration hasn't changed or from the cache.
+     * 
+     * @return the number of cache hits
+     */
+    public abstract long getCacheHitCount();
+
+    /**
+     * Gets the number of compressions actually performed.
+     * 
+     * @return the number of cache misses
+     */
+    public abstract long getCacheMissCount();
+
+}
\ No newline at end of file
@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2008-2016 SWTChart project. All rights reserved.
+ *
+ * This code is distributed under the terms of the Eclipse Public License v1.0
+ * which is available at http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.swtchart.compress;
+
+import org.swtchart.ISeriesData;
+
+/**
+ * The logarithms of x or y values of series, which are computed lazily when
+ * compressing in log scale for the first time.
+ * <p>
+ * The appended data points are taken into account when getting the values,
+ * while the column has to be created again when the data points are changed
+ * in place.
+ */
+class LogColumn {
+
+    /** the series */
+    private final ISeriesData series;
+
+    /** the state indicating if the column holds x values */
+    private final boolean isX;
+
+    /** the logarithms of values */
+    private double[] values;
+
+    /** the number of computed values */
+    private int size;
+
+    /**
+     * Constructor.
+     *
+     * @param series
+     *            the series
+     * @param isX
+     *            true to hold x values, false to hold y values
+     */
+    LogColumn(ISeriesData series, boolean isX) {
+        this.series = series;
+        this.isX = isX;
+        values = new double[0];
+    }
+
+    /**
+     * Gets the logarithms of values, computing the ones for the data points
+     * appended since the last call. The returned array may be longer than the
+     * series.
+     *
+     * @return the logarithms of values
+     */
+    double[] getValues() {
+        int count = series.size();
+        if (size >= count) {
+            return values;
+        }
+
+        if (values.length < count) {
+            double[] newValues = new double[Math.max(count,
+                    (int) Math.min(Integer.MAX_VALUE - 8,
+                            values.length * 3L / 2))];
+            System.arraycopy(values, 0, newValues, 0, size);
+            values = newValues;
+        }
+        if (isX) {
+            for (int i = size; i < count; i++) {
+                values[i] = Math.log10(series.getX(i));
+            }
+        } else {
+            for (int i = size; i < count; i++) {
+                values[i] = Math.log10(series.getY(i));
+            }
+        }
+        size = count;
+        return values;
+    }
+}
@@ -33,6 +33,9 @@ public class Grid implements IGrid {
     /** the line style */
     private LineStyle lineStyle;
 
+    /** the revision, which is incremented on each change */
+    private int revision;
+
     /** the line width */
     private final static int LINE_WIDTH = 1;
 
@@ -70,6 +73,7 @@ public class Grid implements IGrid {
      * @see IGrid#setForeground(Color)
      */
     public void setForeground(Color color) {
+        revision++;
         if (color != null && color.isDisposed()) {
             SWT.error(SWT.ERROR_INVALID_ARGUMENT);
         }
@@ -92,6 +96,7 @@ public class Grid implements IGrid {
      * @see IGrid#setStyle(LineStyle)
      */
     public void setStyle(LineStyle style) {
+        revision++;
         if (style == null) {
             this.lineStyle = DEFAULT_STYLE;
         } else {
@@ -99,6 +104,15 @@ public class Grid implements IGrid {
         }
     }
 
+    /**
+     * Gets the revision, which is incremented on each change.
+     * 
+     * @return the revision
+     */
+    public int getRevision() {
+        return revision;
+    }
+
     /**
      * Draws grid.
      * 
@@ -0,0 +1,26 @@
+/*******************************************************************************
+ * Copyright (c) 2008-2016 SWTChart project. All rights reserved.
+ *
+ * This code is distributed under the terms of the Eclipse Public License v1.0
+ * which is available at http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.swtchart.internal;
+
+/**
+ * A command to rasterize a series, which is created on UI thread and run on a
+ * worker thread.
+ * <p>
+ * The command holds copies of everything it needs, such as pixel coordinates
+ * and colors, so that it doesn't touch the series, axes or any other state of
+ * the chart while running.
+ */
+public interface IRasterCommand {
+
+    /**
+     * Rasterizes the series.
+     *
+     * @param rasterizer
+     *            the rasterizer
+     */
+    public abstract void rasterize(Rasterizer rasterizer);
+}
@@ -20,6 +20,7 @@ import org.eclipse.swt.events.PaintListener;
 import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.graphics.Font;
 import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.RGB;
 import org.eclipse.swt.graphics.Rectangle;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.wb.swt.SWTResourceManager;
@@ -29,6 +30,7 @@ import org.swtchart.IBarSeries;
 import org.swtchart.ILegend;
 import org.swtchart.ILineSeries;
 import org.swtchart.ISeries;
+import org.swtchart.ITraceDensitySeries;
 import org.swtchart.internal.series.LineSeries;
 import org.swtchart.internal.series.Series;
 
@@ -419,6 +421,16 @@ public class Legend extends Composite implements ILegend, PaintListener {
             int x = r.x + size / 2;
             int y = (int) (r.y - size / 2d + r.height / 2d);
             gc.fillRectangle(x, y, size, size);
+        } else if (series instanceof ITraceDensitySeries) {
+            // draw gradient from sparse to dense
+            RGB[] colors = ((ITraceDensitySeries) series).getColorMap();
+            gc.setForeground(SWTResourceManager.getColor(colors[0]));
+            gc.setBackground(SWTResourceManager
+                    .getColor(colors[colors.length - 1]));
+            int size = SYMBOL_WIDTH / 2;
+            int x = r.x + size / 2;
+            int y = (int) (r.y - size / 2d + r.height / 2d);
+            gc.fillGradientRectangle(x, y, size, size, false);
         }
     }
 
@@ -7,15 +7,21 @@
 package org.swtchart.internal;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.PaintEvent;
 import org.eclipse.swt.events.PaintListener;
 import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.graphics.RGB;
+import org.eclipse.swt.graphics.Rectangle;
 import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.wb.swt.SWTResourceManager;
 import org.swtchart.Chart;
 import org.swtchart.IAxis;
@@ -25,6 +31,10 @@ import org.swtchart.ILineSeries;
 import org.swtchart.IPlotArea;
 import org.swtchart.ISeries;
 import org.swtchart.ISeriesSet;
+import org.swtchart.ITraceDensitySeries;
+import org.swtchart.Range;
+import org.swtchart.internal.axis.Axis;
+import org.swtchart.internal.compress.CompressExecutor;
 import org.swtchart.internal.series.Series;
 import org.swtchart.internal.series.SeriesSet;
 
@@ -42,6 +52,42 @@ public class PlotArea extends Composite implements PaintListener, IPlotArea {
     /** the custom paint listeners */
     List<ICustomPaintListener> paintListeners;
 
+    /** the image of background, grids and series drawn last time */
+    private Image layer;
+
+    /**
+     * the image of background, grids and the series drawn before the series
+     * changed last time, which is the base to draw the following series
+     */
+    private Image base;
+
+    /** the number of series drawn in the base */
+    private int baseCount;
+
+    /** the plot area size, axes and grids of the layer and the base */
+    private double[] layerKey;
+
+    /** the series drawn in the layer, in the order of drawing */
+    private Series[] layerSeries;
+
+    /** the revisions of series drawn in the layer */
+    private int[] layerRevisions;
+
+    /** the renderer to rasterize series in background */
+    private SeriesRenderer renderer;
+
+    /** the image of series rasterized in background last time */
+    private Image seriesImage;
+
+    /** the key identifying what has been rasterized into the series image */
+    private Object[] seriesImageKey;
+
+    /** the key identifying what has failed to be rasterized last time */
+    private Object[] failedImageKey;
+
+    /** the state indicating if only the overlay is redrawn in next paint */
+    private boolean overlayOnly;
+
     /** the default background color */
     private static final int DEFAULT_BACKGROUND = SWT.COLOR_WHITE;
     
@@ -65,6 +111,7 @@ public class PlotArea extends Composite implements PaintListener, IPlotArea {
 
         seriesSet = new SeriesSet(chart);
         paintListeners = new ArrayList<>();
+        renderer = new SeriesRenderer();
 
         setBackground(SWTResourceManager.getColor(DEFAULT_BACKGROUND));
         addPaintListener(this);
@@ -114,15 +161,247 @@ public class PlotArea extends Composite implements PaintListener, IPlotArea {
         paintListeners.remove(listener);
     }
 
+    /*
+     * @see IPlotArea#redrawOverlay()
+     */
+    public void redrawOverlay() {
+        overlayOnly = true;
+        super.redraw();
+    }
+
     /*
      * @see PaintListener#paintControl(PaintEvent)
      */
     public void paintControl(PaintEvent e) {
         Point p = getSize();
         GC gc = e.gc;
+        if (p.x <= 0 || p.y <= 0) {
+            overlayOnly = false;
+            return;
+        }
+
+        // draw again only the series changed since last time and the series
+        // drawn over them, unless the whole layer has to be drawn again
+        double[] key = createLayerKey(p);
+        Series[] series = getSeriesInDrawingOrder();
+        int[] revisions = new int[series.length];
+        for (int i = 0; i < series.length; i++) {
+            revisions[i] = series[i].getRevision();
+        }
+        if (!chart.isAsyncRenderEnabled()
+                || !drawSeriesImage(e, p, key, series, revisions)) {
+            int changedIndex = 0;
+            if (layer != null && Arrays.equals(key, layerKey)
+                    && (overlayOnly || !hasListenerBehindSeries())) {
+                changedIndex = getFirstChangedIndex(series, revisions);
+            }
+            if (changedIndex >= 0) {
+                drawLayer(e, p, series, changedIndex);
+                layerKey = key;
+                layerSeries = series;
+                layerRevisions = revisions;
+            }
+            gc.drawImage(layer, 0, 0);
+        }
+        overlayOnly = false;
+
+        // draw over series
+        for (ICustomPaintListener listener : paintListeners) {
+            if (!listener.drawBehindSeries()) {
+                listener.paintControl(e);
+            }
+        }
+
+        draw_count++;
+//        gc.setForeground(SWTResourceManager.getColor(SWT.COLOR_WIDGET_FOREGROUND));
+//        gc.drawText("draw count: "+draw_count, 10, 10);
+    }
+
+    /**
+     * Draws the background, grids, custom paint listeners drawing behind
+     * series, and series into the layer.
+     * <p>
+     * The base holding the series drawn before the changed series is updated
+     * first, and then the changed series and the following series are drawn
+     * over the base into the layer, so that the order of drawing series is
+     * kept. Drawing a frequently changing series last therefore doesn't
+     * require to draw the other series again.
+     * 
+     * @param e
+     *            the paint event
+     * @param p
+     *            the plot area size
+     * @param series
+     *            the series in the order of drawing
+     * @param changedIndex
+     *            the index of the first changed series, or 0 to draw all
+     */
+    private void drawLayer(PaintEvent e, Point p, Series[] series,
+            int changedIndex) {
+        if (layer != null) {
+            Rectangle bounds = layer.getBounds();
+            if (bounds.width != p.x || bounds.height != p.y) {
+                layer.dispose();
+                layer = null;
+                base.dispose();
+                base = null;
+            }
+        }
+        if (layer == null) {
+            layer = new Image(getDisplay(), p.x, p.y);
+            base = new Image(getDisplay(), p.x, p.y);
+        }
+
+        // update the base to hold the series before the changed series
+        GC gc = createGC(base, e);
+        try {
+            if (changedIndex == 0 || changedIndex < baseCount) {
+                drawBackground(gc, e, p);
+                baseCount = 0;
+            }
+            for (int i = baseCount; i < changedIndex; i++) {
+                series[i].draw(gc, p.x, p.y);
+            }
+            baseCount = changedIndex;
+        } finally {
+            gc.dispose();
+        }
+
+        // draw the changed series and the following series over the base
+        gc = createGC(layer, e);
+        try {
+            gc.drawImage(base, 0, 0);
+            for (int i = changedIndex; i < series.length; i++) {
+                series[i].draw(gc, p.x, p.y);
+            }
+        } finally {
+            gc.dispose();
+        }
+    }
+
+    /**
+     * Draws the background, grids and custom paint listeners drawing behind
+     * series, and then the image of series rasterized in background. The
+     * series are rasterized again unless the image is up to date, and the
+     * previous image is drawn meanwhile.
+     * 
+     * @param e
+     *            the paint event
+     * @param p
+     *            the plot area size
+     * @param key
+     *            the key of layer except series
+     * @param series
+     *            the series in the order of drawing
+     * @param revisions
+     *            the revisions of series
+     * @return false if no image can be drawn, or if any series cannot be
+     *         rasterized in background or has failed to be rasterized
+     */
+    private boolean drawSeriesImage(PaintEvent e, Point p, double[] key,
+            Series[] series, int[] revisions) {
+
+        // create the image from the completed frame
+        SeriesRenderer.Frame frame = renderer.takeCompletedFrame();
+        if (frame != null && frame.error != null) {
+
+            // not rasterized again until anything is changed
+            failedImageKey = (Object[]) frame.key;
+            if (frame.imageData != null) {
+                renderer.recycle(frame.imageData);
+            }
+        } else if (frame != null) {
+            if (seriesImage != null) {
+                seriesImage.dispose();
+            }
+            seriesImage = new Image(getDisplay(), frame.imageData);
+            seriesImageKey = (Object[]) frame.key;
+            renderer.recycle(frame.imageData);
+        }
+
+        // the series are drawn with graphics context if failed to rasterize
+        Object[] imageKey = new Object[] { key, series, revisions };
+        if (Arrays.deepEquals(imageKey, failedImageKey)) {
+            return false;
+        }
+
+        // start rasterizing series, which is redrawn when completed
+        if (!Arrays.deepEquals(imageKey, seriesImageKey)
+                && !renderer.isRunning()) {
+            List<IRasterCommand> commands = new ArrayList<>(series.length);
+            for (Series s : series) {
+                IRasterCommand command = s.createRasterCommand(p.x, p.y);
+                if (command == null) {
+                    return false;
+                }
+                commands.add(command);
+            }
+            ExecutorService executor = chart.getCompressExecutor();
+            if (executor == null) {
+                executor = CompressExecutor.getDefault();
+            }
+            final Display display = getDisplay();
+            boolean started = renderer.render(imageKey, commands, p.x, p.y,
+                    executor, new Runnable() {
+                        public void run() {
+                            if (display.isDisposed()) {
+                                return;
+                            }
+                            display.asyncExec(new Runnable() {
+                                public void run() {
+                                    if (!isDisposed()) {
+                                        redraw();
+                                    }
+                                }
+                            });
+                        }
+                    });
+
+            // the series are drawn with graphics context if rejected
+            if (!started) {
+                return false;
+            }
+        }
+        if (seriesImage == null) {
+            return false;
+        }
+
+        drawBackground(e.gc, e, p);
+        e.gc.drawImage(seriesImage, 0, 0);
+        return true;
+    }
+
+    /**
+     * Creates the graphics context to draw on the given image, with the font
+     * and foreground of paint event.
+     * 
+     * @param image
+     *            the image
+     * @param e
+     *            the paint event
+     * @return the graphics context
+     */
+    private static GC createGC(Image image, PaintEvent e) {
+        GC gc = new GC(image);
+        gc.setFont(e.gc.getFont());
+        gc.setForeground(e.gc.getForeground());
+        return gc;
+    }
+
+    /**
+     * Draws the background, grids and custom paint listeners drawing behind
+     * series.
+     * 
+     * @param gc
+     *            the graphics context
+     * @param e
+     *            the paint event
+     * @param p
+     *            the plot area size
+     */
+    private void drawBackground(GC gc, PaintEvent e, Point p) {
 
         // draw the plot area background
-        Color oldBackground = gc.getBackground();
         gc.setBackground(getBackground());
         gc.fillRectangle(0, 0, p.x, p.y);
 
@@ -131,37 +410,139 @@ public class PlotArea extends Composite implements PaintListener, IPlotArea {
             ((Grid) axis.getGrid()).draw(gc, p.x, p.y);
         }
 
-        // draw behind series
-        for (ICustomPaintListener listener : paintListeners) {
-            if (listener.drawBehindSeries()) {
-                listener.paintControl(e);
+        // draw behind series, with the graphics context of paint event
+        // replaced so that the listeners draw into the image
+        GC paintGC = e.gc;
+        e.gc = gc;
+        try {
+            for (ICustomPaintListener listener : paintListeners) {
+                if (listener.drawBehindSeries()) {
+                    listener.paintControl(e);
+                }
             }
+        } finally {
+            e.gc = paintGC;
         }
+    }
 
-        // draw series. The line series should be drawn on bar series.
-        for (ISeries series : chart.getSeriesSet().getSeries()) {
-            if (series instanceof IBarSeries) {
-                ((Series) series).draw(gc, p.x, p.y);
+    /**
+     * Gets the series in the order of drawing. The line series should be
+     * drawn on bar series, and the trace density series are drawn behind
+     * them.
+     * 
+     * @return the series
+     */
+    private Series[] getSeriesInDrawingOrder() {
+        ISeries[] allSeries = chart.getSeriesSet().getSeries();
+        Series[] series = new Series[allSeries.length];
+        int i = 0;
+        for (ISeries s : allSeries) {
+            if (s instanceof ITraceDensitySeries) {
+                series[i++] = (Series) s;
             }
         }
-        for (ISeries series : chart.getSeriesSet().getSeries()) {
-            if (series instanceof ILineSeries) {
-                ((Series) series).draw(gc, p.x, p.y);
+        for (ISeries s : allSeries) {
+            if (s instanceof IBarSeries) {
+                series[i++] = (Series) s;
             }
         }
+        for (ISeries s : allSeries) {
+            if (s instanceof ILineSeries) {
+                series[i++] = (Series) s;
+            }
+        }
+        return (i == series.length) ? series : Arrays.copyOf(series, i);
+    }
 
-        // draw over series
+    /**
+     * Gets the index of the first series which has been changed, added,
+     * removed or moved since the layer was drawn.
+     * 
+     * @param series
+     *            the series in the order of drawing
+     * @param revisions
+     *            the revisions of series
+     * @return the index, or -1 if no series has been changed
+     */
+    private int getFirstChangedIndex(Series[] series, int[] revisions) {
+        int count = Math.min(series.length, layerSeries.length);
+        for (int i = 0; i < count; i++) {
+            if (series[i] != layerSeries[i]
+                    || revisions[i] != layerRevisions[i]) {
+                return i;
+            }
+        }
+        return (series.length == layerSeries.length) ? -1 : count;
+    }
+
+    /**
+     * Gets the state indicating if there is a custom paint listener drawing
+     * behind series, which has to be called whenever the plot area is redrawn.
+     * 
+     * @return true if there is a custom paint listener drawing behind series
+     */
+    private boolean hasListenerBehindSeries() {
         for (ICustomPaintListener listener : paintListeners) {
-            if (!listener.drawBehindSeries()) {
-                listener.paintControl(e);
+            if (listener.drawBehindSeries()) {
+                return true;
             }
         }
-        
-        draw_count++;
-//        gc.setForeground(SWTResourceManager.getColor(SWT.COLOR_WIDGET_FOREGROUND));
-//        gc.drawText("draw count: "+draw_count, 10, 10);
-        
-        e.gc.setBackground(oldBackground);
+        return false;
+    }
+
+    /**
+     * Creates the key identifying the layer except series, which consists of
+     * the plot area size, background, chart orientation, and the ranges,
+     * revisions and tick positions of axes and grids.
+     * 
+     * @param p
+     *            the plot area size
+     * @return the key
+     */
+    private double[] createLayerKey(Point p) {
+        IAxis[] axes = chart.getAxisSet().getAxes();
+        int length = 6 + axes.length * 7;
+        for (IAxis axis : axes) {
+            length += getTickLabelPositions(axis).size();
+        }
+
+        double[] key = new double[length];
+        int i = 0;
+        RGB background = getBackground().getRGB();
+        key[i++] = p.x;
+        key[i++] = p.y;
+        key[i++] = background.red;
+        key[i++] = background.green;
+        key[i++] = background.blue;
+        key[i++] = chart.getOrientation();
+        for (IAxis axis : axes) {
+            Range range = axis.getRange();
+            List<Integer> positions = getTickLabelPositions(axis);
+            key[i++] = axis.getId();
+            key[i++] = range.lower;
+            key[i++] = range.upper;
+            key[i++] = ((Axis) axis).getRevision();
+            key[i++] = ((Axis) axis).getNumRisers();
+            key[i++] = ((Grid) axis.getGrid()).getRevision();
+            key[i++] = positions.size();
+            for (Integer position : positions) {
+                key[i++] = position.intValue();
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Gets the tick label positions of the given axis, where grid lines are
+     * drawn.
+     * 
+     * @param axis
+     *            the axis
+     * @return the tick label positions
+     */
+    private static List<Integer> getTickLabelPositions(IAxis axis) {
+        return ((Axis) axis).getTick().getAxisTickLabels()
+                .getTickLabelPositions();
     }
 
     /*
@@ -171,5 +552,15 @@ public class PlotArea extends Composite implements PaintListener, IPlotArea {
     public void dispose() {
         super.dispose();
         seriesSet.dispose();
+        if (layer != null) {
+            layer.dispose();
+            layer = null;
+            base.dispose();
+            base = null;
+        }
+        if (seriesImage != null) {
+            seriesImage.dispose();
+            seriesImage = null;
+        }
     }
 }
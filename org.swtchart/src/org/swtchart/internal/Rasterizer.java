@@ -0,0 +1,473 @@
+/*******************************************************************************
+ * Copyright (c) 2008-2016 SWTChart project. All rights reserved.
+ *
+ * This code is distributed under the terms of the Eclipse Public License v1.0
+ * which is available at http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.swtchart.internal;
+
+import java.util.Arrays;
+
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.graphics.RGB;
+
+/**
+ * A rasterizer drawing into a pixel buffer without <tt>GC</tt> or
+ * <tt>Display</tt>, so that it can be used on any thread.
+ * <p>
+ * The shapes are drawn without anti-aliasing in the same pixel coordinates as
+ * <tt>GC</tt>. A pixel is filled if its center is inside the shape, and the
+ * lines wider than a pixel are drawn as filled quadrangles with flat caps. The
+ * pixels not drawn are transparent.
+ */
+public class Rasterizer {
+
+    /** the width */
+    private final int width;
+
+    /** the height */
+    private final int height;
+
+    /** the pixels in ARGB, which are 0 if transparent */
+    private final int[] pixels;
+
+    /** the current color in ARGB */
+    private int color;
+
+    /** the current line width */
+    private int lineWidth;
+
+    /** the x coordinates of a polygon */
+    private double[] xPoints;
+
+    /** the y coordinates of a polygon */
+    private double[] yPoints;
+
+    /** the x coordinates of intersections of polygon edges with a row */
+    private double[] intersections;
+
+    /**
+     * Constructor.
+     *
+     * @param width
+     *            the width
+     * @param height
+     *            the height
+     */
+    public Rasterizer(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Invalid size: " + width + "x" //$NON-NLS-1$ //$NON-NLS-2$
+                    + height);
+        }
+        this.width = width;
+        this.height = height;
+        pixels = new int[width * height];
+        color = 0xFF000000;
+        lineWidth = 1;
+        xPoints = new double[8];
+        yPoints = new double[8];
+        intersections = new double[8];
+    }
+
+    /**
+     * Gets the width.
+     *
+     * @return the width
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the height.
+     *
+     * @return the height
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Clears all pixels to be transparent.
+     */
+    public void clear() {
+        Arrays.fill(pixels, 0);
+    }
+
+    /**
+     * Sets the color to draw and fill shapes.
+     *
+     * @param rgb
+     *            the color
+     */
+    public void setColor(RGB rgb) {
+        color = 0xFF000000 | rgb.red << 16 | rgb.green << 8 | rgb.blue;
+    }
+
+    /**
+     * Sets the line width.
+     *
+     * @param lineWidth
+     *            the line width, where 0 is the same as 1
+     */
+    public void setLineWidth(int lineWidth) {
+        this.lineWidth = Math.max(1, lineWidth);
+    }
+
+    /**
+     * Draws a line including both end points.
+     *
+     * @param x1
+     *            the x coordinate of the first point
+     * @param y1
+     *            the y coordinate of the first point
+     * @param x2
+     *            the x coordinate of the second point
+     * @param y2
+     *            the y coordinate of the second point
+     */
+    public void drawLine(int x1, int y1, int x2, int y2) {
+        if (lineWidth > 1) {
+            drawWideLine(x1, y1, x2, y2);
+            return;
+        }
+
+        // clip the line not to step through many pixels out of the buffer
+        if (x1 < 0 || x1 >= width || y1 < 0 || y1 >= height || x2 < 0
+                || x2 >= width || y2 < 0 || y2 >= height) {
+            double[] clipped = clip(x1, y1, x2, y2, 1);
+            if (clipped == null) {
+                return;
+            }
+            x1 = (int) Math.round(clipped[0]);
+            y1 = (int) Math.round(clipped[1]);
+            x2 = (int) Math.round(clipped[2]);
+            y2 = (int) Math.round(clipped[3]);
+        }
+
+        // Bresenham's line algorithm
+        int dx = Math.abs(x2 - x1);
+        int dy = -Math.abs(y2 - y1);
+        int sx = x1 < x2 ? 1 : -1;
+        int sy = y1 < y2 ? 1 : -1;
+        int error = dx + dy;
+        int x = x1;
+        int y = y1;
+        while (true) {
+            setPixel(x, y);
+            if (x == x2 && y == y2) {
+                break;
+            }
+            int e2 = 2 * error;
+            if (e2 >= dy) {
+                error += dy;
+                x += sx;
+            }
+            if (e2 <= dx) {
+                error += dx;
+                y += sy;
+            }
+        }
+    }
+
+    /**
+     * Draws a polyline.
+     *
+     * @param pointArray
+     *            the x and y coordinates of points alternately
+     */
+    public void drawPolyline(int[] pointArray) {
+        for (int i = 2; i + 1 < pointArray.length; i += 2) {
+            drawLine(pointArray[i - 2], pointArray[i - 1], pointArray[i],
+                    pointArray[i + 1]);
+        }
+        if (pointArray.length == 2) {
+            drawLine(pointArray[0], pointArray[1], pointArray[0],
+                    pointArray[1]);
+        }
+    }
+
+    /**
+     * Fills a rectangle.
+     *
+     * @param x
+     *            the x coordinate of the rectangle
+     * @param y
+     *            the y coordinate of the rectangle
+     * @param rectWidth
+     *            the width of the rectangle
+     * @param rectHeight
+     *            the height of the rectangle
+     */
+    public void fillRectangle(int x, int y, int rectWidth, int rectHeight) {
+        int fromX = Math.max(0, x);
+        int toX = Math.min(width, x + rectWidth);
+        int fromY = Math.max(0, y);
+        int toY = Math.min(height, y + rectHeight);
+        for (int row = fromY; row < toY; row++) {
+            int offset = row * width;
+            for (int column = fromX; column < toX; column++) {
+                pixels[offset + column] = color;
+            }
+        }
+    }
+
+    /**
+     * Fills an oval fitting in the given rectangle.
+     *
+     * @param x
+     *            the x coordinate of the rectangle
+     * @param y
+     *            the y coordinate of the rectangle
+     * @param ovalWidth
+     *            the width of the rectangle
+     * @param ovalHeight
+     *            the height of the rectangle
+     */
+    public void fillOval(int x, int y, int ovalWidth, int ovalHeight) {
+        if (ovalWidth <= 0 || ovalHeight <= 0) {
+            return;
+        }
+        double rx = ovalWidth / 2d;
+        double ry = ovalHeight / 2d;
+        double cx = x + rx;
+        double cy = y + ry;
+        int fromY = Math.max(0, y);
+        int toY = Math.min(height, y + ovalHeight);
+        for (int row = fromY; row < toY; row++) {
+            double dy = (row + 0.5 - cy) / ry;
+            double halfWidth = rx * Math.sqrt(Math.max(0, 1 - dy * dy));
+            fillSpan(row, cx - halfWidth, cx + halfWidth);
+        }
+    }
+
+    /**
+     * Fills a polygon with the even-odd rule.
+     *
+     * @param pointArray
+     *            the x and y coordinates of vertices alternately
+     */
+    public void fillPolygon(int[] pointArray) {
+        int count = pointArray.length / 2;
+        ensurePolygonCapacity(count);
+        for (int i = 0; i < count; i++) {
+            xPoints[i] = pointArray[2 * i];
+            yPoints[i] = pointArray[2 * i + 1];
+        }
+        fillPolygon(count);
+    }
+
+    /**
+     * Writes the pixels into the given image data, whose size has to be the
+     * same as this rasterizer.
+     *
+     * @param imageData
+     *            the image data created by <tt>createImageData()</tt>
+     */
+    public void writeTo(ImageData imageData) {
+        if (imageData.width != width || imageData.height != height) {
+            throw new IllegalArgumentException("Image size doesn't match."); //$NON-NLS-1$
+        }
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            int offset = y * width;
+            for (int x = 0; x < width; x++) {
+                int pixel = pixels[offset + x];
+                row[x] = pixel & 0xFFFFFF;
+                imageData.alphaData[offset + x] = (byte) (pixel >>> 24);
+            }
+            imageData.setPixels(0, y, width, row, 0);
+        }
+    }
+
+    /**
+     * Creates the image data with the same size as this rasterizer, which has
+     * 24 bit RGB colors and alpha values.
+     *
+     * @return the image data
+     */
+    public ImageData createImageData() {
+        ImageData imageData = new ImageData(width, height, 32,
+                new PaletteData(0xFF0000, 0xFF00, 0xFF));
+        imageData.alphaData = new byte[width * height];
+        return imageData;
+    }
+
+    /**
+     * Draws a line wider than a pixel as a quadrangle.
+     *
+     * @param x1
+     *            the x coordinate of the first point
+     * @param y1
+     *            the y coordinate of the first point
+     * @param x2
+     *            the x coordinate of the second point
+     * @param y2
+     *            the y coordinate of the second point
+     */
+    private void drawWideLine(int x1, int y1, int x2, int y2) {
+        double[] clipped = clip(x1 + 0.5, y1 + 0.5, x2 + 0.5, y2 + 0.5,
+                lineWidth);
+        if (clipped == null) {
+            return;
+        }
+
+        double dx = clipped[2] - clipped[0];
+        double dy = clipped[3] - clipped[1];
+        double length = Math.hypot(dx, dy);
+        double half = lineWidth / 2d;
+        if (length == 0) {
+            fillRectangle((int) Math.round(clipped[0] - half),
+                    (int) Math.round(clipped[1] - half), lineWidth, lineWidth);
+            return;
+        }
+
+        double nx = -dy / length * half;
+        double ny = dx / length * half;
+        ensurePolygonCapacity(4);
+        xPoints[0] = clipped[0] + nx;
+        yPoints[0] = clipped[1] + ny;
+        xPoints[1] = clipped[2] + nx;
+        yPoints[1] = clipped[3] + ny;
+        xPoints[2] = clipped[2] - nx;
+        yPoints[2] = clipped[3] - ny;
+        xPoints[3] = clipped[0] - nx;
+        yPoints[3] = clipped[1] - ny;
+        fillPolygon(4);
+    }
+
+    /**
+     * Fills the polygon whose vertices are stored in the buffers.
+     *
+     * @param count
+     *            the number of vertices
+     */
+    private void fillPolygon(int count) {
+        if (count < 3) {
+            return;
+        }
+        double minY = Double.POSITIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            minY = Math.min(minY, yPoints[i]);
+            maxY = Math.max(maxY, yPoints[i]);
+        }
+        int fromY = (int) Math.max(0, Math.ceil(minY - 0.5));
+        int toY = (int) Math.min(height, Math.ceil(maxY - 0.5));
+
+        if (intersections.length < count) {
+            intersections = new double[count];
+        }
+        for (int row = fromY; row < toY; row++) {
+            double sampleY = row + 0.5;
+            int n = 0;
+            for (int i = 0, j = count - 1; i < count; j = i++) {
+                double ya = yPoints[j];
+                double yb = yPoints[i];
+                if ((ya <= sampleY && sampleY < yb)
+                        || (yb <= sampleY && sampleY < ya)) {
+                    intersections[n++] = xPoints[j] + (sampleY - ya)
+                            * (xPoints[i] - xPoints[j]) / (yb - ya);
+                }
+            }
+            Arrays.sort(intersections, 0, n);
+            for (int i = 0; i + 1 < n; i += 2) {
+                fillSpan(row, intersections[i], intersections[i + 1]);
+            }
+        }
+    }
+
+    /**
+     * Fills the pixels in the given row whose centers are in the given span.
+     *
+     * @param row
+     *            the row
+     * @param fromX
+     *            the x coordinate where the span starts
+     * @param toX
+     *            the x coordinate where the span ends
+     */
+    private void fillSpan(int row, double fromX, double toX) {
+        int from = (int) Math.max(0, Math.ceil(fromX - 0.5));
+        int to = (int) Math.min(width, Math.ceil(toX - 0.5));
+        int offset = row * width;
+        for (int x = from; x < to; x++) {
+            pixels[offset + x] = color;
+        }
+    }
+
+    /**
+     * Sets the pixel at the given coordinates, if in the buffer.
+     *
+     * @param x
+     *            the x coordinate
+     * @param y
+     *            the y coordinate
+     */
+    private void setPixel(int x, int y) {
+        if (x >= 0 && x < width && y >= 0 && y < height) {
+            pixels[y * width + x] = color;
+        }
+    }
+
+    /**
+     * Clips the line to the buffer extended with the given margin, with the
+     * Liang-Barsky algorithm.
+     *
+     * @param x1
+     *            the x coordinate of the first point
+     * @param y1
+     *            the y coordinate of the first point
+     * @param x2
+     *            the x coordinate of the second point
+     * @param y2
+     *            the y coordinate of the second point
+     * @param margin
+     *            the margin
+     * @return the clipped line as x1, y1, x2 and y2, or null if the line is
+     *         out of the buffer
+     */
+    private double[] clip(double x1, double y1, double x2, double y2,
+            double margin) {
+        double dx = x2 - x1;
+        double dy = y2 - y1;
+        double[] p = { -dx, dx, -dy, dy };
+        double[] q = { x1 + margin, width + margin - x1, y1 + margin,
+                height + margin - y1 };
+        double t1 = 0;
+        double t2 = 1;
+        for (int i = 0; i < 4; i++) {
+            if (p[i] == 0) {
+                if (q[i] < 0) {
+                    return null;
+                }
+            } else {
+                double t = q[i] / p[i];
+                if (p[i] < 0) {
+                    t1 = Math.max(t1, t);
+                } else {
+                    t2 = Math.min(t2, t);
+                }
+            }
+        }
+        if (t1 > t2) {
+            return null;
+        }
+        return new double[] { x1 + t1 * dx, y1 + t1 * dy, x1 + t2 * dx,
+                y1 + t2 * dy };
+    }
+
+    /**
+     * Ensures that the polygon buffers can hold the given number of vertices.
+     *
+     * @param count
+     *            the number of vertices
+     */
+    private void ensurePolygonCapacity(int count) {
+        if (xPoints.length < count) {
+            xPoints = new double[count];
+            yPoints = new double[count];
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright (c) 2008-2016 SWTChart project. All rights reserved.
+ *
+ * This code is distributed under the terms of the Eclipse Public License v1.0
+ * which is available at http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.swtchart.internal;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.eclipse.swt.graphics.ImageData;
+
+/**
+ * A renderer rasterizing series on a worker thread into image data, which is
+ * handed over to UI thread without locks.
+ * <p>
+ * At most one frame is rendered at a time. The completed frame is published
+ * with an atomic reference, and UI thread takes it to create an image. The
+ * image data is then given back to be reused for the next frame, so that no
+ * buffer is allocated while the size of plot area is unchanged.
+ */
+class SeriesRenderer {
+
+    /** the completed frame which has not been taken yet */
+    private final AtomicReference<Frame> completedFrame;
+
+    /** the image data given back to be reused */
+    private final AtomicReference<ImageData> spareImageData;
+
+    /** the state indicating if a frame is being rendered, used on UI thread */
+    private boolean running;
+
+    /** the rasterizer, used only while rendering a frame */
+    private Rasterizer rasterizer;
+
+    /**
+     * A frame rasterized on a worker thread.
+     */
+    static class Frame {
+
+        /** the key identifying what has been rendered */
+        final Object key;
+
+        /** the image data */
+        final ImageData imageData;
+
+        /** the error thrown while rendering, or null */
+        final Throwable error;
+
+        /**
+         * Constructor.
+         *
+         * @param key
+         *            the key identifying what has been rendered
+         * @param imageData
+         *            the image data
+         * @param error
+         *            the error thrown while rendering, or null
+         */
+        Frame(Object key, ImageData imageData, Throwable error) {
+            this.key = key;
+            this.imageData = imageData;
+            this.error = error;
+        }
+    }
+
+    /**
+     * Constructor.
+     */
+    SeriesRenderer() {
+        completedFrame = new AtomicReference<>();
+        spareImageData = new AtomicReference<>();
+    }
+
+    /**
+     * Gets the state indicating if a frame is being rendered.
+     *
+     * @return true if a frame is being rendered
+     */
+    boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts rendering a frame on the given executor. This method is called
+     * on UI thread, and only when no frame is being rendered.
+     *
+     * @param key
+     *            the key identifying what is rendered
+     * @param commands
+     *            the commands to rasterize series in the order of drawing
+     * @param width
+     *            the width of frame
+     * @param height
+     *            the height of frame
+     * @param executor
+     *            the executor
+     * @param completion
+     *            the runnable to be run on a worker thread when completed,
+     *            which typically requests UI thread to take the frame
+     * @return false if the executor has rejected rendering, e.g. because it
+     *         has been shut down
+     */
+    boolean render(final Object key, final List<IRasterCommand> commands,
+            final int width, final int height, Executor executor,
+            final Runnable completion) {
+        if (running) {
+            throw new IllegalStateException("Frame is being rendered."); //$NON-NLS-1$
+        }
+        try {
+            executor.execute(new Runnable() {
+                public void run() {
+                    rasterize(key, commands, width, height);
+                    completion.run();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+        running = true;
+        return true;
+    }
+
+    /**
+     * Rasterizes the series into image data and publishes the frame, which
+     * is called on a worker thread. The frame is published even if an error
+     * such as <tt>OutOfMemoryError</tt> is thrown, since otherwise UI thread
+     * would wait for it forever and never render again.
+     *
+     * @param key
+     *            the key identifying what is rendered
+     * @param commands
+     *            the commands to rasterize series in the order of drawing
+     * @param width
+     *            the width of frame
+     * @param height
+     *            the height of frame
+     */
+    private void rasterize(Object key, List<IRasterCommand> commands,
+            int width, int height) {
+        ImageData imageData = spareImageData.getAndSet(null);
+        Throwable error = null;
+        try {
+            if (rasterizer == null || rasterizer.getWidth() != width
+                    || rasterizer.getHeight() != height) {
+                rasterizer = new Rasterizer(width, height);
+            } else {
+                rasterizer.clear();
+            }
+            for (IRasterCommand command : commands) {
+                command.rasterize(rasterizer);
+            }
+            if (imageData == null || imageData.width != width
+                    || imageData.height != height) {
+                imageData = rasterizer.createImageData();
+            }
+            rasterizer.writeTo(imageData);
+        } catch (Throwable e) {
+            error = e;
+
+            // the rasterizer may be left half-written
+            rasterizer = null;
+        }
+        completedFrame.set(new Frame(key, imageData, error));
+    }
+
+    /**
+     * Takes the completed frame, which is called on UI thread. The image data
+     * of frame should be given back with <tt>recycle(ImageData)</tt> once an
+     * image has been created from it.
+     *
+     * @return the completed frame, or null if not completed yet
+     */
+    Frame takeCompletedFrame() {
+        Frame frame = completedFrame.getAndSet(null);
+        if (frame != null) {
+            running = false;
+        }
+        return frame;
+    }
+
+    /**
+     * Gives back the image data to be reused for the next frame.
+     *
+     * @param imageData
+     *            the image data
+     */
+    void recycle(ImageData imageData) {
+        spareImageData.set(imageData);
+    }
+}
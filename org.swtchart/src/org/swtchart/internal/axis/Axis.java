@@ -102,6 +102,15 @@ public class Axis implements IAxis {
     /** the list of dispose listeners */
     private List<IDisposeListener> listeners;
 
+    /** the range in log scale, computed for the last range in use */
+    private LogRange logRange;
+
+    /**
+     * the revision of scale and categories, which is incremented on each
+     * change
+     */
+    private int revision;
+
     /**
      * Constructor.
      * 
@@ -291,6 +300,7 @@ public class Axis implements IAxis {
         }
 
         logScaleEnabled = enabled;
+        revision++;
 
         chart.updateLayout();
 
@@ -305,7 +315,7 @@ public class Axis implements IAxis {
     private double getMinSeriesValue() {
         double minimum = Double.NaN;
         for (ISeries series : chart.getSeriesSet().getSeries()) {
-            if (series.getSeries().size() == 0) {
+            if (series.getSeriesData().size() == 0) {
                 continue;
             }
 
@@ -569,6 +579,7 @@ public class Axis implements IAxis {
         }
 
         categoryAxisEnabled = enabled;
+        revision++;
 
         chart.updateLayout();
 
@@ -592,6 +603,7 @@ public class Axis implements IAxis {
         String[] copiedSeries = new String[series.length];
         System.arraycopy(series, 0, copiedSeries, 0, series.length);
         categorySeries = copiedSeries;
+        revision++;
 
         if (isValidCategoryAxis()) {
             min = (min < 0) ? 0 : (int) min;
@@ -644,9 +656,9 @@ public class Axis implements IAxis {
         int pixelCoordinate;
         if (isHorizontalAxis) {
             if (logScaleEnabled) {
-                pixelCoordinate = (int) ((Math.log10(dataCoordinate) - Math
-                        .log10(lower))
-                        / (Math.log10(upper) - Math.log10(lower)) * width);
+                LogRange range = getLogRange(lower, upper);
+                pixelCoordinate = (int) ((Math.log10(dataCoordinate) - range.logLower)
+                        * range.reciprocalSpan * width);
             } else if (categoryAxisEnabled) {
                 pixelCoordinate = (int) ((dataCoordinate + 0.5 - lower)
                         / (upper + 1 - lower) * width);
@@ -656,9 +668,9 @@ public class Axis implements IAxis {
             }
         } else {
             if (logScaleEnabled) {
-                pixelCoordinate = (int) ((Math.log10(upper) - Math
-                        .log10(dataCoordinate))
-                        / (Math.log10(upper) - Math.log10(lower)) * height);
+                LogRange range = getLogRange(lower, upper);
+                pixelCoordinate = (int) ((range.logUpper - Math
+                        .log10(dataCoordinate)) * range.reciprocalSpan * height);
             } else if (categoryAxisEnabled) {
                 pixelCoordinate = (int) ((upper - dataCoordinate + 0.5)
                         / (upper + 1 - lower) * height);
@@ -694,9 +706,9 @@ public class Axis implements IAxis {
         double dataCoordinate;
         if (isHorizontalAxis) {
             if (logScaleEnabled) {
+                LogRange range = getLogRange(lower, upper);
                 dataCoordinate = Math.pow(10, pixelCoordinate / (double) width
-                        * (Math.log10(upper) - Math.log10(lower))
-                        + Math.log10(lower));
+                        * (range.logUpper - range.logLower) + range.logLower);
             } else if (categoryAxisEnabled) {
                 dataCoordinate = Math.floor(pixelCoordinate / (double) width
                         * (upper + 1 - lower) + lower);
@@ -706,9 +718,9 @@ public class Axis implements IAxis {
             }
         } else {
             if (logScaleEnabled) {
-                dataCoordinate = Math.pow(10, Math.log10(upper)
-                        - pixelCoordinate / (double) height
-                        * (Math.log10(upper) - Math.log10(lower)));
+                LogRange range = getLogRange(lower, upper);
+                dataCoordinate = Math.pow(10, range.logUpper - pixelCoordinate
+                        / (double) height * (range.logUpper - range.logLower));
             } else if (categoryAxisEnabled) {
                 dataCoordinate = Math.floor(upper + 1 - pixelCoordinate
                         / (double) height * (upper + 1 - lower));
@@ -720,6 +732,37 @@ public class Axis implements IAxis {
         return dataCoordinate;
     }
 
+    /**
+     * Gets the given range in log scale. The logarithms are kept for the last
+     * range in use, which is usually the axis range, so that they are not
+     * computed for every data point.
+     * 
+     * @param lower
+     *            the min value of range
+     * @param upper
+     *            the max value of range
+     * @return the range in log scale
+     */
+    private LogRange getLogRange(double lower, double upper) {
+        // the reference is read once, since this may be called concurrently
+        LogRange range = logRange;
+        if (range == null || range.lower != lower || range.upper != upper) {
+            range = new LogRange(lower, upper);
+            logRange = range;
+        }
+        return range;
+    }
+
+    /**
+     * Gets the length of axis in pixels, with which the pixel coordinates are
+     * computed.
+     * 
+     * @return the length of axis in pixels
+     */
+    public int getPixelLength() {
+        return isHorizontalAxis ? width : height;
+    }
+
     /**
      * Sets the number of risers per category.
      * 
@@ -739,6 +782,16 @@ public class Axis implements IAxis {
         return numRisers;
     }
 
+    /**
+     * Gets the revision of scale and categories, which is incremented on each
+     * change. The range and the number of risers are not taken into account.
+     * 
+     * @return the revision
+     */
+    public int getRevision() {
+        return revision;
+    }
+
     /**
      * Checks if the axis is horizontal. X axis is not always horizontal. Y axis
      * can be horizontal with <tt>Chart.setOrientation(SWT.VERTICAL)</tt>.
@@ -810,4 +863,41 @@ public class Axis implements IAxis {
 //        }
         return false;
     }
+
+    /**
+     * A range with the logarithms of its bounds.
+     */
+    private static final class LogRange {
+
+        /** the min value of range */
+        final double lower;
+
+        /** the max value of range */
+        final double upper;
+
+        /** the logarithm of min value */
+        final double logLower;
+
+        /** the logarithm of max value */
+        final double logUpper;
+
+        /** the reciprocal of the span between logarithms */
+        final double reciprocalSpan;
+
+        /**
+         * Constructor.
+         * 
+         * @param lower
+         *            the min value of range
+         * @param upper
+         *            the max value of range
+         */
+        LogRange(double lower, double upper) {
+            this.lower = lower;
+            this.upper = upper;
+            logLower = Math.log10(lower);
+            logUpper = Math.log10(upper);
+            reciprocalSpan = 1 / (logUpper - logLower);
+        }
+    }
 }
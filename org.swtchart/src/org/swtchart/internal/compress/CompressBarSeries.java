@@ -6,68 +6,142 @@
  *******************************************************************************/
 package org.swtchart.internal.compress;
 
-import java.util.ArrayList;
-
-import org.swtchart.internal.series.XYdata;
+import org.swtchart.IBarSeries.AggregationMode;
+import org.swtchart.compress.Compress;
 
 /**
- * A compressor for bar series data.
+ * A compressor for bar series data whose x values are monotone increasing,
+ * merging the bars in each pixel column of X axis into a single bar.
+ * <p>
+ * The y value of the merged bar is aggregated with the aggregation mode, and
+ * the data point representing the merged bar is the one with the minimum or
+ * maximum y value, or the first one for sum and mean. The data points in x
+ * range are found with binary search, and NaN values are ignored.
  */
 public class CompressBarSeries extends Compress {
 
+    /** the aggregation mode */
+    private AggregationMode aggregationMode;
+
+    /**
+     * Constructor.
+     */
+    public CompressBarSeries() {
+        this(AggregationMode.MAX);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param mode
+     *            the aggregation mode
+     */
+    public CompressBarSeries(AggregationMode mode) {
+        aggregationMode = mode;
+    }
+
+    /**
+     * Gets the aggregation mode.
+     * 
+     * @return the aggregation mode
+     */
+    public AggregationMode getAggregationMode() {
+        return aggregationMode;
+    }
+
     /*
-     * @see Compress#addNecessaryPlots(ArrayList, ArrayList)
+     * @see Compress#isXAxisDependent()
      */
     @Override
-    protected void addNecessaryPlots(ArrayList<XYdata> list, ArrayList<Integer> indexList) {
+    protected boolean isXAxisDependent() {
+        return true;
+    }
+
+    /*
+     * @see Compress#addNecessaryPlots()
+     */
+    @Override
+    protected void addNecessaryPlots() {
+        int size = series.size();
+
+        // the bars on category axis are not merged
+        if (config.isXAxisCategory()) {
+            for (int i = 0; i < size; i++) {
+                addToList(series.getX(i), series.getY(i), i);
+            }
+            return;
+        }
 
-        double prevX = series.get(0).x;
-        double maxY = Double.NaN;
-        int prevIndex = 0;
+        // a bar out of x range is kept at each side to get the riser width
+        int from = getFirstIndexAbove(0, xLower, true);
+        if (from > 0) {
+            from--;
+        }
+        int to = getFirstIndexAbove(from, xUpper, false);
+        if (to < size) {
+            to++;
+        }
+
+        int column = 0;
+        int index = -1;
+        double value = 0;
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            double y = series.getY(i);
+            if (Double.isNaN(y)) {
+                continue;
+            }
 
-        int i = 0;
-        for (XYdata p : list) {
-        //for (int i = 0; i < xSeries.length && i < ySeries.length; i++) {
-            if (p.x >= config.getXLowerValue()) {
-                if (isInSameGridXAsPrevious(p.x)) {
-                    if (maxY < p.y) {
-                        maxY = p.y;
+            int xPixel = config.getXPixelCoordinate(series.getX(i));
+            if (index != -1 && xPixel == column) {
+                switch (aggregationMode) {
+                case MIN:
+                    if (y < value) {
+                        value = y;
+                        index = i;
                     }
-                } else {
-                    if (!Double.isNaN(maxY)) {
-                        addToList(list, indexList, prevX, maxY, prevIndex);
+                    break;
+                case SUM:
+                case MEAN:
+                    value += y;
+                    break;
+                default:
+                    if (y > value) {
+                        value = y;
+                        index = i;
                     }
-                    prevX = p.x;
-                    maxY = p.y;
-                    prevIndex = i;
+                    break;
                 }
+                count++;
+                continue;
             }
 
-            if (p.x > config.getXUpperValue()) {
-                break;
+            if (index != -1) {
+                addBar(index, value, count);
             }
-            
-            i++;
+            column = xPixel;
+            index = i;
+            value = y;
+            count = 1;
+        }
+        if (index != -1) {
+            addBar(index, value, count);
         }
-        addToList(list, indexList, prevX, maxY, prevIndex);
     }
 
     /**
-     * Checks if the given x coordinate is in the same grid as previous.
+     * Adds the merged bar to the compressed series.
      * 
-     * @param x
-     *            the X coordinate
-     * @return true if the given coordinate is in the same grid as previous
+     * @param index
+     *            the index of data point representing the bar
+     * @param value
+     *            the aggregated y value, which is the sum for mean
+     * @param count
+     *            the number of merged data points
      */
-    private boolean isInSameGridXAsPrevious(double x) {
-        int xGridIndex = (int) ((x - config.getXLowerValue())
-                / (config.getXUpperValue() - config.getXLowerValue()) * config
-                .getWidthInPixel());
-
-        boolean isInSameGridAsPrevious = (xGridIndex == previousXGridIndex);
-
-        previousXGridIndex = xGridIndex;
-
-        return isInSameGridAsPrevious;
+    private void addBar(int index, double value, int count) {
+        double y = (aggregationMode == AggregationMode.MEAN) ? value / count
+                : value;
+        addToList(series.getX(index), y, index);
     }
 }
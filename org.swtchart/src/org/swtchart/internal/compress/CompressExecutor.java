@@ -0,0 +1,63 @@
+/*******************************************************************************
+ * Copyright (c) 2008-2016 SWTChart project. All rights reserved.
+ *
+ * This code is distributed under the terms of the Eclipse Public License v1.0
+ * which is available at http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.swtchart.internal.compress;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The holder of the fork join pool to compress series in parallel, which is
+ * shared by all charts. The pool is created on first use, and its threads are
+ * daemon threads.
+ */
+public final class CompressExecutor {
+
+    /** the default pool */
+    private static final ForkJoinPool DEFAULT_POOL = new ForkJoinPool();
+
+    /**
+     * Constructor.
+     */
+    private CompressExecutor() {
+        // do nothing
+    }
+
+    /**
+     * Gets the default pool.
+     * 
+     * @return the default pool
+     */
+    public static ForkJoinPool getDefault() {
+        return DEFAULT_POOL;
+    }
+
+    /**
+     * Runs the given tasks in parallel, and waits until all of them are
+     * completed. The tasks are run in the current pool if called from a task,
+     * and otherwise in the default pool.
+     * 
+     * @param tasks
+     *            the tasks
+     */
+    public static void invokeAll(final List<? extends ForkJoinTask<?>> tasks) {
+        RecursiveAction root = new RecursiveAction() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected void compute() {
+                ForkJoinTask.invokeAll(tasks);
+            }
+        };
+        if (ForkJoinTask.inForkJoinPool()) {
+            root.invoke();
+        } else {
+            DEFAULT_POOL.invoke(root);
+        }
+    }
+}
@@ -0,0 +1,269 @@
+/*******************************************************************************
+ * Copyright (c) 2008-2016 SWTChart project. All rights reserved.
+ *
+ * This code is distributed under the terms of the Eclipse Public License v1.0
+ * which is available at http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.swtchart.internal.compress;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+import org.swtchart.compress.Compress;
+
+/**
+ * A compressor for line series data whose x values are monotone increasing,
+ * downsampling the data points in x range to the given number of data points
+ * with Largest-Triangle-Three-Buckets (LTTB).
+ * <p>
+ * The data points are split into buckets of equal count, and the data point
+ * forming the largest triangle with the data point selected in the previous
+ * bucket and the average of the next bucket is selected in each bucket. The
+ * first and last data points are always kept. Unlike the other compressors,
+ * the number of compressed data points doesn't depend on the plot area size.
+ */
+public class CompressLTTBSeries extends Compress {
+
+    /** the minimum number of data points to compute averages in parallel */
+    private static final int PARALLEL_THRESHOLD = 1 << 20;
+
+    /** the minimum number of buckets per task to compute averages */
+    private static final int MIN_BUCKETS_PER_TASK = 64;
+
+    /** the number of data points to be kept */
+    private final int pointCount;
+
+    /** the average x values per bucket, in log scale if enabled */
+    private double[] averageX;
+
+    /** the average y values per bucket, in log scale if enabled */
+    private double[] averageY;
+
+    /**
+     * Constructor.
+     *
+     * @param pointCount
+     *            the number of data points to be kept, which is at least 3
+     */
+    public CompressLTTBSeries(int pointCount) {
+        if (pointCount < 3) {
+            throw new IllegalArgumentException(
+                    "Point count has to be at least 3: " + pointCount); //$NON-NLS-1$
+        }
+        this.pointCount = pointCount;
+        averageX = new double[0];
+        averageY = new double[0];
+    }
+
+    /**
+     * Gets the number of data points to be kept.
+     *
+     * @return the number of data points
+     */
+    public int getPointCount() {
+        return pointCount;
+    }
+
+    /*
+     * @see Compress#addNecessaryPlots()
+     */
+    @Override
+    protected void addNecessaryPlots() {
+        int size = series.size();
+
+        // a data point out of x range is kept at each side to draw lines
+        int from = getFirstIndexAbove(0, xLower, true);
+        if (from > 0) {
+            from--;
+        }
+        int to = getFirstIndexAbove(from, xUpper, false);
+        if (to < size) {
+            to++;
+        }
+
+        int count = to - from;
+        if (count <= pointCount) {
+            for (int i = from; i < to; i++) {
+                addPlot(i);
+            }
+            return;
+        }
+
+        final int numBuckets = pointCount - 2;
+        computeAverages(from + 1, count - 2, numBuckets);
+        if (isCanceled()) {
+            return;
+        }
+
+        addPlot(from);
+        int selected = from;
+        for (int bucket = 0; bucket < numBuckets; bucket++) {
+            if (isCanceled()) {
+                return;
+            }
+            int start = getBucketStart(from + 1, count - 2, numBuckets,
+                    bucket);
+            int end = getBucketStart(from + 1, count - 2, numBuckets,
+                    bucket + 1);
+
+            // the third vertex is the average of next bucket, or last point
+            double cx;
+            double cy;
+            if (bucket + 1 < numBuckets) {
+                cx = averageX[bucket + 1];
+                cy = averageY[bucket + 1];
+            } else {
+                cx = getScaledX(to - 1);
+                cy = getScaledY(to - 1);
+            }
+
+            double ax = getScaledX(selected);
+            double ay = getScaledY(selected);
+            double maxArea = -1;
+            int maxIndex = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((ax - cx) * (getScaledY(i) - ay)
+                        - (ax - getScaledX(i)) * (cy - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    maxIndex = i;
+                }
+            }
+            addPlot(maxIndex);
+            selected = maxIndex;
+        }
+        addPlot(to - 1);
+    }
+
+    /**
+     * Computes the average x and y values of each bucket. The buckets are
+     * split into ranges computed in parallel if there are many data points.
+     *
+     * @param first
+     *            the index of the first data point in buckets
+     * @param count
+     *            the number of data points in buckets
+     * @param numBuckets
+     *            the number of buckets
+     */
+    private void computeAverages(final int first, final int count,
+            final int numBuckets) {
+        if (averageX.length < numBuckets) {
+            averageX = new double[numBuckets];
+            averageY = new double[numBuckets];
+        }
+
+        int numTasks = 1;
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        if (config.isParallelEnabled() && count >= PARALLEL_THRESHOLD
+                && parallelism > 1) {
+            numTasks = Math.min(parallelism * 4, numBuckets
+                    / MIN_BUCKETS_PER_TASK);
+        }
+
+        if (numTasks <= 1) {
+            computeAverages(first, count, numBuckets, 0, numBuckets);
+            return;
+        }
+
+        List<RecursiveAction> tasks = new ArrayList<>();
+        for (int i = 0; i < numTasks; i++) {
+            final int fromBucket = (int) ((long) numBuckets * i / numTasks);
+            final int toBucket = (int) ((long) numBuckets * (i + 1) / numTasks);
+            tasks.add(new RecursiveAction() {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected void compute() {
+                    computeAverages(first, count, numBuckets, fromBucket,
+                            toBucket);
+                }
+            });
+        }
+        CompressExecutor.invokeAll(tasks);
+    }
+
+    /**
+     * Computes the average x and y values of the given buckets.
+     *
+     * @param first
+     *            the index of the first data point in buckets
+     * @param count
+     *            the number of data points in buckets
+     * @param numBuckets
+     *            the number of buckets
+     * @param fromBucket
+     *            the first bucket to compute
+     * @param toBucket
+     *            the bucket after the last one to compute
+     */
+    private void computeAverages(int first, int count, int numBuckets,
+            int fromBucket, int toBucket) {
+        for (int bucket = fromBucket; bucket < toBucket; bucket++) {
+            if (isCanceled()) {
+                return;
+            }
+            int start = getBucketStart(first, count, numBuckets, bucket);
+            int end = getBucketStart(first, count, numBuckets, bucket + 1);
+            double sumX = 0;
+            double sumY = 0;
+            for (int i = start; i < end; i++) {
+                sumX += getScaledX(i);
+                sumY += getScaledY(i);
+            }
+            averageX[bucket] = sumX / (end - start);
+            averageY[bucket] = sumY / (end - start);
+        }
+    }
+
+    /**
+     * Gets the index of the first data point in the given bucket.
+     *
+     * @param first
+     *            the index of the first data point in buckets
+     * @param count
+     *            the number of data points in buckets
+     * @param numBuckets
+     *            the number of buckets
+     * @param bucket
+     *            the bucket
+     * @return the index
+     */
+    private static int getBucketStart(int first, int count, int numBuckets,
+            int bucket) {
+        return first + (int) ((long) count * bucket / numBuckets);
+    }
+
+    /**
+     * Gets the x value at the given index, in log scale if enabled.
+     *
+     * @param index
+     *            the series index
+     * @return the x value
+     */
+    private double getScaledX(int index) {
+        return getXInScale(series.getX(index), index);
+    }
+
+    /**
+     * Gets the y value at the given index, in log scale if enabled.
+     *
+     * @param index
+     *            the series index
+     * @return the y value
+     */
+    private double getScaledY(int index) {
+        return getYInScale(series.getY(index), index);
+    }
+
+    /**
+     * Adds the data point at the given index to the compressed series.
+     *
+     * @param index
+     *            the series index
+     */
+    private void addPlot(int index) {
+        addToList(series.getX(index), series.getY(index), index);
+    }
+}
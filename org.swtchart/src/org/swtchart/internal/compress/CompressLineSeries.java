@@ -7,8 +7,11 @@
 package org.swtchart.internal.compress;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import org.swtchart.internal.series.XYdata;
+import org.swtchart.compress.Compress;
 
 /**
  * A compressor for line series data.
@@ -48,44 +51,258 @@ public class CompressLineSeries extends Compress {
     /** the flag indicating whether the previous point is out of range */
     private boolean isPrevOutOfRange;
 
+    /** the minimum number of data points to compress in parallel */
+    private static final int PARALLEL_THRESHOLD = 1 << 20;
+
+    /** the minimum number of data points in a chunk */
+    private static final int MIN_CHUNK_SIZE = 1 << 18;
+
+    /** the minimum number of data points to compress in parallel */
+    private int parallelThreshold = PARALLEL_THRESHOLD;
+
+    /** the minimum number of data points in a chunk */
+    private int minChunkSize = MIN_CHUNK_SIZE;
+
+    /** the number of threads, or 0 to use the available processors */
+    private int parallelism;
+
+    /** the flag indicating whether the series has stepped out of x range */
+    private boolean isSteppedOut;
+
+    /**
+     * the flag indicating whether the grid of the data point before the chunk
+     * is unknown, which is the case when compressing a chunk in parallel
+     */
+    private boolean isPrevGridUnknown;
+
+    /**
+     * the position in the compressed series of the first data point in range
+     * again, which is added without knowing the previous grid
+     */
+    private int tentativePosition;
+
+    /** the X grid index of the data point at tentative position */
+    private int tentativeXGridIndex;
+
+    /** the Y grid index of the data point at tentative position */
+    private int tentativeYGridIndex;
+
     /*
-     * @see Compress#addNecessaryPlots(ArrayList, ArrayList)
+     * @see Compress#addNecessaryPlots()
      */
     @Override
-    protected void addNecessaryPlots(ArrayList<XYdata> list, ArrayList<Integer> indexList) {
+    protected void addNecessaryPlots() {
         isPrevOutOfRange = true;
+        isSteppedOut = false;
+
+        int size = series.size();
+        int numChunks = 0;
+        int threads = (parallelism > 0) ? parallelism : Runtime.getRuntime()
+                .availableProcessors();
+        if (config.isParallelEnabled() && size >= parallelThreshold
+                && threads > 1) {
+            numChunks = Math.min(threads * 4, size / minChunkSize);
+        }
 
-        int i = 0;
-        XYdata pn1 = null; //series.get(0);
-        for (XYdata p : series) {
-            STATE state = getState(i, p, pn1);
+        if (numChunks > 1) {
+            addNecessaryPlotsInParallel(numChunks);
+        } else {
+            addNecessaryPlots(0, size);
+        }
+    }
+
+    /**
+     * Sets how the series is split into chunks to compress in parallel, which
+     * allows to compress small series in parallel on any machine in tests.
+     * 
+     * @param threshold
+     *            the minimum number of data points to compress in parallel
+     * @param chunkSize
+     *            the minimum number of data points in a chunk
+     * @param threads
+     *            the number of threads, or 0 to use the available processors
+     */
+    void setChunking(int threshold, int chunkSize, int threads) {
+        parallelThreshold = threshold;
+        minChunkSize = Math.max(1, chunkSize);
+        parallelism = threads;
+    }
+
+    /*
+     * @see Compress#addAppendedPlots(int)
+     */
+    @Override
+    protected boolean addAppendedPlots(int fromIndex) {
+
+        // the appended points are beyond the x range
+        if (!isSteppedOut) {
+            addNecessaryPlots(fromIndex, series.size());
+        }
+        return true;
+    }
+
+    /**
+     * Adds the necessary plots by compressing chunks of the series
+     * concurrently, and then joining the chunks in order.
+     * <p>
+     * The state at the beginning of a chunk depends only on the previous data
+     * point, except the grid compared with the first data point in range
+     * again. Such data point is added tentatively, and removed when joining
+     * if it turns out to be in the same grid as the last one in the previous
+     * chunks. The chunks after the one stepping out of x range are ignored, so
+     * that the result is identical to compressing serially.
+     * 
+     * @param numChunks
+     *            the number of chunks
+     */
+    private void addNecessaryPlotsInParallel(final int numChunks) {
+        final int size = series.size();
+        final CompressLineSeries[] chunks = new CompressLineSeries[numChunks];
+        final AtomicInteger steppedOutChunk = new AtomicInteger(numChunks);
+
+        List<RecursiveAction> tasks = new ArrayList<>();
+        for (int i = 0; i < numChunks; i++) {
+            final int chunkIndex = i;
+            tasks.add(new RecursiveAction() {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected void compute() {
+
+                    // the chunk after stepping out of x range is not needed
+                    if (chunkIndex > steppedOutChunk.get() || isCanceled()) {
+                        return;
+                    }
+
+                    int from = (int) ((long) size * chunkIndex / numChunks);
+                    int to = (int) ((long) size * (chunkIndex + 1) / numChunks);
+                    CompressLineSeries chunk = createChunk(from);
+                    chunk.addNecessaryPlots(from, to);
+                    chunks[chunkIndex] = chunk;
+
+                    if (chunk.isSteppedOut) {
+                        int current = steppedOutChunk.get();
+                        while (chunkIndex < current
+                                && !steppedOutChunk.compareAndSet(current,
+                                        chunkIndex)) {
+                            current = steppedOutChunk.get();
+                        }
+                    }
+                }
+            });
+        }
+
+        CompressExecutor.invokeAll(tasks);
+        if (isCanceled()) {
+            return;
+        }
+
+        // join the chunks in order
+        for (CompressLineSeries chunk : chunks) {
+            int chunkSize = chunk.getListSize();
+            int position = chunk.tentativePosition;
+            if (position != -1
+                    && chunk.tentativeXGridIndex == previousXGridIndex
+                    && chunk.tentativeYGridIndex == previousYGridIndex) {
+                addToList(chunk, 0, position);
+                addToList(chunk, position + 1, chunkSize);
+            } else {
+                addToList(chunk, 0, chunkSize);
+            }
+
+            if (!chunk.isPrevGridUnknown) {
+                previousXGridIndex = chunk.previousXGridIndex;
+                previousYGridIndex = chunk.previousYGridIndex;
+            }
+            isPrevOutOfRange = chunk.isPrevOutOfRange;
+            if (chunk.isSteppedOut) {
+                isSteppedOut = true;
+                break;
+            }
+        }
+    }
+
+    /**
+     * Creates the compressor for a chunk starting with the given index.
+     * 
+     * @param fromIndex
+     *            the index to start with
+     * @return the compressor for the chunk
+     */
+    private CompressLineSeries createChunk(int fromIndex) {
+        CompressLineSeries chunk = new CompressLineSeries();
+        chunk.series = series;
+        chunk.initialize(config);
+        chunk.xLogSeries = xLogSeries;
+        chunk.yLogSeries = yLogSeries;
+        chunk.cancellation = cancellation;
+        chunk.isPrevGridUnknown = true;
+        chunk.isPrevOutOfRange = true;
+        if (fromIndex > 0) {
+            double x = series.getX(fromIndex - 1);
+            double y = series.getY(fromIndex - 1);
+            chunk.isPrevOutOfRange = !(xLower <= x && x <= xUpper
+                    && yLower <= y && y <= yUpper);
+        }
+        return chunk;
+    }
+
+    /**
+     * Adds the necessary plots between the given indexes.
+     * 
+     * @param fromIndex
+     *            the index to start with
+     * @param toIndex
+     *            the index after the last data point
+     */
+    private void addNecessaryPlots(int fromIndex, int toIndex) {
+        tentativePosition = -1;
+        double prevX = 0;
+        double prevY = 0;
+        if (fromIndex > 0) {
+            prevX = series.getX(fromIndex - 1);
+            prevY = series.getY(fromIndex - 1);
+        }
+        for (int i = fromIndex; i < toIndex; i++) {
+            if ((i & (CANCEL_CHECK_INTERVAL - 1)) == 0 && isCanceled()) {
+                return;
+            }
+            double x = series.getX(i);
+            double y = series.getY(i);
+            STATE state = getState(i, x, y, prevX, prevY);
 
             switch (state) {
             case SteppingOutOfYRange:
-                addToList(list, indexList, p.x, p.y, i);
+                addToList(x, y, i);
                 break;
             case SteppingOverYRange:
             case SteppingInRange:
             case SteppingInXRange:
-                addToList(list, indexList, pn1.x,
-                        pn1.y, i - 1);
-                addToList(list, indexList, p.x, p.y, i);
+                addToList(prevX, prevY, i - 1);
+                addToList(x, y, i);
                 break;
             case SteppingOverXRange:
             case SteppingOutOfXRange:
-                addToList(list, indexList, pn1.x,
-                        pn1.y, i - 1);
-                addToList(list, indexList, p.x, p.y, i);
-                i = series.size();
+                addToList(prevX, prevY, i - 1);
+                addToList(x, y, i);
+                isSteppedOut = true;
+                i = toIndex;
                 break;
             case SteppingOutOfRange:
-                addToList(list, indexList, p.x, p.y, i);
-                i = series.size();
+                addToList(x, y, i);
+                isSteppedOut = true;
+                i = toIndex;
                 break;
             case InRangeAgain:
-                if (!isInSameGridAsPrevious(p.x, p.y)) {
-                    addToList(list, indexList, p.x, p.y,
-                            i);
+                if (isPrevGridUnknown) {
+                    isInSameGridAsPrevious(x, y, i);
+                    tentativePosition = getListSize();
+                    tentativeXGridIndex = previousXGridIndex;
+                    tentativeYGridIndex = previousYGridIndex;
+                    isPrevGridUnknown = false;
+                    addToList(x, y, i);
+                } else if (!isInSameGridAsPrevious(x, y, i)) {
+                    addToList(x, y, i);
                 }
                 break;
             case OutOfRangeAgain:
@@ -93,34 +310,33 @@ public class CompressLineSeries extends Compress {
             default:
                 break;
             }
-            pn1 = p;
-            i++;
+            prevX = x;
+            prevY = y;
         }
     }
 
     /**
      * Gets the state for each plot.
+     * 
      * @param index
      *            the index for plot
-     * @param p
-     *            the series point at the current index
-     * @param pn1
-     *            the series point at the last index
+     * @param x
+     *            the X value at the current index
+     * @param y
+     *            the Y value at the current index
+     * @param prevX
+     *            the X value at the previous index
+     * @param prevY
+     *            the Y value at the previous index
      * @return the state of plot for the given index
      */
-    private STATE getState(int index, XYdata p, XYdata pn1) {
-//        XYdata p = series.get(index);
-//        XYdata pn1;
-//        if (index>0) {
-//        	pn1 = series.get(index - 1);
-//        } else {
-//        	pn1 = null;
-//        }
+    private STATE getState(int index, double x, double y, double prevX,
+            double prevY) {
 
         STATE state;
         
-        if (xLower <= p.x && p.x <= xUpper) {
-            if (yLower <= p.y && p.y <= yUpper) {
+        if (xLower <= x && x <= xUpper) {
+            if (yLower <= y && y <= yUpper) {
                 if (index > 0 && isPrevOutOfRange) {
                     state = STATE.SteppingInRange;
                 } else {
@@ -129,11 +345,11 @@ public class CompressLineSeries extends Compress {
             } else {
                 if (isPrevOutOfRange) {
                     if (index > 0
-                            && ((pn1.y < yLower && p.y > yUpper) || pn1.y > yUpper
-                                    && p.y < yLower)) {
+                            && ((prevY < yLower && y > yUpper) || prevY > yUpper
+                                    && y < yLower)) {
                         state = STATE.SteppingOverYRange;
-                    } else if (index > 0 && pn1.x < xLower
-                            && p.x > xLower) {
+                    } else if (index > 0 && prevX < xLower
+                            && x > xLower) {
                         state = STATE.SteppingInXRange;
                     } else {
                         state = STATE.OutOfRangeAgain;
@@ -145,11 +361,11 @@ public class CompressLineSeries extends Compress {
         } else {
             if (!isPrevOutOfRange) {
                 state = STATE.SteppingOutOfRange;
-            } else if (index > 0 && pn1.x < xUpper
-                    && p.x > xUpper) {
+            } else if (index > 0 && prevX < xUpper
+                    && x > xUpper) {
                 state = STATE.SteppingOutOfXRange;
-            } else if (index > 0 && pn1.x < xLower
-                    && p.x > xUpper) {
+            } else if (index > 0 && prevX < xLower
+                    && x > xUpper) {
                 state = STATE.SteppingOverXRange;
             } else {
                 state = STATE.OutOfRangeAgain;
@@ -157,8 +373,8 @@ public class CompressLineSeries extends Compress {
         }
 
         // set flag
-        if (xLower <= p.x && p.x <= xUpper
-                && yLower <= p.y && p.y <= yUpper) {
+        if (xLower <= x && x <= xUpper
+                && yLower <= y && y <= yUpper) {
             isPrevOutOfRange = false;
         } else {
             isPrevOutOfRange = true;
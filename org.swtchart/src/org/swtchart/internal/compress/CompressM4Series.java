@@ -0,0 +1,266 @@
+/*******************************************************************************
+ * Copyright (c) 2008-2016 SWTChart project. All rights reserved. 
+ * 
+ * This code is distributed under the terms of the Eclipse Public License v1.0
+ * which is available at http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.swtchart.internal.compress;
+
+import org.swtchart.ISeriesData;
+import org.swtchart.compress.Compress;
+
+/**
+ * A compressor for line series data whose x values are monotone increasing,
+ * keeping the first, last, minimum and maximum data points for each pixel
+ * column of X axis (M4 aggregation).
+ * <p>
+ * Since the line drawn within a pixel column always spans from the minimum to
+ * the maximum, and the lines between columns connect the last and first data
+ * points, the compressed series is rendered to the same pixels as the whole
+ * series. The number of compressed data points is at most four times the
+ * number of pixel columns.
+ * <p>
+ * The data points in a column are found with binary search, and their minimum
+ * and maximum are read from a pyramid of per-bucket minimum and maximum, so
+ * that zooming and panning cost O(pixels * log n) instead of O(n).
+ */
+public class CompressM4Series extends Compress {
+
+    /** the pixel column being aggregated */
+    private int column;
+
+    /** the index of the first data point in the column, or -1 if none */
+    private int firstIndex;
+
+    /** the index of the last data point in the column */
+    private int lastIndex;
+
+    /** the index of the data point with minimum y value in the column */
+    private int minIndex;
+
+    /** the index of the data point with maximum y value in the column */
+    private int maxIndex;
+
+    /** the number of compressed points before the column being aggregated */
+    private int columnListSize;
+
+    /** the flag indicating whether the series has stepped out of x range */
+    private boolean isSteppedOut;
+
+    /** the pyramid of minimum and maximum y values */
+    private MinMaxPyramid pyramid;
+
+    /*
+     * @see Compress#setSeries(ISeriesData)
+     */
+    @Override
+    public void setSeries(ISeriesData series) {
+        super.setSeries(series);
+
+        // the pyramid is built when compressing for the first time
+        pyramid = null;
+    }
+
+    /*
+     * @see Compress#seriesAppended(int)
+     */
+    @Override
+    public void seriesAppended(int fromIndex) {
+        if (pyramid != null) {
+            pyramid.update(fromIndex);
+        }
+        super.seriesAppended(fromIndex);
+    }
+
+    /*
+     * @see Compress#isXAxisDependent()
+     */
+    @Override
+    protected boolean isXAxisDependent() {
+        return true;
+    }
+
+    /*
+     * @see Compress#addNecessaryPlots()
+     */
+    @Override
+    protected void addNecessaryPlots() {
+        if (isCanceled()) {
+            return;
+        }
+        if (pyramid == null) {
+            pyramid = new MinMaxPyramid(series);
+        }
+
+        firstIndex = -1;
+        isSteppedOut = false;
+
+        // start from the last data point before x range, where the data points
+        // just below x range may still be drawn in the first pixel column
+        int fromIndex = getFirstIndexAbove(0, xLower, true);
+        while (fromIndex > 0 && isVisible(fromIndex - 1)) {
+            fromIndex--;
+        }
+        if (fromIndex > 0) {
+            fromIndex--;
+        }
+        addNecessaryPlots(fromIndex);
+    }
+
+    /*
+     * @see Compress#addAppendedPlots(int)
+     */
+    @Override
+    protected boolean addAppendedPlots(int fromIndex) {
+
+        // the series has not reached x range, so that start over
+        if (series.getX(fromIndex - 1) < xLower) {
+            truncateList(0);
+            addNecessaryPlots();
+            return true;
+        }
+
+        if (!isSteppedOut) {
+
+            // the last column may be extended by the appended data points
+            truncateList(columnListSize);
+            addNecessaryPlots(fromIndex);
+        }
+        return true;
+    }
+
+    /**
+     * Adds the necessary plots from the given index.
+     * 
+     * @param fromIndex
+     *            the index to start with
+     */
+    private void addNecessaryPlots(int fromIndex) {
+
+        // the data points after the first one beyond x range are not drawn,
+        // except the ones just above x range drawn in the last pixel column
+        int size = series.size();
+        int endIndex = getFirstIndexAbove(fromIndex, xUpper, false);
+        while (endIndex < size && isVisible(endIndex)) {
+            endIndex++;
+        }
+        if (endIndex < size) {
+            isSteppedOut = true;
+        } else {
+            endIndex--;
+        }
+
+        int i = fromIndex;
+        while (i <= endIndex) {
+            if (isCanceled()) {
+                return;
+            }
+            int xPixel = config.getXPixelCoordinate(series.getX(i));
+            int last = getLastIndexInColumn(i, endIndex, xPixel);
+            pyramid.find(i, last);
+            int runMinIndex = pyramid.getMinIndex();
+            int runMaxIndex = pyramid.getMaxIndex();
+
+            if (firstIndex == -1 || xPixel != column) {
+                if (firstIndex != -1) {
+                    addColumn();
+                }
+                column = xPixel;
+                firstIndex = i;
+                minIndex = runMinIndex;
+                maxIndex = runMaxIndex;
+            } else {
+                if (series.getY(runMinIndex) < series.getY(minIndex)) {
+                    minIndex = runMinIndex;
+                }
+                if (series.getY(runMaxIndex) > series.getY(maxIndex)) {
+                    maxIndex = runMaxIndex;
+                }
+            }
+            lastIndex = last;
+            i = last + 1;
+        }
+
+        if (firstIndex != -1) {
+            columnListSize = getListSize();
+            addColumn();
+        }
+    }
+
+    /**
+     * Gets the state indicating if the data point at the given index is in a
+     * pixel column within the plot area.
+     * 
+     * @param index
+     *            the series index
+     * @return true if the data point is in a pixel column within the plot area
+     */
+    private boolean isVisible(int index) {
+        return config.isXPixelCoordinateVisible(config
+                .getXPixelCoordinate(series.getX(index)));
+    }
+
+    /**
+     * Gets the last index of data points in the same pixel column as the data
+     * point at the given index. Since the pixel coordinate is monotone in
+     * index, the index is found by galloping and then binary search.
+     * 
+     * @param index
+     *            the index of data point in the column
+     * @param endIndex
+     *            the last index to search
+     * @param xPixel
+     *            the pixel column
+     * @return the last index in the column
+     */
+    private int getLastIndexInColumn(int index, int endIndex, int xPixel) {
+        int low = index;
+        int step = 1;
+        while (low + step <= endIndex
+                && config.getXPixelCoordinate(series.getX(low + step)) == xPixel) {
+            low += step;
+            step <<= 1;
+        }
+
+        // the column ends between low (inclusive) and high (exclusive)
+        int high = Math.min(low + step, endIndex + 1);
+        while (high - low > 1) {
+            int middle = (low + high) >>> 1;
+            if (config.getXPixelCoordinate(series.getX(middle)) == xPixel) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Adds the distinct data points kept for the column in index order.
+     */
+    private void addColumn() {
+        int low = Math.min(minIndex, maxIndex);
+        int high = Math.max(minIndex, maxIndex);
+
+        addPlot(firstIndex);
+        if (low != firstIndex && low != lastIndex) {
+            addPlot(low);
+        }
+        if (high != firstIndex && high != low && high != lastIndex) {
+            addPlot(high);
+        }
+        if (lastIndex != firstIndex) {
+            addPlot(lastIndex);
+        }
+    }
+
+    /**
+     * Adds the data point at the given index to the compressed series.
+     * 
+     * @param index
+     *            the series index
+     */
+    private void addPlot(int index) {
+        addToList(series.getX(index), series.getY(index), index);
+    }
+}
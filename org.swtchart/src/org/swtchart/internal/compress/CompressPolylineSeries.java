@@ -0,0 +1,299 @@
+/*******************************************************************************
+ * Copyright (c) 2008-2016 SWTChart project. All rights reserved.
+ *
+ * This code is distributed under the terms of the Eclipse Public License v1.0
+ * which is available at http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.swtchart.internal.compress;
+
+import org.swtchart.compress.Compress;
+
+/**
+ * A compressor for line series data whose x values are not monotone
+ * increasing, e.g. trajectories, keeping the data points connected by lines.
+ * <p>
+ * The data points are simplified in pixel coordinates with a sleeve: the data
+ * points following the last kept one are dropped as long as all of them are
+ * within the tolerance from the line to the latest one, and don't go back
+ * toward the last kept one. The data points in a run out of plot area on the
+ * same side are also dropped except for the first and last ones, since the
+ * lines between them are not visible. The number of compressed data points
+ * therefore depends on the shape of line drawn in plot area rather than on
+ * the number of data points.
+ */
+public class CompressPolylineSeries extends Compress {
+
+    /** the tolerance of distance from simplified line in pixels */
+    private static final double TOLERANCE = 0.5;
+
+    /** the outcode for the pixel coordinate left of plot area */
+    private static final int LEFT = 1;
+
+    /** the outcode for the pixel coordinate right of plot area */
+    private static final int RIGHT = 2;
+
+    /** the outcode for the pixel coordinate below plot area */
+    private static final int BOTTOM = 4;
+
+    /** the outcode for the pixel coordinate above plot area */
+    private static final int TOP = 8;
+
+    /** the plot area width in pixels */
+    private double width;
+
+    /** the plot area height in pixels */
+    private double height;
+
+    /** the number of pixels per x value in scale */
+    private double xScale;
+
+    /** the number of pixels per y value in scale */
+    private double yScale;
+
+    /** the state indicating if there is the last kept data point */
+    private boolean hasAnchor;
+
+    /** the X pixel coordinate of the last kept data point */
+    private double anchorX;
+
+    /** the Y pixel coordinate of the last kept data point */
+    private double anchorY;
+
+    /**
+     * the outcodes common to the data points from the last kept one, which is
+     * not 0 if all of them are out of plot area on the same side
+     */
+    private int runCode;
+
+    /** the index of the latest data point to be kept, or -1 if none */
+    private int candidate;
+
+    /** the X pixel coordinate of the latest data point to be kept */
+    private double candidateX;
+
+    /** the Y pixel coordinate of the latest data point to be kept */
+    private double candidateY;
+
+    /** the state indicating if the sleeve has a direction */
+    private boolean hasDirection;
+
+    /**
+     * the state indicating if the sleeve has been broken by the data points
+     * out of plot area
+     */
+    private boolean isBroken;
+
+    /** the X component of the unit vector at the lower side of sleeve */
+    private double lowerX;
+
+    /** the Y component of the unit vector at the lower side of sleeve */
+    private double lowerY;
+
+    /** the X component of the unit vector at the upper side of sleeve */
+    private double upperX;
+
+    /** the Y component of the unit vector at the upper side of sleeve */
+    private double upperY;
+
+    /** the maximum distance from the last kept data point in pixels */
+    private double maxDistance;
+
+    /** the number of compressed data points without the latest one */
+    private int keptSize;
+
+    /*
+     * @see Compress#addNecessaryPlots()
+     */
+    @Override
+    protected void addNecessaryPlots() {
+        width = config.getWidthInPixel();
+        height = config.getHeightInPixel();
+        xScale = width / (xUpperInScale - xLowerInScale);
+        yScale = height / (yUpperInScale - yLowerInScale);
+        hasAnchor = false;
+        candidate = -1;
+        addNecessaryPlots(0);
+    }
+
+    /*
+     * @see Compress#addAppendedPlots(int)
+     */
+    @Override
+    protected boolean addAppendedPlots(int fromIndex) {
+
+        // the latest data point may be dropped with appended ones
+        truncateList(keptSize);
+        addNecessaryPlots(fromIndex);
+        return true;
+    }
+
+    /**
+     * Adds the necessary plots from the given index, and then the latest data
+     * point so that the line reaches the end of series.
+     * 
+     * @param fromIndex
+     *            the index to start with
+     */
+    private void addNecessaryPlots(int fromIndex) {
+        int size = series.size();
+        for (int i = fromIndex; i < size; i++) {
+            double x = getXInScale(series.getX(i), i);
+            double y = getYInScale(series.getY(i), i);
+            double px = (x - xLowerInScale) * xScale;
+            double py = (y - yLowerInScale) * yScale;
+
+            // the line is broken at the invalid data point (NaN or infinity)
+            if (Double.isNaN(px - px) || Double.isNaN(py - py)) {
+                addCandidate();
+                addPlot(i);
+                hasAnchor = false;
+                continue;
+            }
+
+            if (!hasAnchor) {
+                addPlot(i);
+                setAnchor(px, py, getOutcode(px, py));
+                continue;
+            }
+
+            int code = getOutcode(px, py);
+            if (!isInSleeve(px, py) && (runCode & code) == 0) {
+
+                // start a new sleeve from the latest data point
+                addCandidate();
+                setAnchor(candidateX, candidateY,
+                        getOutcode(candidateX, candidateY));
+                isInSleeve(px, py);
+            }
+            runCode &= code;
+            candidate = i;
+            candidateX = px;
+            candidateY = py;
+        }
+
+        keptSize = getListSize();
+        if (candidate != -1) {
+            addPlot(candidate);
+        }
+    }
+
+    /**
+     * Checks if the given pixel coordinate is in the sleeve from the last kept
+     * data point, and narrows the sleeve so that it is within the tolerance
+     * from the line to the given pixel coordinate.
+     * 
+     * @param px
+     *            the X pixel coordinate
+     * @param py
+     *            the Y pixel coordinate
+     * @return true if the given pixel coordinate is in the sleeve
+     */
+    private boolean isInSleeve(double px, double py) {
+        double dx = px - anchorX;
+        double dy = py - anchorY;
+        double distance = Math.sqrt(dx * dx + dy * dy);
+
+        // the line would not cover the data points going back
+        if (distance < maxDistance - TOLERANCE || isBroken) {
+            isBroken = true;
+            return false;
+        }
+        maxDistance = Math.max(maxDistance, distance);
+        if (distance <= TOLERANCE) {
+            return true;
+        }
+
+        double ux = dx / distance;
+        double uy = dy / distance;
+        if (hasDirection
+                && (lowerX * uy - lowerY * ux < 0 || ux * upperY - uy
+                        * upperX < 0)) {
+            isBroken = true;
+            return false;
+        }
+
+        // the directions rotated by the angle within the tolerance
+        double sin = TOLERANCE / distance;
+        double cos = Math.sqrt(1 - sin * sin);
+        double minusX = ux * cos + uy * sin;
+        double minusY = uy * cos - ux * sin;
+        double plusX = ux * cos - uy * sin;
+        double plusY = uy * cos + ux * sin;
+        if (!hasDirection || lowerX * minusY - lowerY * minusX >= 0) {
+            lowerX = minusX;
+            lowerY = minusY;
+        }
+        if (!hasDirection || plusX * upperY - plusY * upperX >= 0) {
+            upperX = plusX;
+            upperY = plusY;
+        }
+        hasDirection = true;
+        return true;
+    }
+
+    /**
+     * Sets the last kept data point, and starts a new sleeve from it.
+     * 
+     * @param px
+     *            the X pixel coordinate
+     * @param py
+     *            the Y pixel coordinate
+     * @param code
+     *            the outcode of the pixel coordinate
+     */
+    private void setAnchor(double px, double py, int code) {
+        hasAnchor = true;
+        anchorX = px;
+        anchorY = py;
+        runCode = code;
+        candidate = -1;
+        hasDirection = false;
+        isBroken = false;
+        maxDistance = 0;
+    }
+
+    /**
+     * Adds the latest data point to the compressed series if any.
+     */
+    private void addCandidate() {
+        if (candidate != -1) {
+            addPlot(candidate);
+            candidate = -1;
+        }
+    }
+
+    /**
+     * Gets the outcode of the given pixel coordinate, which tells on which
+     * sides it is out of plot area.
+     * 
+     * @param px
+     *            the X pixel coordinate
+     * @param py
+     *            the Y pixel coordinate
+     * @return the outcode, or 0 if it is in plot area
+     */
+    private int getOutcode(double px, double py) {
+        int code = 0;
+        if (px < 0) {
+            code |= LEFT;
+        } else if (px > width) {
+            code |= RIGHT;
+        }
+        if (py < 0) {
+            code |= BOTTOM;
+        } else if (py > height) {
+            code |= TOP;
+        }
+        return code;
+    }
+
+    /**
+     * Adds the data point at the given index to the compressed series.
+     * 
+     * @param index
+     *            the series index
+     */
+    private void addPlot(int index) {
+        addToList(series.getX(index), series.getY(index), index);
+    }
+}
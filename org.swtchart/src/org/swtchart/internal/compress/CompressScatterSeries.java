@@ -6,101 +6,152 @@
  *******************************************************************************/
 package org.swtchart.internal.compress;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 
-import org.swtchart.internal.series.XYdata;
+import org.swtchart.compress.Compress;
 
 /**
  * A compressor for scatter series data
  */
 public class CompressScatterSeries extends Compress {
 
+    /**
+     * the bitmap of occupied grids per thread, which is shared by all series
+     * and cleared before each use
+     */
+    private static final ThreadLocal<long[]> OCCUPIED = new ThreadLocal<long[]>() {
+        @Override
+        protected long[] initialValue() {
+            return new long[0];
+        }
+    };
+
     /** the state indicating if line is visible */
     private boolean isLineVisible;
 
-    /** flag indicating whether the grid is occupied */
-    private boolean occupied[][];
+    /** the bitmap of occupied grids being used */
+    private long[] occupied;
+
+    /** the number of grids in X direction */
+    private int width;
+
+    /** the number of grids in Y direction */
+    private int height;
 
     /*
-     * @see Compress#addNecessaryPlots(ArrayList, ArrayList)
+     * @see Compress#addNecessaryPlots()
      */
     @Override
-    protected void addNecessaryPlots(ArrayList<XYdata> list, ArrayList<Integer> indexList) {
+    protected void addNecessaryPlots() {
+        if (isLineVisible) {
+            addNecessaryPlots(0);
+        } else if (prepareOccupied()) {
+            addNecessaryPlots(0);
+            occupied = null;
+        }
+    }
 
+    /*
+     * @see Compress#addAppendedPlots(int)
+     */
+    @Override
+    protected boolean addAppendedPlots(int fromIndex) {
         if (isLineVisible) {
-        	int i = 0;
-            for (XYdata p : series) {
-                if (!isInSameGridAsPrevious(p.x, p.y)) {
-                    addToList(list, indexList, p.x, p.y,
-                            i);
-                }
-            	i++;
+            addNecessaryPlots(fromIndex);
+        } else if (prepareOccupied()) {
+
+            // the grids of compressed series are the occupied ones
+            int size = getListSize();
+            for (int i = 0; i < size; i++) {
+                int index = getListIndex(i);
+                isOccupied(series.getX(index), series.getY(index), index);
             }
+            addNecessaryPlots(fromIndex);
+            occupied = null;
+        }
+        return true;
+    }
+
+    /**
+     * Prepares the cleared bitmap of occupied grids for the current thread.
+     * 
+     * @return false if the plot area is empty
+     */
+    private boolean prepareOccupied() {
+        width = (int) config.getWidthInPixel();
+        height = (int) config.getHeightInPixel();
+        if (width <= 0 || height <= 0) {
+            return false;
+        }
+
+        int numWords = (int) (((long) width * height + 63) >>> 6);
+        occupied = OCCUPIED.get();
+        if (occupied.length < numWords) {
+            occupied = new long[numWords];
+            OCCUPIED.set(occupied);
         } else {
-            int width = (int) config.getWidthInPixel();
-            int height = (int) config.getHeightInPixel();
+            Arrays.fill(occupied, 0, numWords, 0L);
+        }
+        return true;
+    }
 
-            if (width <= 0 || height <= 0) {
-                return;
-            }
+    /**
+     * Adds the necessary plots from the given index.
+     * 
+     * @param fromIndex
+     *            the index to start with
+     */
+    private void addNecessaryPlots(int fromIndex) {
 
-            // initialize flag
-            occupied = new boolean[width][height];
-
-        	int i = 0;
-            for (XYdata p : series) {
-//            for (int i = 0; i < xSeries.length && i < ySeries.length; i++) {
-                if (p.x >= xLower && p.x <= xUpper
-                        && p.y >= yLower && p.y <= yUpper
-                        && !isOccupied(p.x, p.y)) {
-                    addToList(list, indexList, p.x, p.y,
-                            i);
+        int size = series.size();
+        if (isLineVisible) {
+            for (int i = fromIndex; i < size; i++) {
+                double x = series.getX(i);
+                double y = series.getY(i);
+                if (!isInSameGridAsPrevious(x, y, i)) {
+                    addToList(x, y, i);
+                }
+            }
+        } else {
+            for (int i = fromIndex; i < size; i++) {
+                double x = series.getX(i);
+                double y = series.getY(i);
+                if (x >= xLower && x <= xUpper && y >= yLower && y <= yUpper
+                        && !isOccupied(x, y, i)) {
+                    addToList(x, y, i);
                 }
-                i++;
             }
         }
     }
 
     /**
-     * check if the grid is already occupied
+     * check if the grid is already occupied, and marks it as occupied
      * 
      * @param x
      *            the X coordinate
      * @param y
      *            the Y coordinate
+     * @param index
+     *            the index of data point in the series
      * @return true if the grid is already occupied
      */
-    private boolean isOccupied(double x, double y) {
-        int xGridIndex;
-        int yGridIndex;
-
-        // calculate the X grid index
-        if (config.isXLogScale()) {
-            double lower = Math.log10(config.getXLowerValue());
-            double upper = Math.log10(config.getXUpperValue());
-            xGridIndex = (int) ((Math.log10(x) - lower) / (upper - lower) * config
-                    .getWidthInPixel());
-        } else {
-            xGridIndex = (int) ((x - config.getXLowerValue())
-                    / (config.getXUpperValue() - config.getXLowerValue()) * config
-                    .getWidthInPixel());
-        }
+    private boolean isOccupied(double x, double y, int index) {
+        x = getXInScale(x, index);
+        y = getYInScale(y, index);
 
-        // calculate the Y grid index
-        if (config.isYLogScale()) {
-            double lower = Math.log10(config.getYLowerValue());
-            double upper = Math.log10(config.getYUpperValue());
-            yGridIndex = (int) ((Math.log10(y) - lower) / (upper - lower) * config
-                    .getHeightInPixel());
-        } else {
-            yGridIndex = (int) ((y - config.getYLowerValue())
-                    / (config.getYUpperValue() - config.getYLowerValue()) * config
-                    .getHeightInPixel());
-        }
+        // the upper values of range are in the last grid
+        int xGridIndex = Math.min((int) ((x - xLowerInScale)
+                / (xUpperInScale - xLowerInScale) * width), width - 1);
+        int yGridIndex = Math.min((int) ((y - yLowerInScale)
+                / (yUpperInScale - yLowerInScale) * height), height - 1);
+
+        long bit = (long) xGridIndex * height + yGridIndex;
+        int word = (int) (bit >>> 6);
+        long mask = 1L << bit;
 
-        boolean isOccupied = occupied[xGridIndex][yGridIndex];
+        boolean isOccupied = (occupied[word] & mask) != 0;
 
-        occupied[xGridIndex][yGridIndex] = true;
+        occupied[word] |= mask;
 
         return isOccupied;
     }
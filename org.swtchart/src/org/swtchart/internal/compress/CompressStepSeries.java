@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright (c) 2008-2016 SWTChart project. All rights reserved.
+ *
+ * This code is distributed under the terms of the Eclipse Public License v1.0
+ * which is available at http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.swtchart.internal.compress;
+
+import org.swtchart.ISeriesData;
+import org.swtchart.compress.CompressConfig;
+
+/**
+ * A compressor for step line series data whose x values are monotone
+ * increasing, which is drawn as a horizontal line at the y value of each data
+ * point until the x value of the next one, followed by a vertical line.
+ * <p>
+ * The data points are kept in the same way as M4 aggregation. The vertical
+ * lines within a pixel column span from the minimum to the maximum of the
+ * level entering the column and the levels in the column, and the level
+ * leaving the column is the one of the last data point, so that the
+ * compressed series is rendered to the same pixels as the whole series.
+ * <p>
+ * The compressed series is projected into a polyline of steps, so that it is
+ * drawn with a single call.
+ */
+public class CompressStepSeries extends CompressM4Series {
+
+    /*
+     * @see Compress#project(CompressConfig)
+     */
+    @Override
+    protected void project(CompressConfig config) {
+        ISeriesData cseries = compressedSeries;
+        int size = cseries.size();
+        if (size == 0) {
+            return;
+        }
+
+        boolean isHorizontal = config.isXAxisHorizontal();
+        int prevX = config.getXPixelCoordinate(cseries.getX(0));
+        int prevY = config.getYPixelCoordinate(cseries.getY(0));
+        addPolylinePoint(prevX, prevY, isHorizontal);
+        for (int i = 1; i < size; i++) {
+            int x = config.getXPixelCoordinate(cseries.getX(i));
+            int y = config.getYPixelCoordinate(cseries.getY(i));
+
+            // the horizontal line at the previous level
+            if (x != prevX) {
+                addPolylinePoint(x, prevY, isHorizontal);
+            }
+
+            // the vertical line to the current level
+            if (y != prevY) {
+                addPolylinePoint(x, y, isHorizontal);
+            }
+            prevX = x;
+            prevY = y;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+/*******************************************************************************
+ * Copyright (c) 2008-2016 SWTChart project. All rights reserved.
+ *
+ * This code is distributed under the terms of the Eclipse Public License v1.0
+ * which is available at http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.swtchart.internal.compress;
+
+import org.swtchart.ISeriesData;
+
+/**
+ * A pyramid of the indexes of minimum and maximum y values per bucket of data
+ * points, at power-of-two bucket sizes.
+ * <p>
+ * The bucket at level <tt>k</tt> covers <tt>64 * 2^k</tt> data points, and
+ * only full buckets are stored. The minimum and maximum of any index range are
+ * then found by reading at most two buckets per level plus the data points at
+ * both edges, and the pyramid takes about a quarter of a byte per data point.
+ */
+class MinMaxPyramid {
+
+    /** the shift to get the number of data points in a bucket at level 0 */
+    private static final int BASE_SHIFT = 6;
+
+    /** the number of data points in a bucket at level 0 */
+    private static final int BASE_SIZE = 1 << BASE_SHIFT;
+
+    /** the maximum number of levels */
+    private static final int MAX_LEVELS = 32;
+
+    /** the series */
+    private final ISeriesData series;
+
+    /** the indexes of minimum y values per level and bucket */
+    private final int[][] minIndexes;
+
+    /** the indexes of maximum y values per level and bucket */
+    private final int[][] maxIndexes;
+
+    /** the number of buckets per level */
+    private final int[] numBuckets;
+
+    /** the index of minimum y value found by the last query */
+    private int minIndex;
+
+    /** the index of maximum y value found by the last query */
+    private int maxIndex;
+
+    /** the minimum y value found by the last query */
+    private double minY;
+
+    /** the maximum y value found by the last query */
+    private double maxY;
+
+    /**
+     * Constructor.
+     *
+     * @param series
+     *            the series
+     */
+    MinMaxPyramid(ISeriesData series) {
+        this.series = series;
+        minIndexes = new int[MAX_LEVELS][];
+        maxIndexes = new int[MAX_LEVELS][];
+        numBuckets = new int[MAX_LEVELS];
+        update(0);
+    }
+
+    /**
+     * Updates the buckets for the data points from the given index, which
+     * have been appended to the series.
+     *
+     * @param fromIndex
+     *            the index of the first appended data point
+     */
+    void update(int fromIndex) {
+        int count = series.size() >> BASE_SHIFT;
+        int from = Math.min(fromIndex >> BASE_SHIFT, numBuckets[0]);
+
+        // level 0 is computed from the series
+        ensureCapacity(0, count);
+        for (int i = from; i < count; i++) {
+            int first = i << BASE_SHIFT;
+            scan(first, first + BASE_SIZE - 1);
+            minIndexes[0][i] = minIndex;
+            maxIndexes[0][i] = maxIndex;
+        }
+        numBuckets[0] = count;
+
+        // upper levels are computed from pairs of buckets in the lower level
+        for (int level = 1; level < MAX_LEVELS; level++) {
+            count >>= 1;
+            from = Math.min(from >> 1, numBuckets[level]);
+            if (count == 0) {
+                break;
+            }
+            ensureCapacity(level, count);
+            int[] lowerMin = minIndexes[level - 1];
+            int[] lowerMax = maxIndexes[level - 1];
+            for (int i = from; i < count; i++) {
+                int left = lowerMin[i * 2];
+                int right = lowerMin[i * 2 + 1];
+                minIndexes[level][i] = (series.getY(right) < series.getY(left)) ? right
+                        : left;
+                left = lowerMax[i * 2];
+                right = lowerMax[i * 2 + 1];
+                maxIndexes[level][i] = (series.getY(right) > series.getY(left)) ? right
+                        : left;
+            }
+            numBuckets[level] = count;
+        }
+    }
+
+    /**
+     * Finds the indexes of minimum and maximum y values between the given
+     * indexes. The result is available with <tt>getMinIndex()</tt> and
+     * <tt>getMaxIndex()</tt>.
+     *
+     * @param from
+     *            the first index
+     * @param to
+     *            the last index, inclusive
+     */
+    void find(int from, int to) {
+        int lo = (from + BASE_SIZE - 1) >> BASE_SHIFT;
+        int hi = Math.min((to + 1) >> BASE_SHIFT, numBuckets[0]);
+        if (lo >= hi) {
+            scan(from, to);
+            return;
+        }
+
+        // the data points at both edges are not covered by full buckets
+        scan(from, (lo << BASE_SHIFT) - 1);
+        scanAndMerge(hi << BASE_SHIFT, to);
+
+        for (int level = 0; lo < hi; level++) {
+            if ((lo & 1) != 0) {
+                merge(minIndexes[level][lo], maxIndexes[level][lo]);
+                lo++;
+            }
+            if ((hi & 1) != 0) {
+                hi--;
+                merge(minIndexes[level][hi], maxIndexes[level][hi]);
+            }
+            lo >>= 1;
+            hi >>= 1;
+        }
+    }
+
+    /**
+     * Gets the index of minimum y value found by the last query.
+     *
+     * @return the index
+     */
+    int getMinIndex() {
+        return minIndex;
+    }
+
+    /**
+     * Gets the index of maximum y value found by the last query.
+     *
+     * @return the index
+     */
+    int getMaxIndex() {
+        return maxIndex;
+    }
+
+    /**
+     * Scans the data points between the given indexes to find the minimum and
+     * maximum y values. If there is no data point, the first index is taken.
+     *
+     * @param from
+     *            the first index
+     * @param to
+     *            the last index, inclusive
+     */
+    private void scan(int from, int to) {
+        minIndex = from;
+        maxIndex = from;
+        minY = series.getY(from);
+        maxY = minY;
+        scanAndMerge(from + 1, to);
+    }
+
+    /**
+     * Scans the data points between the given indexes, and merges them into
+     * the minimum and maximum y values found so far.
+     *
+     * @param from
+     *            the first index
+     * @param to
+     *            the last index, inclusive
+     */
+    private void scanAndMerge(int from, int to) {
+        for (int i = from; i <= to; i++) {
+            double y = series.getY(i);
+            if (y < minY) {
+                minY = y;
+                minIndex = i;
+            }
+            if (y > maxY) {
+                maxY = y;
+                maxIndex = i;
+            }
+        }
+    }
+
+    /**
+     * Merges the minimum and maximum of a bucket into the minimum and maximum
+     * y values found so far. The smaller index is taken for equal values.
+     *
+     * @param bucketMinIndex
+     *            the index of minimum y value in the bucket
+     * @param bucketMaxIndex
+     *            the index of maximum y value in the bucket
+     */
+    private void merge(int bucketMinIndex, int bucketMaxIndex) {
+        double y = series.getY(bucketMinIndex);
+        if (y < minY || (y == minY && bucketMinIndex < minIndex)) {
+            minY = y;
+            minIndex = bucketMinIndex;
+        }
+        y = series.getY(bucketMaxIndex);
+        if (y > maxY || (y == maxY && bucketMaxIndex < maxIndex)) {
+            maxY = y;
+            maxIndex = bucketMaxIndex;
+        }
+    }
+
+    /**
+     * Ensures that the arrays of the given level can hold the given number of
+     * buckets.
+     *
+     * @param level
+     *            the level
+     * @param count
+     *            the number of buckets
+     */
+    private void ensureCapacity(int level, int count) {
+        int[] mins = minIndexes[level];
+        if (mins != null && mins.length >= count) {
+            return;
+        }
+
+        int capacity = Math.max(count, (mins == null) ? 0 : mins.length * 2);
+        int[] newMins = new int[capacity];
+        int[] newMaxs = new int[capacity];
+        if (mins != null) {
+            System.arraycopy(mins, 0, newMins, 0, numBuckets[level]);
+            System.arraycopy(maxIndexes[level], 0, newMaxs, 0,
+                    numBuckets[level]);
+        }
+        minIndexes[level] = newMins;
+        maxIndexes[level] = newMaxs;
+    }
+}
@@ -0,0 +1,148 @@
+/*******************************************************************************
+ * Copyright (c) 2008-2016 SWTChart project. All rights reserved.
+ *
+ * This code is distributed under the terms of the Eclipse Public License v1.0
+ * which is available at http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.swtchart.internal.series;
+
+import java.util.Arrays;
+
+/**
+ * Series data stored in parallel primitive arrays.
+ */
+public class ArraySeriesData implements IAppendableSeriesData {
+
+    /** the x series */
+    private double[] xSeries;
+
+    /** the y series */
+    private double[] ySeries;
+
+    /** the number of valid data points */
+    private int size;
+
+    /** the state indicating if the arrays are allocated by this object */
+    private boolean ownArrays;
+
+    /**
+     * the state indicating if the arrays are shared with the captured series
+     * data, so that they have to be copied before appending
+     */
+    private boolean shared;
+
+    /**
+     * Constructor. The given arrays are not copied.
+     *
+     * @param xSeries
+     *            the x series
+     * @param ySeries
+     *            the y series
+     */
+    public ArraySeriesData(double[] xSeries, double[] ySeries) {
+        this(xSeries, ySeries, Math.min(xSeries.length, ySeries.length));
+    }
+
+    /**
+     * Constructor. The given arrays are not copied.
+     *
+     * @param xSeries
+     *            the x series
+     * @param ySeries
+     *            the y series
+     * @param size
+     *            the number of valid data points in the arrays
+     */
+    public ArraySeriesData(double[] xSeries, double[] ySeries, int size) {
+        if (size < 0 || size > xSeries.length || size > ySeries.length) {
+            throw new IllegalArgumentException("Invalid series size: " + size); //$NON-NLS-1$
+        }
+        this.xSeries = xSeries;
+        this.ySeries = ySeries;
+        this.size = size;
+    }
+
+    /*
+     * @see ISeriesData#size()
+     */
+    public int size() {
+        return size;
+    }
+
+    /*
+     * @see ISeriesData#getX(int)
+     */
+    public double getX(int index) {
+        return xSeries[index];
+    }
+
+    /*
+     * @see ISeriesData#getY(int)
+     */
+    public double getY(int index) {
+        return ySeries[index];
+    }
+
+    /*
+     * @see IAppendableSeriesData#append(double[], double[], int)
+     */
+    public void append(double[] xValues, double[] yValues, int count) {
+        int newSize = size + count;
+
+        // the arrays given to constructor or captured are never written to
+        if (!ownArrays || shared || newSize > xSeries.length
+                || newSize > ySeries.length) {
+            int capacity = Math.max(newSize, size * 2);
+            double[] newXSeries = new double[capacity];
+            double[] newYSeries = new double[capacity];
+            System.arraycopy(xSeries, 0, newXSeries, 0, size);
+            System.arraycopy(ySeries, 0, newYSeries, 0, size);
+            xSeries = newXSeries;
+            ySeries = newYSeries;
+            ownArrays = true;
+            shared = false;
+        }
+
+        System.arraycopy(xValues, 0, xSeries, size, count);
+        System.arraycopy(yValues, 0, ySeries, size, count);
+        size = newSize;
+    }
+
+    /**
+     * Captures the data points, so that they can be read on another thread
+     * while more data points are appended on UI thread. The arrays allocated
+     * by this object are shared with the captured series data, and copied on
+     * next append instead of being written to. The arrays given to
+     * constructor are copied, since the caller may change them in place.
+     *
+     * @return the captured series data
+     */
+    ArraySeriesData capture() {
+        if (ownArrays) {
+            shared = true;
+            return new ArraySeriesData(xSeries, ySeries, size);
+        }
+        return new ArraySeriesData(Arrays.copyOf(xSeries, size),
+                Arrays.copyOf(ySeries, size));
+    }
+
+    /**
+     * Gets the backing array of x series. Only the first <tt>size()</tt>
+     * elements are valid.
+     *
+     * @return the x series
+     */
+    public double[] getXSeries() {
+        return xSeries;
+    }
+
+    /**
+     * Gets the backing array of y series. Only the first <tt>size()</tt>
+     * elements are valid.
+     *
+     * @return the y series
+     */
+    public double[] getYSeries() {
+        return ySeries;
+    }
+}
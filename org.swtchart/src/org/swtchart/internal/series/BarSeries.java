@@ -6,8 +6,6 @@
  *******************************************************************************/
 package org.swtchart.internal.series;
 
-import java.util.ArrayList;
-
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.graphics.GC;
@@ -15,12 +13,13 @@ import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.graphics.Rectangle;
 import org.eclipse.wb.swt.SWTResourceManager;
 import org.swtchart.Chart;
+import org.swtchart.CompressionStrategies;
 import org.swtchart.IAxis.Direction;
 import org.swtchart.IBarSeries;
+import org.swtchart.ICompressionStrategy;
+import org.swtchart.ISeriesData;
 import org.swtchart.Range;
 import org.swtchart.internal.axis.Axis;
-import org.swtchart.internal.compress.CompressBarSeries;
-import org.swtchart.internal.compress.CompressScatterSeries;
 
 /**
  * Bar series.
@@ -42,6 +41,9 @@ public class BarSeries extends Series implements IBarSeries {
     /** the bar width style */
     private BarWidthStyle barWidthStyle;
 
+    /** the aggregation mode */
+    private AggregationMode aggregationMode;
+
     /** the initial bar width in pixels */
     public static final int INITIAL_BAR_WIDTH = 20;
 
@@ -57,6 +59,9 @@ public class BarSeries extends Series implements IBarSeries {
     /** the default bar color */
     private static final int DEFAULT_BAR_COLOR = SWT.COLOR_CYAN;
 
+    /** the default aggregation mode */
+    private static final AggregationMode DEFAULT_AGGREGATION_MODE = AggregationMode.MAX;
+
     /**
      * Constructor.
      *
@@ -73,8 +78,9 @@ public class BarSeries extends Series implements IBarSeries {
         barWidth = INITIAL_PADDING;
         padding = INITIAL_PADDING;
         type = SeriesType.BAR;
+        aggregationMode = DEFAULT_AGGREGATION_MODE;
 
-        compressor = new CompressBarSeries();
+        compressor = createCompressor();
     }
 
     /*
@@ -88,6 +94,7 @@ public class BarSeries extends Series implements IBarSeries {
      * @see IBarSeries#setBarWidthStyle(BarWidthStyle)
      */
     public void setBarWidthStyle(BarWidthStyle style) {
+        invalidateAppearance();
         this.barWidthStyle = style;
     }
 
@@ -102,6 +109,7 @@ public class BarSeries extends Series implements IBarSeries {
      * @see IBarSeries#setBarWidth(int)
      */
     public void setBarWidth(int width) {
+        invalidateAppearance();
         if (padding <= 0) {
             SWT.error(SWT.ERROR_INVALID_ARGUMENT);
         }
@@ -119,6 +127,7 @@ public class BarSeries extends Series implements IBarSeries {
      * @see IBarSeries#setBarPadding(int)
      */
     public void setBarPadding(int padding) {
+        invalidateAppearance();
         if (padding < 0 || padding > 100) {
             SWT.error(SWT.ERROR_INVALID_ARGUMENT);
         }
@@ -139,6 +148,7 @@ public class BarSeries extends Series implements IBarSeries {
      * @see IBarSeries#setBarColor(Color)
      */
     public void setBarColor(Color color) {
+        invalidateAppearance();
         if (color != null && color.isDisposed()) {
             SWT.error(SWT.ERROR_INVALID_ARGUMENT);
         }
@@ -150,6 +160,30 @@ public class BarSeries extends Series implements IBarSeries {
         }
     }
 
+    /*
+     * @see IBarSeries#getAggregationMode()
+     */
+    public AggregationMode getAggregationMode() {
+        return aggregationMode;
+    }
+
+    /*
+     * @see IBarSeries#setAggregationMode(AggregationMode)
+     */
+    public void setAggregationMode(AggregationMode mode) {
+        AggregationMode newMode = mode;
+        if (newMode == null) {
+            newMode = DEFAULT_AGGREGATION_MODE;
+        }
+        if (aggregationMode == newMode) {
+            return;
+        }
+        aggregationMode = newMode;
+        invalidateAppearance();
+        resetCompressor();
+        ((SeriesSet) chart.getSeriesSet()).compressAllSeries();
+    }
+
     /*
      * @see IBarSeries#getBounds()
      */
@@ -160,18 +194,12 @@ public class BarSeries extends Series implements IBarSeries {
         }
 
         Rectangle[] rs = new Rectangle[series.size()];
-        ArrayList<XYdata> compressedSeries = compressor.getCompressedSeries(); // TODO optimize getCompressedSeries for only one axis (here x)
-        int cnt = 0;
-        int i = 0;
-        for (XYdata p : series) {
-        	// TODO optimize
-			if (cnt < compressedSeries.size() && (compressedSeries.get(cnt).x == p.x)) {
-				if (compressedBounds[cnt].width != 0 && compressedBounds[cnt].height != 0) {
-					rs[i] = compressedBounds[cnt];
-				}
-				cnt++;
-			}
-			i++;
+        int[] indexes = compressor.getCompressedIndexes();
+        for (int i = 0; i < compressedBounds.length; i++) {
+            if (indexes[i] < rs.length && compressedBounds[i].width != 0
+                    && compressedBounds[i].height != 0) {
+                rs[indexes[i]] = compressedBounds[i];
+            }
         }
         return rs;
     }
@@ -186,30 +214,29 @@ public class BarSeries extends Series implements IBarSeries {
         Axis yAxis = (Axis) chart.getAxisSet().getYAxis(yAxisId);
 
         // get x and y series
-        ArrayList<XYdata>  cseries = compressor.getCompressedSeries();
-        ArrayList<Integer> indexes = compressor.getCompressedIndexes();
-        if (xAxis.isValidCategoryAxis()) {
-            for (int i = 0; i < cseries.size(); i++) { // TODO optimize
-            	cseries.set(i, new XYdata(indexes.get(i), cseries.get(i).y));
-            }
-        }
+        ArraySeriesData cseries = getCompressedSeries(xAxis);
+        double[] xseries = cseries.getXSeries();
+        double[] yseries = cseries.getYSeries();
+        int[] indexes = compressor.getCompressedIndexes();
 
-        Rectangle[] rectangles = new Rectangle[cseries.size()];
+        int size = cseries.size();
+        Rectangle[] rectangles = new Rectangle[size];
         Range xRange = xAxis.getRange();
         Range yRange = yAxis.getRange();
-        for (int i = 0; i < cseries.size(); i++) {
-            XYdata p = cseries.get(i);
-            Integer idx = indexes.get(i);
-            
-            int x = xAxis.getPixelCoordinate(p.x);
+        for (int i = 0; i < size; i++) {
+            double px = xseries[i];
+            double py = yseries[i];
+            int idx = indexes[i];
+
+            int x = xAxis.getPixelCoordinate(px);
             int y = yAxis
                     .getPixelCoordinate(isValidStackSeries() ? stackSeries[idx]
-                            : p.y);
+                            : py);
             double baseYCoordinate = yAxis.getRange().lower > 0 ? yAxis
                     .getRange().lower : 0;
             double riserwidth = getRiserWidth(cseries, i, xAxis, xRange.lower,
                     xRange.upper);
-            double riserHeight = Math.abs(yAxis.getPixelCoordinate(p.y,
+            double riserHeight = Math.abs(yAxis.getPixelCoordinate(py,
                     yRange.lower, yRange.upper)
                     - yAxis.getPixelCoordinate(
                             yAxis.isLogScaleEnabled() ? yRange.lower
@@ -314,19 +341,18 @@ public class BarSeries extends Series implements IBarSeries {
      *            the index of riser in a category
      */
     protected void setRiserIndex(int riserIndex) {
-        this.riserIndex = riserIndex;
+        if (this.riserIndex != riserIndex) {
+            this.riserIndex = riserIndex;
+            invalidateAppearance();
+        }
     }
 
     /*
-     * @see Series#setCompressor()
+     * @see Series#getDefaultCompressionStrategy()
      */
     @Override
-    protected void setCompressor() {
-        if (isXMonotoneIncreasing) {
-            compressor = new CompressBarSeries();
-        } else {
-            compressor = new CompressScatterSeries();
-        }
+    protected ICompressionStrategy getDefaultCompressionStrategy() {
+        return CompressionStrategies.get(CompressionStrategies.BAR);
     }
 
     /*
@@ -377,31 +403,25 @@ public class BarSeries extends Series implements IBarSeries {
      *            the max value of range
      * @return the raiser width in pixels
      */
-    private int getRiserWidth(ArrayList<XYdata> series, int index, Axis xAxis,
+    private int getRiserWidth(ISeriesData series, int index, Axis xAxis,
             double min, double max) {
 
         // get two x coordinates
         double upper;
         double lower;
         if (series.size() == 1) {
-        	XYdata p = series.get(0);
-            upper = p.x + 0.5;
-            lower = p.x - 0.5;
+            upper = series.getX(0) + 0.5;
+            lower = series.getX(0) - 0.5;
+        } else if (index != series.size() - 1
+                && (index == 0 || series.getX(index + 1) - series.getX(index) < series
+                        .getX(index) - series.getX(index - 1))) {
+            upper = series.getX(index + 1);
+            lower = series.getX(index);
         } else {
-        	XYdata pn1 = series.get(index - 1);
-        	XYdata p = series.get(index);
-        	XYdata p1 = series.get(index + 1);
-        	if (index != series.size() - 1
-	            && (index == 0 || p1.x - p.x < p.x
-	                        - pn1.x)) {
-	            upper = p1.x;
-	            lower = p.x;
-	        } else {
-	            upper = p.x;
-	            lower = pn1.x;
-	        }
+            upper = series.getX(index);
+            lower = series.getX(index - 1);
         }
-        
+
         if (barWidthStyle == BarWidthStyle.STRETCHED) {
             
             // get riser width without padding
@@ -459,31 +479,32 @@ public class BarSeries extends Series implements IBarSeries {
         // draw label and error bars
         if (seriesLabel.isVisible() || xErrorBar.isVisible()
                 || yErrorBar.isVisible()) {
-            ArrayList<XYdata> cseries = compressor.getCompressedSeries(); // TODO optimize this function to only get one axis (here y)
-            ArrayList<Integer> indexes = compressor.getCompressedIndexes();
+            ISeriesData cseries = compressor.getCompressedSeries();
+            int[] indexes = compressor.getCompressedIndexes();
 
-            // TODO optimize
             for (int i = 0; i < rs.length; i++) {
                 seriesLabel.draw(gc, rs[i].x + rs[i].width / 2, rs[i].y
-                        + rs[i].height / 2, cseries.get(i).y, indexes.get(i), SWT.CENTER, SWT.CENTER);
+                        + rs[i].height / 2, cseries.getY(i), indexes[i],
+                        SWT.CENTER, SWT.CENTER);
 
                 int h, v;
-                int idx  = indexes.get(i);
-                XYdata p = series.get(idx);
+                int idx = indexes[i];
+                double px = series.getX(idx);
+                double py = series.getY(idx);
                 if (xAxis.isHorizontalAxis()) {
                     if (xAxis.isCategoryEnabled()) {
                         h = rs[i].x + rs[i].width / 2;
                     } else {
-                        h = xAxis.getPixelCoordinate(p.x);
+                        h = xAxis.getPixelCoordinate(px);
                     }
-                    v = yAxis.getPixelCoordinate(p.y);
+                    v = yAxis.getPixelCoordinate(py);
                 } else {
                     if (xAxis.isCategoryEnabled()) {
                         v = rs[i].y + rs[i].height / 2;
                     } else {
-                        v = xAxis.getPixelCoordinate(p.x);
+                        v = xAxis.getPixelCoordinate(px);
                     }
-                    h = yAxis.getPixelCoordinate(p.y);
+                    h = yAxis.getPixelCoordinate(py);
                 }
                 xErrorBar.draw(gc, h, v, xAxis, idx);
                 yErrorBar.draw(gc, h, v, yAxis, idx);
@@ -0,0 +1,552 @@
+/*******************************************************************************
+ * Copyright (c) 2008-2016 SWTChart project. All rights reserved.
+ *
+ * This code is distributed under the terms of the Eclipse Public License v1.0
+ * which is available at http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.swtchart.internal.series;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+import org.eclipse.swt.graphics.Device;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.graphics.RGB;
+import org.swtchart.ISeriesData;
+import org.swtchart.Range;
+import org.swtchart.internal.axis.Axis;
+import org.swtchart.internal.compress.CompressExecutor;
+
+/**
+ * A grid counting the data points or trace segments per pixel of plot area,
+ * which is drawn as a single image with a color map.
+ */
+public class DensityGrid {
+
+    /** the default color map from sparse to dense */
+    public static final RGB[] DEFAULT_COLOR_MAP = { new RGB(68, 1, 84),
+            new RGB(59, 82, 139), new RGB(33, 145, 140), new RGB(94, 201, 98),
+            new RGB(253, 231, 37) };
+
+    /** the minimum number of data points to count in parallel */
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /** the maximum number of counts in the grids per task */
+    private static final int MAX_TASK_GRID_CELLS = 1 << 24;
+
+    /** the number of colors in the lookup table */
+    private static final int NUM_COLORS = 256;
+
+    /** the counts per pixel, stored row by row */
+    private int[] counts;
+
+    /** the grids to count per task */
+    private int[][] taskCounts;
+
+    /** the width of grid */
+    private int width;
+
+    /** the height of grid */
+    private int height;
+
+    /** the maximum count */
+    private int maxCount;
+
+    /** the image of grid, or <tt>null</tt> if not yet created */
+    private Image image;
+
+    /**
+     * An accumulator counting a part of series into a grid.
+     */
+    private interface Accumulator {
+
+        /**
+         * Counts the items between the given indexes into the given grid.
+         *
+         * @param from
+         *            the first index
+         * @param to
+         *            the index after the last item
+         * @param grid
+         *            the grid to count
+         */
+        void accumulate(int from, int to, int[] grid);
+    }
+
+    /**
+     * Constructor.
+     */
+    public DensityGrid() {
+        counts = new int[0];
+        taskCounts = new int[0][];
+    }
+
+    /**
+     * Creates the key identifying the grid to be counted. The grid has to be
+     * counted again if the key is changed.
+     *
+     * @param dataRevision
+     *            the revision of series data
+     * @param gridWidth
+     *            the width of plot area
+     * @param gridHeight
+     *            the height of plot area
+     * @param xAxis
+     *            the X axis
+     * @param yAxis
+     *            the Y axis
+     * @return the key
+     */
+    static double[] createKey(int dataRevision, int gridWidth,
+            int gridHeight, Axis xAxis, Axis yAxis) {
+        Range xRange = xAxis.getRange();
+        Range yRange = yAxis.getRange();
+        return new double[] { dataRevision, gridWidth, gridHeight,
+                xRange.lower, xRange.upper, yRange.lower, yRange.upper,
+                xAxis.isLogScaleEnabled() ? 1 : 0,
+                yAxis.isLogScaleEnabled() ? 1 : 0,
+                xAxis.isHorizontalAxis() ? 1 : 0,
+                xAxis.isCategoryEnabled() ? 1 : 0 };
+    }
+
+    /**
+     * Counts the data points per pixel of plot area. The data points are
+     * split into chunks counted in parallel if the series is large.
+     *
+     * @param series
+     *            the series
+     * @param xAxis
+     *            the X axis
+     * @param yAxis
+     *            the Y axis
+     * @param gridWidth
+     *            the width of plot area
+     * @param gridHeight
+     *            the height of plot area
+     */
+    public void count(final ISeriesData series, final Axis xAxis,
+            final Axis yAxis, int gridWidth, int gridHeight) {
+        final int size = series.size();
+        count(gridWidth, gridHeight, size, size, new Accumulator() {
+            public void accumulate(int from, int to, int[] grid) {
+                countPoints(series, xAxis, yAxis, from, to, grid);
+            }
+        });
+    }
+
+    /**
+     * Counts the pixels crossed by the line segments of traces. Each trace is
+     * a run of data points starting at the given index, and the traces are
+     * split into chunks rasterized in parallel if the series is large.
+     *
+     * @param series
+     *            the series
+     * @param traceStarts
+     *            the indexes of the first data points of traces in ascending
+     *            order
+     * @param numTraces
+     *            the number of traces
+     * @param xAxis
+     *            the X axis
+     * @param yAxis
+     *            the Y axis
+     * @param gridWidth
+     *            the width of plot area
+     * @param gridHeight
+     *            the height of plot area
+     */
+    public void countTraces(final ISeriesData series, final int[] traceStarts,
+            final int numTraces, final Axis xAxis, final Axis yAxis,
+            int gridWidth, int gridHeight) {
+        count(gridWidth, gridHeight, numTraces, series.size(),
+                new Accumulator() {
+                    public void accumulate(int from, int to, int[] grid) {
+                        int size = series.size();
+                        for (int i = from; i < to; i++) {
+                            int end = (i + 1 < numTraces) ? traceStarts[i + 1]
+                                    : size;
+                            countTrace(series, xAxis, yAxis, traceStarts[i],
+                                    end, grid);
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Counts the given items into the grid, splitting them into chunks
+     * counted in parallel into separate grids if the workload is large.
+     *
+     * @param gridWidth
+     *            the width of plot area
+     * @param gridHeight
+     *            the height of plot area
+     * @param numItems
+     *            the number of items
+     * @param numPoints
+     *            the number of data points to be visited
+     * @param accumulator
+     *            the accumulator counting the items
+     */
+    private void count(int gridWidth, int gridHeight, int numItems,
+            int numPoints, final Accumulator accumulator) {
+        width = Math.max(0, gridWidth);
+        height = Math.max(0, gridHeight);
+        disposeImage();
+
+        int numCells = width * height;
+        if (counts.length < numCells) {
+            counts = new int[numCells];
+        } else {
+            Arrays.fill(counts, 0, numCells, 0);
+        }
+
+        int numTasks = 1;
+        if (numPoints >= PARALLEL_THRESHOLD && numCells > 0) {
+            numTasks = Math.min(Runtime.getRuntime().availableProcessors(),
+                    Math.max(1, MAX_TASK_GRID_CELLS / numCells));
+            numTasks = Math.min(numTasks, numItems);
+        }
+
+        if (numTasks <= 1) {
+            accumulator.accumulate(0, numItems, counts);
+        } else {
+            if (taskCounts.length < numTasks) {
+                taskCounts = new int[numTasks][];
+            }
+            List<RecursiveAction> tasks = new ArrayList<>();
+            for (int i = 0; i < numTasks; i++) {
+                if (taskCounts[i] == null || taskCounts[i].length < numCells) {
+                    taskCounts[i] = new int[numCells];
+                } else {
+                    Arrays.fill(taskCounts[i], 0, numCells, 0);
+                }
+                final int[] grid = taskCounts[i];
+                final int from = (int) ((long) numItems * i / numTasks);
+                final int to = (int) ((long) numItems * (i + 1) / numTasks);
+                tasks.add(new RecursiveAction() {
+                    private static final long serialVersionUID = 1L;
+
+                    @Override
+                    protected void compute() {
+                        accumulator.accumulate(from, to, grid);
+                    }
+                });
+            }
+            CompressExecutor.invokeAll(tasks);
+
+            for (int i = 0; i < numTasks; i++) {
+                int[] grid = taskCounts[i];
+                for (int j = 0; j < numCells; j++) {
+                    counts[j] += grid[j];
+                }
+            }
+        }
+
+        maxCount = 0;
+        for (int i = 0; i < numCells; i++) {
+            maxCount = Math.max(maxCount, counts[i]);
+        }
+    }
+
+    /**
+     * Counts the data points between the given indexes into the given grid.
+     *
+     * @param series
+     *            the series
+     * @param xAxis
+     *            the X axis
+     * @param yAxis
+     *            the Y axis
+     * @param from
+     *            the first index
+     * @param to
+     *            the index after the last data point
+     * @param grid
+     *            the grid to count data points
+     */
+    private void countPoints(ISeriesData series, Axis xAxis, Axis yAxis,
+            int from, int to, int[] grid) {
+        boolean isHorizontal = xAxis.isHorizontalAxis();
+        boolean isCategory = xAxis.isCategoryEnabled();
+        for (int i = from; i < to; i++) {
+            double x = isCategory ? i : series.getX(i);
+            double y = series.getY(i);
+            if (Double.isNaN(x) || Double.isNaN(y)) {
+                continue;
+            }
+
+            int h;
+            int v;
+            if (isHorizontal) {
+                h = xAxis.getPixelCoordinate(x);
+                v = yAxis.getPixelCoordinate(y);
+            } else {
+                v = xAxis.getPixelCoordinate(x);
+                h = yAxis.getPixelCoordinate(y);
+            }
+            if (h >= 0 && h < width && v >= 0 && v < height) {
+                grid[v * width + h]++;
+            }
+        }
+    }
+
+    /**
+     * Counts the pixels crossed by the line segments of a trace into the given
+     * grid. A data point with NaN breaks the trace, and the pixel shared by
+     * adjacent segments is counted only once.
+     *
+     * @param series
+     *            the series
+     * @param xAxis
+     *            the X axis
+     * @param yAxis
+     *            the Y axis
+     * @param from
+     *            the index of the first data point of trace
+     * @param to
+     *            the index after the last data point of trace
+     * @param grid
+     *            the grid to count pixels
+     */
+    private void countTrace(ISeriesData series, Axis xAxis, Axis yAxis,
+            int from, int to, int[] grid) {
+        boolean isHorizontal = xAxis.isHorizontalAxis();
+        boolean isCategory = xAxis.isCategoryEnabled();
+        boolean isPrevValid = false;
+        int prevH = 0;
+        int prevV = 0;
+        for (int i = from; i < to; i++) {
+            double x = isCategory ? i - from : series.getX(i);
+            double y = series.getY(i);
+            if (Double.isNaN(x) || Double.isNaN(y)) {
+                isPrevValid = false;
+                continue;
+            }
+
+            int h;
+            int v;
+            if (isHorizontal) {
+                h = xAxis.getPixelCoordinate(x);
+                v = yAxis.getPixelCoordinate(y);
+            } else {
+                v = xAxis.getPixelCoordinate(x);
+                h = yAxis.getPixelCoordinate(y);
+            }
+            if (isPrevValid) {
+                boolean isLast = i + 1 == to
+                        || Double.isNaN(series.getY(i + 1))
+                        || (!isCategory && Double.isNaN(series.getX(i + 1)));
+                countSegment(prevH, prevV, h, v, isLast, grid);
+            }
+            prevH = h;
+            prevV = v;
+            isPrevValid = true;
+        }
+    }
+
+    /**
+     * Counts the pixels crossed by the given line segment, which is clipped
+     * with the grid.
+     *
+     * @param h0
+     *            the horizontal pixel coordinate of start point
+     * @param v0
+     *            the vertical pixel coordinate of start point
+     * @param h1
+     *            the horizontal pixel coordinate of end point
+     * @param v1
+     *            the vertical pixel coordinate of end point
+     * @param includeEnd
+     *            true if counting the pixel of end point
+     * @param grid
+     *            the grid to count pixels
+     */
+    private void countSegment(int h0, int v0, int h1, int v1,
+            boolean includeEnd, int[] grid) {
+        if (width == 0 || height == 0) {
+            return;
+        }
+
+        // clip the segment with the grid (Liang-Barsky)
+        double dh = (double) h1 - h0;
+        double dv = (double) v1 - v0;
+        double t0 = 0;
+        double t1 = 1;
+        double[] p = { -dh, dh, -dv, dv };
+        double[] q = { h0, width - 1d - h0, v0, height - 1d - v0 };
+        for (int k = 0; k < 4; k++) {
+            if (p[k] == 0) {
+                if (q[k] < 0) {
+                    return;
+                }
+            } else {
+                double r = q[k] / p[k];
+                if (p[k] < 0) {
+                    if (r > t1) {
+                        return;
+                    }
+                    t0 = Math.max(t0, r);
+                } else {
+                    if (r < t0) {
+                        return;
+                    }
+                    t1 = Math.min(t1, r);
+                }
+            }
+        }
+
+        // the end point on the border is counted if the segment is clipped
+        if (t1 < 1) {
+            includeEnd = true;
+        }
+        int x0 = (int) Math.round(h0 + t0 * dh);
+        int y0 = (int) Math.round(v0 + t0 * dv);
+        int x1 = (int) Math.round(h0 + t1 * dh);
+        int y1 = (int) Math.round(v0 + t1 * dv);
+
+        // rasterize the segment (Bresenham)
+        int dx = Math.abs(x1 - x0);
+        int dy = -Math.abs(y1 - y0);
+        int sx = x0 < x1 ? 1 : -1;
+        int sy = y0 < y1 ? 1 : -1;
+        int err = dx + dy;
+        while (x0 != x1 || y0 != y1) {
+            grid[y0 * width + x0]++;
+            int e2 = 2 * err;
+            if (e2 >= dy) {
+                err += dy;
+                x0 += sx;
+            }
+            if (e2 <= dx) {
+                err += dx;
+                y0 += sy;
+            }
+        }
+        if (includeEnd) {
+            grid[y1 * width + x1]++;
+        }
+    }
+
+    /**
+     * Gets the count at the given pixel.
+     *
+     * @param x
+     *            the horizontal pixel coordinate in plot area
+     * @param y
+     *            the vertical pixel coordinate in plot area
+     * @return the count, or 0 if out of the grid
+     */
+    public int get(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            return 0;
+        }
+        return counts[y * width + x];
+    }
+
+    /**
+     * Gets the maximum count at a pixel.
+     *
+     * @return the maximum count
+     */
+    public int getMaxCount() {
+        return maxCount;
+    }
+
+    /**
+     * Gets the image of grid, which is created with the given color map if not
+     * yet created since the grid was counted last time.
+     *
+     * @param device
+     *            the device to create image
+     * @param colorMap
+     *            the colors from sparse to dense
+     * @return the image, or <tt>null</tt> if the grid is empty
+     */
+    public Image getImage(Device device, RGB[] colorMap) {
+        if (image == null) {
+            ImageData imageData = createImageData(colorMap);
+            if (imageData != null) {
+                image = new Image(device, imageData);
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Disposes the image of grid, which is created again when it is requested
+     * next time.
+     */
+    public void disposeImage() {
+        if (image != null) {
+            image.dispose();
+            image = null;
+        }
+    }
+
+    /**
+     * Creates the image data of the grid. The counts are mapped to the colors
+     * in log scale, and the pixels without count are transparent.
+     *
+     * @param colorMap
+     *            the colors from sparse to dense
+     * @return the image data, or <tt>null</tt> if the grid is empty
+     */
+    public ImageData createImageData(RGB[] colorMap) {
+        if (width == 0 || height == 0) {
+            return null;
+        }
+
+        int[] lookupTable = createLookupTable(colorMap);
+        double scale = (NUM_COLORS - 1) / Math.log1p(Math.max(1, maxCount));
+
+        ImageData imageData = new ImageData(width, height, 24,
+                new PaletteData(0xFF0000, 0xFF00, 0xFF));
+        int[] pixels = new int[width];
+        byte[] alphas = new byte[width];
+        for (int y = 0; y < height; y++) {
+            int offset = y * width;
+            for (int x = 0; x < width; x++) {
+                int count = counts[offset + x];
+                if (count == 0) {
+                    pixels[x] = 0;
+                    alphas[x] = 0;
+                } else {
+                    pixels[x] = lookupTable[(int) (Math.log1p(count) * scale)];
+                    alphas[x] = (byte) 255;
+                }
+            }
+            imageData.setPixels(0, y, width, pixels, 0);
+            imageData.setAlphas(0, y, width, alphas, 0);
+        }
+        return imageData;
+    }
+
+    /**
+     * Creates the lookup table of colors interpolating the given color map.
+     *
+     * @param colorMap
+     *            the colors from sparse to dense
+     * @return the lookup table of pixel values
+     */
+    private static int[] createLookupTable(RGB[] colorMap) {
+        int[] lookupTable = new int[NUM_COLORS];
+        for (int i = 0; i < NUM_COLORS; i++) {
+            double position = (double) i / (NUM_COLORS - 1)
+                    * (colorMap.length - 1);
+            int index = Math.min((int) position, colorMap.length - 1);
+            RGB lower = colorMap[index];
+            RGB upper = colorMap[Math.min(index + 1, colorMap.length - 1)];
+            double ratio = position - index;
+            int red = (int) (lower.red + (upper.red - lower.red) * ratio);
+            int green = (int) (lower.green + (upper.green - lower.green)
+                    * ratio);
+            int blue = (int) (lower.blue + (upper.blue - lower.blue) * ratio);
+            lookupTable[i] = (red << 16) | (green << 8) | blue;
+        }
+        return lookupTable;
+    }
+}
@@ -51,6 +51,9 @@ public class ErrorBar implements IErrorBar {
     /** the visibility state */
     private boolean isVisible;
 
+    /** the revision, which is incremented on each change */
+    private int revision;
+
     /**
      * The constructor.
      */
@@ -64,6 +67,15 @@ public class ErrorBar implements IErrorBar {
         minusErrors = new double[0];
     }
 
+    /**
+     * Gets the revision, which is incremented on each change.
+     * 
+     * @return the revision
+     */
+    int getRevision() {
+        return revision;
+    }
+
     /*
      * @see IErrorBar#getType()
      */
@@ -75,6 +87,7 @@ public class ErrorBar implements IErrorBar {
      * @see IErrorBar#setType(ErrorBarType)
      */
     public void setType(ErrorBarType type) {
+        revision++;
         if (type == null) {
             this.type = DEFAULT_TYPE;
         } else {
@@ -96,6 +109,7 @@ public class ErrorBar implements IErrorBar {
      * @see IErrorBar#setColor(Color)
      */
     public void setColor(Color color) {
+        revision++;
         if (color != null && color.isDisposed()) {
             SWT.error(SWT.ERROR_INVALID_ARGUMENT);
         }
@@ -118,6 +132,7 @@ public class ErrorBar implements IErrorBar {
      * @see IErrorBar#setLineWidth(int)
      */
     public void setLineWidth(int width) {
+        revision++;
         if (width <= 0) {
             this.lineWidth = DEFAULT_LINE_WIDTH;
         } else {
@@ -136,6 +151,7 @@ public class ErrorBar implements IErrorBar {
      * @see IErrorBar#setError(double)
      */
     public void setError(double error) {
+        revision++;
         if (error < 0) {
             throw new IllegalArgumentException(
                     "positive value must be given for error.");
@@ -158,6 +174,7 @@ public class ErrorBar implements IErrorBar {
      * @see IErrorBar#setPlusErrors(double[])
      */
     public void setPlusErrors(double[] errors) {
+        revision++;
         if (errors == null) {
             SWT.error(SWT.ERROR_NULL_ARGUMENT);
             return; // to suppress warning...
@@ -181,6 +198,7 @@ public class ErrorBar implements IErrorBar {
      * @see IErrorBar#setMinusErrors(double[])
      */
     public void setMinusErrors(double[] errors) {
+        revision++;
         if (errors == null) {
             SWT.error(SWT.ERROR_NULL_ARGUMENT);
             return; // to suppress warning...
@@ -201,6 +219,7 @@ public class ErrorBar implements IErrorBar {
      * @see IErrorBar#setVisible(boolean)
      */
     public void setVisible(boolean visible) {
+        revision++;
         this.isVisible = visible;
     }
 
@@ -0,0 +1,27 @@
+/*******************************************************************************
+ * Copyright (c) 2008-2016 SWTChart project. All rights reserved.
+ *
+ * This code is distributed under the terms of the Eclipse Public License v1.0
+ * which is available at http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.swtchart.internal.series;
+
+import org.swtchart.ISeriesData;
+
+/**
+ * Series data to which data points can be appended.
+ */
+public interface IAppendableSeriesData extends ISeriesData {
+
+    /**
+     * Appends data points to the end of the series data.
+     * 
+     * @param xSeries
+     *            the X values to append
+     * @param ySeries
+     *            the Y values to append
+     * @param count
+     *            the number of data points to append from the arrays
+     */
+    void append(double[] xSeries, double[] ySeries, int count);
+}
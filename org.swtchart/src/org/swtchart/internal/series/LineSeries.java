@@ -6,22 +6,28 @@
  *******************************************************************************/
 package org.swtchart.internal.series;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.RGB;
 import org.eclipse.wb.swt.SWTResourceManager;
 import org.swtchart.Chart;
+import org.swtchart.CompressionStrategies;
 import org.swtchart.IAxis.Direction;
+import org.swtchart.ICompressionStrategy;
 import org.swtchart.ILineSeries;
+import org.swtchart.ISeriesData;
 import org.swtchart.LineStyle;
 import org.swtchart.Range;
+import org.swtchart.compress.CompressConfig;
+import org.swtchart.internal.IRasterCommand;
+import org.swtchart.internal.Rasterizer;
 import org.swtchart.internal.Util;
 import org.swtchart.internal.axis.Axis;
-import org.swtchart.internal.compress.CompressLineSeries;
-import org.swtchart.internal.compress.CompressScatterSeries;
+import org.swtchart.internal.compress.CompressStepSeries;
 
 /**
  * Line series.
@@ -58,6 +64,39 @@ public class LineSeries extends Series implements ILineSeries {
     /** the anti-aliasing value for drawing line */
     private int antialias;
 
+    /** the pixel coordinates of polyline, reused for each drawing */
+    private int[] polylineBuffer = new int[0];
+
+    /** the number of valid coordinates in polyline buffer */
+    private int polylineSize;
+
+    /** the pixel coordinates of line passed to GC, reused for each drawing */
+    private int[] lineCoordinates = new int[0];
+
+    /** the pixel coordinates of area passed to GC, reused for each drawing */
+    private int[] areaCoordinates = new int[0];
+
+    /** the x pixel coordinates of compressed series, reused for each drawing */
+    private int[] xPixels = new int[0];
+
+    /** the y pixel coordinates of line, reused for each drawing */
+    private int[] linePixels = new int[0];
+
+    /** the y pixel coordinates of area baseline, reused for each drawing */
+    private int[] basePixels = new int[0];
+
+    /** the state indicating if density rendering is enabled */
+    private boolean densityEnabled;
+
+    /** the density color map */
+    private RGB[] densityColorMap;
+
+    /** the grid counting data points per pixel */
+    private DensityGrid densityGrid;
+
+    /** the data revision, axis ranges and plot area size of density grid */
+    private double[] densityGridKey;
+
     /** the alpha value to draw area */
     private static final int ALPHA = 50;
 
@@ -108,8 +147,10 @@ public class LineSeries extends Series implements ILineSeries {
         antialias = DEFAULT_ANTIALIAS;
         lineWidth = DEFAULT_LINE_WIDTH;
 
-        compressor = new CompressLineSeries();
+        compressor = createCompressor();
         symbolColors = new Color[0];
+
+        densityColorMap = DensityGrid.DEFAULT_COLOR_MAP;
     }
 
     /*
@@ -123,15 +164,17 @@ public class LineSeries extends Series implements ILineSeries {
      * @see ILineSeries#setLineStyle(LineStyle)
      */
     public void setLineStyle(LineStyle style) {
-        if (style == null) {
-            this.lineStyle = DEFAULT_LINE_STYLE;
-            return;
-        }
+        invalidateAppearance();
+        LineStyle newStyle = style == null ? DEFAULT_LINE_STYLE : style;
+
+        boolean wasLineVisible = lineStyle != LineStyle.NONE;
+        this.lineStyle = newStyle;
 
-        this.lineStyle = style;
-        if (compressor instanceof CompressScatterSeries) {
-            ((CompressScatterSeries) compressor)
-                    .setLineVisible(style != LineStyle.NONE);
+        // the compressor depends on line visibility if not monotone
+        if (!isXMonotoneIncreasing
+                && wasLineVisible != (newStyle != LineStyle.NONE)) {
+            resetCompressor();
+            ((SeriesSet) chart.getSeriesSet()).compressAllSeries();
         }
     }
 
@@ -149,6 +192,7 @@ public class LineSeries extends Series implements ILineSeries {
      * @see ILineSeries#setLineColor(Color)
      */
     public void setLineColor(Color color) {
+        invalidateAppearance();
         if (color != null && color.isDisposed()) {
             SWT.error(SWT.ERROR_INVALID_ARGUMENT);
         }
@@ -171,6 +215,7 @@ public class LineSeries extends Series implements ILineSeries {
      * @see ILineSeries#setLineWidth(int)
      */
     public void setLineWidth(int width) {
+        invalidateAppearance();
         if (width <= 0) {
             this.lineWidth = DEFAULT_LINE_WIDTH;
         } else {
@@ -189,6 +234,7 @@ public class LineSeries extends Series implements ILineSeries {
      * @see ILineSeries#setSymbolType(PlotSymbolType)
      */
     public void setSymbolType(PlotSymbolType type) {
+        invalidateAppearance();
         if (type == null) {
             this.symbolType = DEFAULT_SYMBOL_TYPE;
         } else {
@@ -207,6 +253,7 @@ public class LineSeries extends Series implements ILineSeries {
      * @see ILineSeries#setSymbolSize(int)
      */
     public void setSymbolSize(int size) {
+        invalidateAppearance();
         if (size <= 0) {
             this.symbolSize = DEFAULT_SIZE;
         } else {
@@ -225,6 +272,7 @@ public class LineSeries extends Series implements ILineSeries {
      * @see ILineSeries#setSymbolColor(Color)
      */
     public void setSymbolColor(Color color) {
+        invalidateAppearance();
         if (color != null && color.isDisposed()) {
             SWT.error(SWT.ERROR_INVALID_ARGUMENT);
         }
@@ -251,6 +299,7 @@ public class LineSeries extends Series implements ILineSeries {
      * @see ILineSeries#setSymbolColors(Color [])
      */
     public void setSymbolColors(Color[] colors) {
+        invalidateAppearance();
         if (colors == null) {
             symbolColors = new Color[0];
             return;
@@ -267,23 +316,18 @@ public class LineSeries extends Series implements ILineSeries {
     }
 
     /*
-     * @see Series#setCompressor()
+     * @see Series#getDefaultCompressionStrategy()
      */
     @Override
-    protected void setCompressor() {
-        if (isXMonotoneIncreasing) {
-            compressor = new CompressLineSeries();
-        } else {
-            compressor = new CompressScatterSeries();
-            ((CompressScatterSeries) compressor)
-                    .setLineVisible(getLineStyle() != LineStyle.NONE);
-        }
+    protected ICompressionStrategy getDefaultCompressionStrategy() {
+        return CompressionStrategies.get(compressionType.strategyName);
     }
 
     /*
      * @see ILineSeries#enableArea(boolean)
      */
     public void enableArea(boolean enabled) {
+        invalidateAppearance();
         areaEnabled = enabled;
     }
 
@@ -298,7 +342,17 @@ public class LineSeries extends Series implements ILineSeries {
      * @see ILineSeries#enableStep(boolean)
      */
     public void enableStep(boolean enabled) {
+        if (stepEnabled == enabled) {
+            return;
+        }
         stepEnabled = enabled;
+        invalidateAppearance();
+
+        // the compressor depends on step if monotone
+        if (isXMonotoneIncreasing) {
+            resetCompressor();
+            ((SeriesSet) chart.getSeriesSet()).compressAllSeries();
+        }
     }
 
     /*
@@ -339,6 +393,7 @@ public class LineSeries extends Series implements ILineSeries {
      * @see ILineSeries#setAntialias(int)
      */
     public void setAntialias(int antialias) {
+        invalidateAppearance();
         if (antialias != SWT.DEFAULT && antialias != SWT.ON
                 && antialias != SWT.OFF) {
             SWT.error(SWT.ERROR_INVALID_ARGUMENT);
@@ -346,63 +401,78 @@ public class LineSeries extends Series implements ILineSeries {
         this.antialias = antialias;
     }
 
-    /**
-     * Gets the line points to draw line and area.
-     *
-     * @param series
-     *            the horizontal series
-     * @param indexes
-     *            the series indexes
-     * @param index
-     *            the index of series
-     * @param xAxis
-     *            the X axis
-     * @param yAxis
-     *            the Y axis
-     * @return the line points
-     */
-    private int[] getLinePoints(ArrayList<XYdata> series,
-            ArrayList<Integer> indexes, int index, Axis xAxis, Axis yAxis) {
-
-    	XYdata p  = series.get(index);
-    	XYdata p1 = series.get(index + 1);
-    	int idx   = indexes.get(index);
-    	int idx1  = indexes.get(index + 1);
-    	
-        int x1 = xAxis.getPixelCoordinate(p.x);
-        int x2 = xAxis.getPixelCoordinate(p1.x);
-        int x3 = x2;
-        int x4 = x1;
-        int y1 = yAxis.getPixelCoordinate(p.y);
-        int y2 = yAxis.getPixelCoordinate(p1.y);
-        int y3, y4;
-
-        double baseYCoordinate = yAxis.getRange().lower > 0 ? yAxis.getRange().lower
-                : 0;
-
-        if (yAxis.isLogScaleEnabled()) {
-            y3 = yAxis.getPixelCoordinate(yAxis.getRange().lower);
-            y4 = y3;
-        } else if (isValidStackSeries()) {
-            y1 = yAxis.getPixelCoordinate(stackSeries[idx]);
-            y2 = yAxis.getPixelCoordinate(stackSeries[idx1]);
-            y3 = yAxis.getPixelCoordinate(stackSeries[idx1])
-                    + Math.abs(yAxis.getPixelCoordinate(p1.y)
-                            - yAxis.getPixelCoordinate(0))
-                    * (xAxis.isHorizontalAxis() ? 1 : -1);
-            y4 = yAxis.getPixelCoordinate(stackSeries[idx])
-                    + Math.abs(yAxis.getPixelCoordinate(p.y)
-                            - yAxis.getPixelCoordinate(0))
-                    * (xAxis.isHorizontalAxis() ? 1 : -1);
+    /*
+     * @see ILineSeries#enableDensity(boolean)
+     */
+    public void enableDensity(boolean enabled) {
+        invalidateAppearance();
+        densityEnabled = enabled;
+        if (!enabled && densityGrid != null) {
+            densityGrid.disposeImage();
+            densityGrid = null;
+            densityGridKey = null;
+        }
+    }
+
+    /*
+     * @see ILineSeries#isDensityEnabled()
+     */
+    public boolean isDensityEnabled() {
+        return densityEnabled;
+    }
+
+    /*
+     * @see ILineSeries#getDensityColorMap()
+     */
+    public RGB[] getDensityColorMap() {
+        RGB[] colors = new RGB[densityColorMap.length];
+        System.arraycopy(densityColorMap, 0, colors, 0, colors.length);
+        return colors;
+    }
+
+    /*
+     * @see ILineSeries#setDensityColorMap(RGB[])
+     */
+    public void setDensityColorMap(RGB[] colors) {
+        invalidateAppearance();
+        if (colors == null) {
+            densityColorMap = DensityGrid.DEFAULT_COLOR_MAP;
         } else {
-            y3 = yAxis.getPixelCoordinate(baseYCoordinate);
-            y4 = y3;
+            if (colors.length == 0) {
+                SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+            }
+            for (RGB color : colors) {
+                if (color == null) {
+                    SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+                }
+            }
+            densityColorMap = new RGB[colors.length];
+            System.arraycopy(colors, 0, densityColorMap, 0, colors.length);
         }
+        if (densityGrid != null) {
+            densityGrid.disposeImage();
+        }
+    }
 
-        if (xAxis.isHorizontalAxis()) {
-            return new int[] { x1, y1, x2, y2, x3, y3, x4, y4 };
+    /*
+     * @see ILineSeries#getDensity(int, int)
+     */
+    public int getDensity(int x, int y) {
+        if (!densityEnabled || densityGrid == null) {
+            return 0;
+        }
+        return densityGrid.get(x, y);
+    }
+
+    /*
+     * @see Series#dispose()
+     */
+    @Override
+    protected void dispose() {
+        super.dispose();
+        if (densityGrid != null) {
+            densityGrid.disposeImage();
         }
-        return new int[] { y1, x1, y2, x2, y3, x3, y4, x4 };
     }
 
     /*
@@ -419,7 +489,9 @@ public class LineSeries extends Series implements ILineSeries {
             drawLineAndArea(gc, width, height, xAxis, yAxis);
         }
 
-        if (symbolType != PlotSymbolType.NONE || getLabel().isVisible()
+        if (densityEnabled) {
+            drawDensity(gc, width, height, xAxis, yAxis);
+        } else if (symbolType != PlotSymbolType.NONE || getLabel().isVisible()
                 || getXErrorBar().isVisible() || getYErrorBar().isVisible()) {
             drawSymbolAndLabel(gc, width, height, xAxis, yAxis);
         }
@@ -428,6 +500,180 @@ public class LineSeries extends Series implements ILineSeries {
         gc.setLineWidth(oldLineWidth);
     }
 
+    /*
+     * @see Series#createRasterCommand(int, int, Axis, Axis)
+     */
+    @Override
+    protected IRasterCommand createRasterCommand(int width, int height,
+            Axis xAxis, Axis yAxis) {
+
+        // the density, area, stack, labels, error bars and line styles other
+        // than solid are drawn only with graphics context
+        if (densityEnabled || areaEnabled || stackEnabled
+                || getLabel().isVisible() || getXErrorBar().isVisible()
+                || getYErrorBar().isVisible()
+                || (lineStyle != LineStyle.SOLID && lineStyle != LineStyle.NONE)) {
+            return null;
+        }
+
+        // copy the polyline, which is reused by compressor
+        final int[] polyline;
+        if (lineStyle == LineStyle.SOLID) {
+            int[] compressedPolyline = null;
+            if (!stepEnabled || compressor instanceof CompressStepSeries) {
+                compressedPolyline = getCompressedPolyline(xAxis, yAxis);
+            }
+            if (compressedPolyline == null) {
+                return null;
+            }
+            polyline = compressedPolyline.clone();
+        } else {
+            polyline = null;
+        }
+
+        // get the pixel coordinates and colors of symbols
+        final int[] symbolPoints;
+        final RGB[] symbolRGBs;
+        if (symbolType != PlotSymbolType.NONE) {
+            ArraySeriesData series = getCompressedSeries(xAxis);
+            double[] xseries = series.getXSeries();
+            double[] yseries = series.getYSeries();
+            int[] indexes = compressor.getCompressedIndexes();
+            int size = series.size();
+            symbolPoints = new int[size * 2];
+            symbolRGBs = new RGB[size];
+            Color previousColor = null;
+            for (int i = 0; i < size; i++) {
+                int idx = indexes[i];
+                Color color;
+                if (symbolColors.length > idx) {
+                    color = symbolColors[idx];
+                } else {
+                    color = getSymbolColor();
+                }
+                if (color != previousColor) {
+                    symbolRGBs[i] = color.getRGB();
+                    previousColor = color;
+                } else {
+                    symbolRGBs[i] = symbolRGBs[i - 1];
+                }
+                int x = xAxis.getPixelCoordinate(xseries[i]);
+                int y = yAxis.getPixelCoordinate(yseries[i]);
+                symbolPoints[i * 2] = xAxis.isHorizontalAxis() ? x : y;
+                symbolPoints[i * 2 + 1] = xAxis.isHorizontalAxis() ? y : x;
+            }
+        } else {
+            symbolPoints = null;
+            symbolRGBs = null;
+        }
+
+        final RGB lineRGB = getLineColor().getRGB();
+        final int lineWidthToDraw = lineWidth;
+        final PlotSymbolType symbolTypeToDraw = symbolType;
+        final int symbolSizeToDraw = symbolSize;
+        return new IRasterCommand() {
+            public void rasterize(Rasterizer rasterizer) {
+                rasterizer.setLineWidth(lineWidthToDraw);
+                if (polyline != null) {
+                    rasterizer.setColor(lineRGB);
+                    rasterizer.drawPolyline(polyline);
+                }
+                if (symbolPoints != null) {
+                    for (int i = 0; i < symbolRGBs.length; i++) {
+                        rasterizer.setColor(symbolRGBs[i]);
+                        rasterizeSymbol(rasterizer, symbolTypeToDraw,
+                                symbolSizeToDraw, symbolPoints[i * 2],
+                                symbolPoints[i * 2 + 1]);
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Rasterizes the symbol in the same shape as
+     * <tt>drawSeriesSymbol(GC, int, int, Color)</tt>.
+     *
+     * @param rasterizer
+     *            the rasterizer
+     * @param type
+     *            the symbol type
+     * @param size
+     *            the symbol size
+     * @param h
+     *            the horizontal coordinate to draw symbol
+     * @param v
+     *            the vertical coordinate to draw symbol
+     */
+    static void rasterizeSymbol(Rasterizer rasterizer, PlotSymbolType type,
+            int size, int h, int v) {
+        switch (type) {
+        case CIRCLE:
+            rasterizer.fillOval(h - size, v - size, size * 2, size * 2);
+            break;
+        case SQUARE:
+            rasterizer.fillRectangle(h - size, v - size, size * 2, size * 2);
+            break;
+        case DIAMOND:
+            rasterizer.fillPolygon(new int[] { h, v - size, h + size, v, h,
+                    v + size, h - size, v });
+            break;
+        case TRIANGLE:
+            rasterizer.fillPolygon(new int[] { h, v - size, h + size,
+                    v + size, h - size, v + size });
+            break;
+        case INVERTED_TRIANGLE:
+            rasterizer.fillPolygon(new int[] { h, v + size, h + size,
+                    v - size, h - size, v - size });
+            break;
+        case CROSS:
+            rasterizer.drawLine(h - size, v - size, h + size, v + size);
+            rasterizer.drawLine(h - size, v + size, h + size, v - size);
+            break;
+        case PLUS:
+            rasterizer.drawLine(h, v - size, h, v + size);
+            rasterizer.drawLine(h - size, v, h + size, v);
+            break;
+        case NONE:
+        default:
+            break;
+        }
+    }
+
+    /**
+     * Draws the number of data points per pixel as a single image. The data
+     * points are counted again only if series data, axis ranges or plot area
+     * size has been changed.
+     *
+     * @param gc
+     *            the graphics context
+     * @param width
+     *            the width to draw series
+     * @param height
+     *            the height to draw series
+     * @param xAxis
+     *            the x axis
+     * @param yAxis
+     *            the y axis
+     */
+    private void drawDensity(GC gc, int width, int height, Axis xAxis,
+            Axis yAxis) {
+        double[] key = DensityGrid.createKey(dataRevision, width, height,
+                xAxis, yAxis);
+        if (densityGrid == null) {
+            densityGrid = new DensityGrid();
+        }
+        if (!Arrays.equals(key, densityGridKey)) {
+            densityGrid.count(series, xAxis, yAxis, width, height);
+            densityGridKey = key;
+        }
+
+        Image image = densityGrid.getImage(gc.getDevice(), densityColorMap);
+        if (image != null) {
+            gc.drawImage(image, 0, 0);
+        }
+    }
+
     /**
      * Draws the line and area.
      *
@@ -446,59 +692,88 @@ public class LineSeries extends Series implements ILineSeries {
             Axis yAxis) {
 
         // get x and y series
-        ArrayList<XYdata> series = compressor.getCompressedSeries();
-        if (series.size() == 0 ) {
+        ArraySeriesData series = getCompressedSeries(xAxis);
+        if (series.size() == 0) {
             return;
         }
-        ArrayList<Integer> indexes = compressor.getCompressedIndexes();
-        if (xAxis.isValidCategoryAxis()) {
-            for (int i = 0; i < series.size(); i++) { // TODO optimize
-                series.set(i, new XYdata(indexes.get(i), series.get(i).y));
-            }
-        }
+        int[] indexes = compressor.getCompressedIndexes();
 
         gc.setLineStyle(Util.getIndexDefinedInSWT(lineStyle));
         Color oldForeground = gc.getForeground();
         gc.setForeground(getLineColor());
 
         boolean isHorizontal = xAxis.isHorizontalAxis();
-        if (stepEnabled || areaEnabled || stackEnabled) {
-            for (int i = 0; i < series.size() - 1; i++) {
-                int[] p = getLinePoints(series, indexes, i, xAxis,
-                        yAxis);
-
-                // draw line
-                if (lineStyle != LineStyle.NONE) {
-                    if (stepEnabled) {
-                        if (isHorizontal) {
-                            gc.drawLine(p[0], p[1], p[2], p[1]);
-                            gc.drawLine(p[2], p[1], p[2], p[3]);
-                        } else {
-                            gc.drawLine(p[0], p[1], p[0], p[3]);
-                            gc.drawLine(p[0], p[3], p[2], p[3]);
-                        }
-                    } else {
-                        gc.drawLine(p[0], p[1], p[2], p[3]);
-                    }
-                }
 
-                // draw area
-                if (areaEnabled) {
-                    drawArea(gc, p, isHorizontal);
-                }
-            }
-        } else {
-            if (lineStyle == LineStyle.SOLID) {
-                drawLine(gc, xAxis, yAxis, series, isHorizontal);
-            } else if (lineStyle != LineStyle.NONE) {
-                drawLineWithStyle(gc, xAxis, yAxis, series,
-                        isHorizontal);
-            }
+        // the step compressor projects the series into a polyline of steps
+        int[] polyline = null;
+        if (!areaEnabled && !stackEnabled
+                && (!stepEnabled || compressor instanceof CompressStepSeries)) {
+            polyline = getCompressedPolyline(xAxis, yAxis);
+        }
+
+        if (polyline != null) {
+            drawPolyline(gc, polyline);
+        } else if (stepEnabled || areaEnabled || stackEnabled) {
+            drawAreaAndLine(gc, series, indexes, xAxis, yAxis, isHorizontal);
+        } else if (lineStyle == LineStyle.SOLID) {
+            drawLine(gc, xAxis, yAxis, series, isHorizontal);
+        } else if (lineStyle != LineStyle.NONE) {
+            drawLineWithStyle(gc, xAxis, yAxis, series, isHorizontal);
         }
 
         gc.setForeground(oldForeground);
     }
 
+    /**
+     * Gets the compressed series projected into a polyline in pixel
+     * coordinates on the given axes. The polyline is usually projected
+     * already when compressing, so that no data point is transformed here.
+     * 
+     * @param xAxis
+     *            the x axis
+     * @param yAxis
+     *            the y axis
+     * @return the polyline, or null if the compressor cannot project the
+     *         compressed series on the given axes
+     */
+    private int[] getCompressedPolyline(Axis xAxis, Axis yAxis) {
+
+        // the x values are replaced with the series indexes on category axis
+        if (xAxis.isValidCategoryAxis() || yAxis.isCategoryEnabled()) {
+            return null;
+        }
+
+        Range xRange = xAxis.getRange();
+        Range yRange = yAxis.getRange();
+        CompressConfig config = new CompressConfig();
+        config.setXLogScale(xAxis.isLogScaleEnabled());
+        config.setYLogScale(yAxis.isLogScaleEnabled());
+        config.setXAxis(xRange.lower, xRange.upper, xAxis.getPixelLength(),
+                xAxis.isHorizontalAxis(), xAxis.isCategoryEnabled());
+        config.setYAxis(yRange.lower, yRange.upper, yAxis.getPixelLength());
+        return compressor.getCompressedPolyline(config);
+    }
+
+    /**
+     * Draws the polyline with a single call.
+     * 
+     * @param gc
+     *            the graphic context
+     * @param polyline
+     *            the polyline in pixel coordinates
+     */
+    private void drawPolyline(GC gc, int[] polyline) {
+        if (lineStyle == LineStyle.SOLID) {
+            gc.drawPolyline(polyline);
+            return;
+        }
+
+        boolean advanced = gc.getAdvanced();
+        gc.setAdvanced(true); // workaround for eclipse bug #243588
+        gc.drawPolyline(polyline);
+        gc.setAdvanced(advanced);
+    }
+
     /*
      * This method basically does the same things as drawLineWithStyle(), but is
      * kept being used. The reason is that, drawLineWithStyle() has a workaround
@@ -508,28 +783,27 @@ public class LineSeries extends Series implements ILineSeries {
      * removed.
      */
     private static void drawLine(GC gc, Axis xAxis, Axis yAxis,
-            ArrayList<XYdata> series, boolean isHorizontal) {
+            ArraySeriesData series, boolean isHorizontal) {
         double xLower = xAxis.getRange().lower;
         double xUpper = xAxis.getRange().upper;
         double yLower = yAxis.getRange().lower;
         double yUpper = yAxis.getRange().upper;
+        double[] xseries = series.getXSeries();
+        double[] yseries = series.getYSeries();
 
-        
-        XYdata p = series.get(0);
-        int prevX = xAxis.getPixelCoordinate(p.x, xLower, xUpper);
-        int prevY = yAxis.getPixelCoordinate(p.y, yLower, yUpper);
+        int prevX = xAxis.getPixelCoordinate(xseries[0], xLower, xUpper);
+        int prevY = yAxis.getPixelCoordinate(yseries[0], yLower, yUpper);
 
         boolean drawVerticalLine = false;
         int verticalLineYLower = 0;
         int verticalLineYUpper = 0;
 
-        for (int i = 0; i < series.size() - 1; i++) { // TODO optimize
-        	p = series.get(i + 1);
-        	
-            int x = xAxis.getPixelCoordinate(p.x, xLower, xUpper);
-            int y = yAxis.getPixelCoordinate(p.y, yLower, yUpper);
+        int size = series.size();
+        for (int i = 0; i < size - 1; i++) {
+            int x = xAxis.getPixelCoordinate(xseries[i + 1], xLower, xUpper);
+            int y = yAxis.getPixelCoordinate(yseries[i + 1], yLower, yUpper);
 
-            if (x == prevX && i < series.size() - 2) {
+            if (x == prevX && i < size - 2) {
                 if (drawVerticalLine) {
                     // extend vertical line
                     verticalLineYLower = Math.min(verticalLineYLower, y);
@@ -584,38 +858,37 @@ public class LineSeries extends Series implements ILineSeries {
      *            the x axis
      * @param yAxis
      *            the y axis
-     * @param xseries
-     *            the x series
-     * @param yseries
-     *            the y series
+     * @param series
+     *            the series
      * @param isHorizontal
      *            true if orientation is horizontal
      */
-    private static void drawLineWithStyle(GC gc, Axis xAxis, Axis yAxis,
-    		ArrayList<XYdata> series, boolean isHorizontal) {
+    private void drawLineWithStyle(GC gc, Axis xAxis, Axis yAxis,
+            ArraySeriesData series, boolean isHorizontal) {
         double xLower = xAxis.getRange().lower;
         double xUpper = xAxis.getRange().upper;
         double yLower = yAxis.getRange().lower;
         double yUpper = yAxis.getRange().upper;
+        double[] xseries = series.getXSeries();
+        double[] yseries = series.getYSeries();
 
-        List<Integer> pointList = new ArrayList<>();
-        XYdata p = series.get(0);
-        int prevX = xAxis.getPixelCoordinate(p.x, xLower, xUpper);
-        int prevY = yAxis.getPixelCoordinate(p.y, yLower, yUpper);
+        polylineSize = 0;
+        int prevX = xAxis.getPixelCoordinate(xseries[0], xLower, xUpper);
+        int prevY = yAxis.getPixelCoordinate(yseries[0], yLower, yUpper);
 
         // add initial point
-        addPoint(pointList, prevX, prevY, isHorizontal);
+        addPoint(prevX, prevY, isHorizontal);
 
         boolean drawVerticalLine = false;
         int verticalLineYLower = 0;
         int verticalLineYUpper = 0;
 
-        for (int i = 0; i < series.size() - 1; i++) { // TODO optimize
-            p = series.get(i + 1);
-            int x = xAxis.getPixelCoordinate(p.x, xLower, xUpper);
-            int y = yAxis.getPixelCoordinate(p.y, yLower, yUpper);
+        int size = series.size();
+        for (int i = 0; i < size - 1; i++) {
+            int x = xAxis.getPixelCoordinate(xseries[i + 1], xLower, xUpper);
+            int y = yAxis.getPixelCoordinate(yseries[i + 1], yLower, yUpper);
 
-            if (x == prevX && i < series.size() - 2) {
+            if (x == prevX && i < size - 2) {
                 if (drawVerticalLine) {
                     // extend vertical line
                     verticalLineYLower = Math.min(verticalLineYLower, y);
@@ -630,13 +903,13 @@ public class LineSeries extends Series implements ILineSeries {
 
                 // add vertical line
                 if (drawVerticalLine) {
-                    addPoint(pointList, prevX, verticalLineYLower, isHorizontal);
-                    addPoint(pointList, prevX, verticalLineYUpper, isHorizontal);
-                    addPoint(pointList, prevX, prevY, isHorizontal);
+                    addPoint(prevX, verticalLineYLower, isHorizontal);
+                    addPoint(prevX, verticalLineYUpper, isHorizontal);
+                    addPoint(prevX, prevY, isHorizontal);
                 }
 
                 // add non-vertical line
-                addPoint(pointList, x, y, isHorizontal);
+                addPoint(x, y, isHorizontal);
 
                 drawVerticalLine = false;
             }
@@ -645,62 +918,197 @@ public class LineSeries extends Series implements ILineSeries {
             prevY = y;
         }
 
-        int[] polyline = new int[pointList.size()];
-        for (int i = 0; i < polyline.length; i++) {
-            polyline[i] = pointList.get(i);
-        }
+        lineCoordinates = copyPolylineBuffer(lineCoordinates);
 
         boolean advanced = gc.getAdvanced();
         gc.setAdvanced(true); // workaround
-        gc.drawPolyline(polyline);
+        gc.drawPolyline(lineCoordinates);
         gc.setAdvanced(advanced);
     }
 
-    private static void addPoint(List<Integer> pointList, int x, int y,
-            boolean isHorizontal) {
+    /**
+     * Adds the point to the polyline buffer.
+     * 
+     * @param x
+     *            the x pixel coordinate
+     * @param y
+     *            the y pixel coordinate
+     * @param isHorizontal
+     *            true if orientation is horizontal
+     */
+    private void addPoint(int x, int y, boolean isHorizontal) {
+        if (polylineSize + 2 > polylineBuffer.length) {
+            polylineBuffer = Arrays.copyOf(polylineBuffer,
+                    Math.max(polylineSize + 2, polylineBuffer.length * 2));
+        }
         if (isHorizontal) {
-            pointList.add(Integer.valueOf(x));
-            pointList.add(Integer.valueOf(y));
+            polylineBuffer[polylineSize++] = x;
+            polylineBuffer[polylineSize++] = y;
         } else {
-            pointList.add(Integer.valueOf(y));
-            pointList.add(Integer.valueOf(x));
+            polylineBuffer[polylineSize++] = y;
+            polylineBuffer[polylineSize++] = x;
         }
     }
 
     /**
-     * Draws the area.
-     *
+     * Copies the valid coordinates in polyline buffer into the given array,
+     * since GC takes the whole array. The array is reallocated only if the
+     * number of coordinates has been changed.
+     * 
+     * @param array
+     *            the array to copy into
+     * @return the array holding exactly the valid coordinates
+     */
+    private int[] copyPolylineBuffer(int[] array) {
+        if (array.length != polylineSize) {
+            array = new int[polylineSize];
+        }
+        System.arraycopy(polylineBuffer, 0, array, 0, polylineSize);
+        return array;
+    }
+
+    /**
+     * Draws the area and line of step, area or stacked series. The area is
+     * filled as a single polygon bounded by the line and the baseline, and
+     * the line is drawn as a single polyline.
+     * 
      * @param gc
      *            the graphic context
-     * @param p
-     *            the line points
+     * @param series
+     *            the compressed series
+     * @param indexes
+     *            the series indexes of compressed series
+     * @param xAxis
+     *            the x axis
+     * @param yAxis
+     *            the y axis
      * @param isHorizontal
      *            true if orientation is horizontal
      */
-    private void drawArea(GC gc, int[] p, boolean isHorizontal) {
-        int alpha = gc.getAlpha();
-        gc.setAlpha(ALPHA);
-        Color oldBackground = gc.getBackground();
-        gc.setBackground(getLineColor());
+    private void drawAreaAndLine(GC gc, ISeriesData series, int[] indexes,
+            Axis xAxis, Axis yAxis, boolean isHorizontal) {
+        int size = series.size();
+        if (size < 2) {
+            return;
+        }
+        computePixels(series, indexes, xAxis, yAxis, isHorizontal);
+
+        // draw area
+        if (areaEnabled) {
+            polylineSize = 0;
+            addLinePoints(size, isHorizontal);
+            addBaselinePoints(size, isHorizontal);
+
+            int alpha = gc.getAlpha();
+            gc.setAlpha(ALPHA);
+            Color oldBackground = gc.getBackground();
+            gc.setBackground(getLineColor());
+            areaCoordinates = copyPolylineBuffer(areaCoordinates);
+            gc.fillPolygon(areaCoordinates);
+            gc.setAlpha(alpha);
+            gc.setBackground(oldBackground);
+        }
+
+        // draw line
+        if (lineStyle != LineStyle.NONE) {
+            polylineSize = 0;
+            addLinePoints(size, isHorizontal);
+            lineCoordinates = copyPolylineBuffer(lineCoordinates);
+            drawPolyline(gc, lineCoordinates);
+        }
+    }
 
-        int[] pointArray;
-        if (stepEnabled) {
-            if (isHorizontal) {
-                pointArray = new int[] { p[0], p[1], p[2], p[1], p[4], p[7],
-                        p[6], p[7], p[0], p[1] };
+    /**
+     * Computes the pixel coordinates of line and area baseline for each data
+     * point of compressed series. The line of stacked series is at the top of
+     * stack, and its baseline is at the top of the series stacked below.
+     * 
+     * @param series
+     *            the compressed series
+     * @param indexes
+     *            the series indexes of compressed series
+     * @param xAxis
+     *            the x axis
+     * @param yAxis
+     *            the y axis
+     * @param isHorizontal
+     *            true if orientation is horizontal
+     */
+    private void computePixels(ISeriesData series, int[] indexes, Axis xAxis,
+            Axis yAxis, boolean isHorizontal) {
+        int size = series.size();
+        if (xPixels.length < size) {
+            xPixels = new int[size];
+            linePixels = new int[size];
+            basePixels = new int[size];
+        }
+
+        double xLower = xAxis.getRange().lower;
+        double xUpper = xAxis.getRange().upper;
+        double yLower = yAxis.getRange().lower;
+        double yUpper = yAxis.getRange().upper;
+        boolean isLogScale = yAxis.isLogScaleEnabled();
+        boolean isStacked = !isLogScale && isValidStackSeries();
+        int base = yAxis.getPixelCoordinate(isLogScale ? yLower : Math.max(
+                yLower, 0), yLower, yUpper);
+        int zero = yAxis.getPixelCoordinate(0, yLower, yUpper);
+        int sign = isHorizontal ? 1 : -1;
+
+        for (int i = 0; i < size; i++) {
+            xPixels[i] = xAxis.getPixelCoordinate(series.getX(i), xLower,
+                    xUpper);
+            int y = yAxis.getPixelCoordinate(series.getY(i), yLower, yUpper);
+            if (isStacked) {
+                linePixels[i] = yAxis.getPixelCoordinate(
+                        stackSeries[indexes[i]], yLower, yUpper);
+                basePixels[i] = linePixels[i] + Math.abs(y - zero) * sign;
             } else {
-                pointArray = new int[] { p[0], p[1], p[0], p[3], p[6], p[5],
-                        p[6], p[7], p[0], p[1] };
+                linePixels[i] = y;
+                basePixels[i] = base;
             }
-        } else {
-            pointArray = new int[] { p[0], p[1], p[2], p[3], p[4], p[5], p[6],
-                    p[7], p[0], p[1] };
         }
+    }
 
-        gc.fillPolygon(pointArray);
+    /**
+     * Adds the points of area baseline to the polyline buffer in reverse
+     * order, so that the area is closed back to the first data point.
+     * 
+     * @param size
+     *            the number of data points
+     * @param isHorizontal
+     *            true if orientation is horizontal
+     */
+    private void addBaselinePoints(int size, boolean isHorizontal) {
+        for (int i = size - 1; i > 0; i--) {
+            if (stepEnabled) {
+                addPoint(xPixels[i], basePixels[i - 1], isHorizontal);
+                addPoint(xPixels[i - 1], basePixels[i - 1], isHorizontal);
+            } else {
+                addPoint(xPixels[i], basePixels[i], isHorizontal);
+            }
+        }
+        if (!stepEnabled) {
+            addPoint(xPixels[0], basePixels[0], isHorizontal);
+        }
+    }
 
-        gc.setAlpha(alpha);
-        gc.setBackground(oldBackground);
+    /**
+     * Adds the points of line to the polyline buffer, stepping horizontally
+     * first if step is enabled.
+     * 
+     * @param size
+     *            the number of data points
+     * @param isHorizontal
+     *            true if orientation is horizontal
+     */
+    private void addLinePoints(int size, boolean isHorizontal) {
+        addPoint(xPixels[0], linePixels[0], isHorizontal);
+        for (int i = 1; i < size; i++) {
+            if (stepEnabled) {
+                addPoint(xPixels[i], linePixels[i - 1], isHorizontal);
+            }
+            addPoint(xPixels[i], linePixels[i], isHorizontal);
+        }
     }
 
     /**
@@ -721,52 +1129,38 @@ public class LineSeries extends Series implements ILineSeries {
             Axis yAxis) {
 
         // get x and y series
-    	ArrayList<XYdata>  series  = compressor.getCompressedSeries();
-        ArrayList<Integer> indexes = compressor.getCompressedIndexes();
-        if (xAxis.isValidCategoryAxis()) {
-            boolean isValidStackSeries = isValidStackSeries();
-            int i = 0;
-            for (Integer idx : indexes) {
-            	if (i >= series.size()) break; // TODO needed?
-            	double x,y;
-                x = idx;
-                if (isValidStackSeries) {
-                    y = stackSeries[idx];
-                } else {
-                	y = series.get(i).y;
-                }
-                series.set(i, new XYdata(x, y));
-                i++;
-            }
-        }
+        ArraySeriesData series = getCompressedSeries(xAxis);
+        double[] xseries = series.getXSeries();
+        double[] yseries = series.getYSeries();
+        int[] indexes = compressor.getCompressedIndexes();
+        boolean isStacked = xAxis.isValidCategoryAxis() && isValidStackSeries();
 
         // draw symbol and label
-        int i = 0;
-        for (Integer idx : indexes) {
-            if (i >= series.size()) break; // TODO needed?
-//        for (int i = 0; i < series.size(); i++) {
+        int size = series.size();
+        for (int i = 0; i < size; i++) {
+            int idx = indexes[i];
             Color color;
             if (symbolColors.length > idx) {
                 color = symbolColors[idx];
             } else {
                 color = getSymbolColor();
             }
-            XYdata p = series.get(i);
+            double x = xseries[i];
+            double y = isStacked ? stackSeries[idx] : yseries[i];
             int h, v;
             if (xAxis.isHorizontalAxis()) {
-                h = xAxis.getPixelCoordinate(p.x);
-                v = yAxis.getPixelCoordinate(p.y);
+                h = xAxis.getPixelCoordinate(x);
+                v = yAxis.getPixelCoordinate(y);
             } else {
-                v = xAxis.getPixelCoordinate(p.x);
-                h = yAxis.getPixelCoordinate(p.y);
+                v = xAxis.getPixelCoordinate(x);
+                h = yAxis.getPixelCoordinate(y);
             }
             if (getSymbolType() != PlotSymbolType.NONE) {
                 drawSeriesSymbol(gc, h, v, color);
             }
-            seriesLabel.draw(gc, h, v, p.y, idx, SWT.RIGHT, SWT.TOP);
+            seriesLabel.draw(gc, h, v, y, idx, SWT.RIGHT, SWT.TOP);
             xErrorBar.draw(gc, h, v, xAxis, idx);
             yErrorBar.draw(gc, h, v, yAxis, idx);
-            i++;
         }
     }
 
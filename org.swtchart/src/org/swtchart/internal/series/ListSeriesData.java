@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright (c) 2008-2016 SWTChart project. All rights reserved.
+ *
+ * This code is distributed under the terms of the Eclipse Public License v1.0
+ * which is available at http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.swtchart.internal.series;
+
+import java.util.ArrayList;
+
+/**
+ * Series data backed by a list of <tt>XYdata</tt>. This keeps the list based
+ * API working; changes made to the list are visible through this view.
+ */
+public class ListSeriesData implements IAppendableSeriesData {
+
+    /** the series */
+    private final ArrayList<XYdata> series;
+
+    /**
+     * Constructor.
+     *
+     * @param series
+     *            the series
+     */
+    public ListSeriesData(ArrayList<XYdata> series) {
+        this.series = series;
+    }
+
+    /*
+     * @see ISeriesData#size()
+     */
+    public int size() {
+        return series.size();
+    }
+
+    /*
+     * @see ISeriesData#getX(int)
+     */
+    public double getX(int index) {
+        return series.get(index).x;
+    }
+
+    /*
+     * @see ISeriesData#getY(int)
+     */
+    public double getY(int index) {
+        return series.get(index).y;
+    }
+
+    /*
+     * @see IAppendableSeriesData#append(double[], double[], int)
+     */
+    public void append(double[] xSeries, double[] ySeries, int count) {
+        series.ensureCapacity(series.size() + count);
+        for (int i = 0; i < count; i++) {
+            series.add(new XYdata(xSeries[i], ySeries[i]));
+        }
+    }
+
+    /**
+     * Gets the backing list.
+     *
+     * @return the series
+     */
+    public ArrayList<XYdata> getSeries() {
+        return series;
+    }
+}
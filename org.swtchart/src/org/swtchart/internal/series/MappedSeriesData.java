@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * Copyright (c) 2008-2016 SWTChart project. All rights reserved.
+ *
+ * This code is distributed under the terms of the Eclipse Public License v1.0
+ * which is available at http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.swtchart.internal.series;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+import org.swtchart.ISeriesData;
+
+/**
+ * Series data read from a memory-mapped file of raw little-endian
+ * <tt>double</tt> values.
+ * <p>
+ * The file is either a sequence of interleaved X and Y values, or a sequence
+ * of Y values sampled at a fixed X interval. The values are never copied to
+ * the heap, so that the heap footprint does not depend on the file size.
+ */
+public class MappedSeriesData implements ISeriesData {
+
+    /** the number of doubles mapped per chunk, which is 1 GB */
+    private static final int CHUNK_SHIFT = 27;
+
+    /** the mask to get the position in a chunk */
+    private static final long CHUNK_MASK = (1L << CHUNK_SHIFT) - 1;
+
+    /** the size of double in bytes */
+    private static final int DOUBLE_BYTES = 8;
+
+    /** the mapped chunks of the file */
+    private final DoubleBuffer[] chunks;
+
+    /** the number of data points */
+    private final int size;
+
+    /** the state indicating if the file contains interleaved X values */
+    private final boolean interleaved;
+
+    /** the X value of the first sample, used if X values are not stored */
+    private final double xStart;
+
+    /** the X interval between samples, used if X values are not stored */
+    private final double xInterval;
+
+    /**
+     * Constructor for a file of interleaved X and Y values.
+     *
+     * @param file
+     *            the file
+     * @throws IOException
+     *             if the file cannot be mapped
+     */
+    public MappedSeriesData(File file) throws IOException {
+        this(file, true, 0, 1);
+    }
+
+    /**
+     * Constructor for a file of Y values sampled at a fixed X interval.
+     *
+     * @param file
+     *            the file
+     * @param xStart
+     *            the X value of the first sample
+     * @param xInterval
+     *            the X interval between samples
+     * @throws IOException
+     *             if the file cannot be mapped
+     */
+    public MappedSeriesData(File file, double xStart, double xInterval)
+            throws IOException {
+        this(file, false, xStart, xInterval);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param file
+     *            the file
+     * @param interleaved
+     *            true if the file contains interleaved X and Y values
+     * @param xStart
+     *            the X value of the first sample
+     * @param xInterval
+     *            the X interval between samples
+     * @throws IOException
+     *             if the file cannot be mapped
+     */
+    private MappedSeriesData(File file, boolean interleaved, double xStart,
+            double xInterval) throws IOException {
+        this.interleaved = interleaved;
+        this.xStart = xStart;
+        this.xInterval = xInterval;
+
+        RandomAccessFile raf = new RandomAccessFile(file, "r"); //$NON-NLS-1$
+        try {
+            FileChannel channel = raf.getChannel();
+            long numDoubles = channel.size() / DOUBLE_BYTES;
+            long numPoints = interleaved ? numDoubles / 2 : numDoubles;
+            if (numPoints > Integer.MAX_VALUE) {
+                throw new IOException("Too many data points in file: " //$NON-NLS-1$
+                        + numPoints);
+            }
+            size = (int) numPoints;
+
+            // map the file in chunks, since a buffer is limited to 2 GB
+            long usedDoubles = interleaved ? numPoints * 2 : numPoints;
+            int numChunks = (int) ((usedDoubles + CHUNK_MASK) >> CHUNK_SHIFT);
+            chunks = new DoubleBuffer[numChunks];
+            for (int i = 0; i < numChunks; i++) {
+                long first = (long) i << CHUNK_SHIFT;
+                long length = Math.min(CHUNK_MASK + 1, usedDoubles - first);
+                chunks[i] = channel
+                        .map(MapMode.READ_ONLY, first * DOUBLE_BYTES,
+                                length * DOUBLE_BYTES)
+                        .order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+            }
+        } finally {
+            raf.close();
+        }
+    }
+
+    /*
+     * @see ISeriesData#size()
+     */
+    public int size() {
+        return size;
+    }
+
+    /*
+     * @see ISeriesData#getX(int)
+     */
+    public double getX(int index) {
+        if (!interleaved) {
+            return xStart + index * xInterval;
+        }
+        return get((long) index * 2);
+    }
+
+    /*
+     * @see ISeriesData#getY(int)
+     */
+    public double getY(int index) {
+        if (!interleaved) {
+            return get(index);
+        }
+        return get((long) index * 2 + 1);
+    }
+
+    /**
+     * Gets the double value at the given position in the file.
+     *
+     * @param position
+     *            the position counted in doubles
+     * @return the value
+     */
+    private double get(long position) {
+        return chunks[(int) (position >> CHUNK_SHIFT)]
+                .get((int) (position & CHUNK_MASK));
+    }
+}
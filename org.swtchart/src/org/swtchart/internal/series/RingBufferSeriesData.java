@@ -0,0 +1,300 @@
+/*******************************************************************************
+ * Copyright (c) 2008-2016 SWTChart project. All rights reserved.
+ *
+ * This code is distributed under the terms of the Eclipse Public License v1.0
+ * which is available at http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.swtchart.internal.series;
+
+/**
+ * Series data holding the latest data points up to a fixed capacity. When the
+ * capacity is reached, appending a data point overwrites the oldest one.
+ * <p>
+ * The minimum and maximum values in the window are kept with monotonic
+ * deques, so that they are available in constant time after each append.
+ */
+public class RingBufferSeriesData implements IAppendableSeriesData {
+
+    /** the x series */
+    private final double[] xSeries;
+
+    /** the y series */
+    private final double[] ySeries;
+
+    /** the position of the oldest data point in the arrays */
+    private int start;
+
+    /** the number of data points */
+    private int size;
+
+    /** the number of data points overwritten so far */
+    private long numDiscarded;
+
+    /** the number of adjacent pairs in the window where x decreases */
+    private int numDecreasingX;
+
+    /** the deque to get the minimum x value */
+    private final MonotonicDeque minXDeque;
+
+    /** the deque to get the maximum x value */
+    private final MonotonicDeque maxXDeque;
+
+    /** the deque to get the minimum y value */
+    private final MonotonicDeque minYDeque;
+
+    /** the deque to get the maximum y value */
+    private final MonotonicDeque maxYDeque;
+
+    /**
+     * Constructor.
+     *
+     * @param capacity
+     *            the maximum number of data points
+     */
+    public RingBufferSeriesData(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity); //$NON-NLS-1$
+        }
+        xSeries = new double[capacity];
+        ySeries = new double[capacity];
+        minXDeque = new MonotonicDeque(xSeries, false);
+        maxXDeque = new MonotonicDeque(xSeries, true);
+        minYDeque = new MonotonicDeque(ySeries, false);
+        maxYDeque = new MonotonicDeque(ySeries, true);
+    }
+
+    /*
+     * @see ISeriesData#size()
+     */
+    public int size() {
+        return size;
+    }
+
+    /*
+     * @see ISeriesData#getX(int)
+     */
+    public double getX(int index) {
+        return xSeries[getPosition(index)];
+    }
+
+    /*
+     * @see ISeriesData#getY(int)
+     */
+    public double getY(int index) {
+        return ySeries[getPosition(index)];
+    }
+
+    /*
+     * @see IAppendableSeriesData#append(double[], double[], int)
+     */
+    public void append(double[] xValues, double[] yValues, int count) {
+        int capacity = xSeries.length;
+
+        // only the latest points can remain in the buffer
+        int first = 0;
+        if (count > capacity) {
+            first = count - capacity;
+            numDiscarded += first;
+        }
+
+        for (int i = first; i < count; i++) {
+            if (size == capacity) {
+                discardOldest();
+            }
+
+            int position = getPosition(size);
+            if (size > 0 && xSeries[getPosition(size - 1)] > xValues[i]) {
+                numDecreasingX++;
+            }
+            xSeries[position] = xValues[i];
+            ySeries[position] = yValues[i];
+            size++;
+
+            minXDeque.add(position);
+            maxXDeque.add(position);
+            minYDeque.add(position);
+            maxYDeque.add(position);
+        }
+    }
+
+    /**
+     * Discards the oldest data point.
+     */
+    private void discardOldest() {
+        if (size > 1 && xSeries[start] > xSeries[getPosition(1)]) {
+            numDecreasingX--;
+        }
+
+        minXDeque.remove(start);
+        maxXDeque.remove(start);
+        minYDeque.remove(start);
+        maxYDeque.remove(start);
+
+        start = (start + 1) % xSeries.length;
+        size--;
+        numDiscarded++;
+    }
+
+    /**
+     * Gets the position in the arrays for the given index.
+     *
+     * @param index
+     *            the index counted from the oldest data point
+     * @return the position in the arrays
+     */
+    private int getPosition(int index) {
+        int position = start + index;
+        if (position >= xSeries.length) {
+            position -= xSeries.length;
+        }
+        return position;
+    }
+
+    /**
+     * Gets the capacity.
+     *
+     * @return the maximum number of data points
+     */
+    public int getCapacity() {
+        return xSeries.length;
+    }
+
+    /**
+     * Gets the number of data points overwritten since this object has been
+     * created. The index of a data point decreases by one each time the oldest
+     * data point is overwritten.
+     *
+     * @return the number of data points overwritten
+     */
+    public long getNumDiscarded() {
+        return numDiscarded;
+    }
+
+    /**
+     * Gets the minimum x value in the buffer.
+     *
+     * @return the minimum x value
+     */
+    public double getMinX() {
+        return minXDeque.get();
+    }
+
+    /**
+     * Gets the maximum x value in the buffer.
+     *
+     * @return the maximum x value
+     */
+    public double getMaxX() {
+        return maxXDeque.get();
+    }
+
+    /**
+     * Gets the minimum y value in the buffer.
+     *
+     * @return the minimum y value
+     */
+    public double getMinY() {
+        return minYDeque.get();
+    }
+
+    /**
+     * Gets the maximum y value in the buffer.
+     *
+     * @return the maximum y value
+     */
+    public double getMaxY() {
+        return maxYDeque.get();
+    }
+
+    /**
+     * Gets the state indicating whether x values in the buffer are monotone
+     * increasing.
+     *
+     * @return true if x values are monotone increasing
+     */
+    public boolean isXMonotoneIncreasing() {
+        return numDecreasingX == 0;
+    }
+
+    /**
+     * A deque of positions in the buffer whose values are monotone, so that
+     * the front is the minimum or maximum of the window.
+     */
+    private static class MonotonicDeque {
+
+        /** the values referred to by positions */
+        private final double[] values;
+
+        /** the state indicating if the front is the maximum */
+        private final boolean isMax;
+
+        /** the positions stored in a circular array */
+        private final int[] positions;
+
+        /** the index of front in the circular array */
+        private int head;
+
+        /** the number of positions */
+        private int count;
+
+        /**
+         * Constructor.
+         *
+         * @param values
+         *            the values referred to by positions
+         * @param isMax
+         *            true if the front is the maximum
+         */
+        MonotonicDeque(double[] values, boolean isMax) {
+            this.values = values;
+            this.isMax = isMax;
+            positions = new int[values.length];
+        }
+
+        /**
+         * Adds the position of a newly stored value to the back, removing the
+         * positions whose values can no longer be the minimum or maximum.
+         *
+         * @param position
+         *            the position
+         */
+        void add(int position) {
+            double value = values[position];
+            while (count > 0) {
+                double back = values[positions[(head + count - 1)
+                        % positions.length]];
+                if (isMax ? back > value : back < value) {
+                    break;
+                }
+                count--;
+            }
+            positions[(head + count) % positions.length] = position;
+            count++;
+        }
+
+        /**
+         * Removes the given position of the oldest value if it is at front.
+         *
+         * @param position
+         *            the position of the oldest value
+         */
+        void remove(int position) {
+            if (count > 0 && positions[head] == position) {
+                head = (head + 1) % positions.length;
+                count--;
+            }
+        }
+
+        /**
+         * Gets the minimum or maximum value.
+         *
+         * @return the value, or <tt>NaN</tt> if there is no value
+         */
+        double get() {
+            if (count == 0) {
+                return Double.NaN;
+            }
+            return values[positions[head]];
+        }
+    }
+}
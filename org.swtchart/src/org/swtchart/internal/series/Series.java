@@ -7,6 +7,7 @@
 package org.swtchart.internal.series;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.eclipse.swt.SWT;
@@ -16,13 +17,18 @@ import org.eclipse.swt.widgets.Event;
 import org.swtchart.Chart;
 import org.swtchart.IAxis;
 import org.swtchart.IAxis.Direction;
+import org.swtchart.ICompressionStrategy;
 import org.swtchart.IDisposeListener;
 import org.swtchart.IErrorBar;
 import org.swtchart.ISeries;
+import org.swtchart.ISeriesData;
 import org.swtchart.ISeriesLabel;
 import org.swtchart.Range;
+import org.swtchart.compress.Compress;
+import org.swtchart.compress.ICompress;
+import org.swtchart.internal.IRasterCommand;
+import org.swtchart.internal.Rasterizer;
 import org.swtchart.internal.axis.Axis;
-import org.swtchart.internal.compress.ICompress;
 
 /**
  * Series.
@@ -32,8 +38,14 @@ abstract public class Series implements ISeries {
     /** the default series type */
     protected static final SeriesType DEFAULT_SERIES_TYPE = SeriesType.LINE;
 
+    /** the default compression type */
+    protected static final CompressionType DEFAULT_COMPRESSION_TYPE = CompressionType.GRID;
+
+    /** the default number of data points kept by LTTB compression */
+    protected static final int DEFAULT_COMPRESSION_POINT_COUNT = 2000;
+
     /** the series */
-    protected ArrayList<XYdata> series;
+    protected ISeriesData series;
 
     /** the minimum value of x series */
     protected double minX;
@@ -68,6 +80,18 @@ abstract public class Series implements ISeries {
     /** the series type */
     protected SeriesType type;
 
+    /** the compression type */
+    protected CompressionType compressionType;
+
+    /** the number of data points kept by LTTB compression */
+    protected int compressionPointCount;
+
+    /** the compression strategy, or null to use the default strategy */
+    protected ICompressionStrategy compressionStrategy;
+
+    /** the compressed series whose indexes have been checked */
+    private ISeriesData checkedCompressedSeries;
+
     /** the series label */
     protected SeriesLabel seriesLabel;
 
@@ -98,6 +122,52 @@ abstract public class Series implements ISeries {
     /** the list of dispose listeners */
     private List<IDisposeListener> listeners;
 
+    /** the x values copied from compressed series to draw */
+    private double[] xDrawBuffer;
+
+    /** the y values copied from compressed series to draw */
+    private double[] yDrawBuffer;
+
+    /** the revision of series data, which is incremented on each change */
+    protected int dataRevision;
+
+    /** the revision of appearance, which is incremented on each change */
+    private int appearanceRevision;
+
+    /** the command rasterizing nothing, for the series not drawn */
+    private static final IRasterCommand EMPTY_RASTER_COMMAND = new IRasterCommand() {
+        public void rasterize(Rasterizer rasterizer) {
+            // do nothing
+        }
+    };
+
+    /**
+     * the revision of series data set to compressor, which is incremented
+     * when the data is replaced or changed in place, but not when appended
+     */
+    private int compressorRevision;
+
+    /** the snapshot set to compressor, or null if the series is set */
+    private SeriesSnapshot compressorSnapshot;
+
+    /** the compressor to compress in background, or null if not created */
+    private ICompress backgroundCompressor;
+
+    /** the snapshot set to background compressor */
+    private SeriesSnapshot backgroundSnapshot;
+
+    /** the compressor revision when background compressor was created */
+    private int backgroundRevision;
+
+    /** the number of data points known by background compressor */
+    private int backgroundSize;
+
+    /** the data points captured for background compressor, or null */
+    private ISeriesData capturedSeries;
+
+    /** the compressor revision when the data points were captured */
+    private int capturedRevision;
+
     /**
      * Constructor.
      *
@@ -115,6 +185,8 @@ abstract public class Series implements ISeries {
         yAxisId = 0;
         visible = true;
         type = DEFAULT_SERIES_TYPE;
+        compressionType = DEFAULT_COMPRESSION_TYPE;
+        compressionPointCount = DEFAULT_COMPRESSION_POINT_COUNT;
         stackEnabled = false;
         isXMonotoneIncreasing = true;
         seriesLabel = new SeriesLabel();
@@ -122,7 +194,9 @@ abstract public class Series implements ISeries {
         yErrorBar = new ErrorBar();
         visibleInLegend = true;
         listeners = new ArrayList<>();
-        series = new ArrayList<>();
+        series = new ArraySeriesData(new double[0], new double[0]);
+        xDrawBuffer = new double[0];
+        yDrawBuffer = new double[0];
     }
 
     /*
@@ -141,8 +215,12 @@ abstract public class Series implements ISeries {
         }
 
         this.visible = visible;
+        invalidateAppearance();
 
-        ((SeriesSet) chart.getSeriesSet()).updateStackAndRiserData();
+        // only the bar series and stacked series affect the others
+        if (type == SeriesType.BAR || stackEnabled) {
+            ((SeriesSet) chart.getSeriesSet()).updateStackAndRiserData();
+        }
     }
 
     /*
@@ -180,6 +258,7 @@ abstract public class Series implements ISeries {
         }
 
         stackEnabled = enabled;
+        invalidateAppearance();
 
         ((SeriesSet) chart.getSeriesSet()).updateStackAndRiserData();
     }
@@ -193,16 +272,155 @@ abstract public class Series implements ISeries {
             SWT.error(SWT.ERROR_NULL_ARGUMENT);
             return; // to suppress warning...
         }
-        
-        this.series = series;
-        
+
+        setSeries(new ListSeriesData(series));
+    }
+
+    /*
+     * @see ISeries#setSeries(double[], double[])
+     */
+    public void setSeries(double[] xSeries, double[] ySeries) {
+
+        if (xSeries == null || ySeries == null) {
+            SWT.error(SWT.ERROR_NULL_ARGUMENT);
+            return; // to suppress warning...
+        }
+
+        setSeries(new ArraySeriesData(xSeries, ySeries));
+    }
+
+    /*
+     * @see ISeries#setSeries(ISeriesData)
+     */
+    public void setSeries(ISeriesData data) {
+
+        if (data == null) {
+            SWT.error(SWT.ERROR_NULL_ARGUMENT);
+            return; // to suppress warning...
+        }
+
+        this.series = data;
+
         invalidateData();
     }
+
+    /*
+     * @see ISeries#appendPoints(double[], double[])
+     */
+    public void appendPoints(double[] xSeries, double[] ySeries) {
+
+        if (xSeries == null || ySeries == null) {
+            SWT.error(SWT.ERROR_NULL_ARGUMENT);
+            return; // to suppress warning...
+        }
+
+        if (!(series instanceof IAppendableSeriesData)) {
+            throw new IllegalStateException(
+                    "Series data doesn't support appending."); //$NON-NLS-1$
+        }
+
+        int count = Math.min(xSeries.length, ySeries.length);
+        if (count == 0) {
+            return;
+        }
+        dataRevision++;
+
+        int fromIndex = series.size();
+        if (series instanceof RingBufferSeriesData) {
+            appendToRingBuffer((RingBufferSeriesData) series, xSeries, ySeries,
+                    count);
+            return;
+        }
+        ((IAppendableSeriesData) series).append(xSeries, ySeries, count);
+
+        if (fromIndex == 0) {
+            invalidateData();
+            return;
+        }
+
+        // update the min and max values only with the appended points
+        boolean wasXMonotoneIncreasing = isXMonotoneIncreasing;
+        double lastX = series.getX(fromIndex - 1);
+        int size = series.size();
+        for (int i = fromIndex; i < size; i++) {
+            double x = series.getX(i);
+            double y = series.getY(i);
+            if (minX > x) {
+                minX = x;
+            }
+            if (maxX < x) {
+                maxX = x;
+            }
+
+            if (lastX > x) {
+                isXMonotoneIncreasing = false;
+            }
+            lastX = x;
+
+            if (minY > y) {
+                minY = y;
+            }
+            if (maxY < y) {
+                maxY = y;
+            }
+        }
+
+        if (wasXMonotoneIncreasing == isXMonotoneIncreasing) {
+            compressor.seriesAppended(fromIndex);
+        } else {
+            resetCompressor();
+        }
+
+        updateAxesWithRange();
+    }
+
+    /**
+     * Appends data points to the ring buffer. The min and max values are taken
+     * from the ring buffer, which keeps them for the window in constant time.
+     * 
+     * @param ringBuffer
+     *            the ring buffer
+     * @param xSeries
+     *            the X values to append
+     * @param ySeries
+     *            the Y values to append
+     * @param count
+     *            the number of data points to append
+     */
+    private void appendToRingBuffer(RingBufferSeriesData ringBuffer,
+            double[] xSeries, double[] ySeries, int count) {
+        int fromIndex = ringBuffer.size();
+        long numDiscarded = ringBuffer.getNumDiscarded();
+        boolean wasXMonotoneIncreasing = isXMonotoneIncreasing;
+
+        ringBuffer.append(xSeries, ySeries, count);
+
+        minX = ringBuffer.getMinX();
+        maxX = ringBuffer.getMaxX();
+        minY = ringBuffer.getMinY();
+        maxY = ringBuffer.getMaxY();
+        isXMonotoneIncreasing = ringBuffer.isXMonotoneIncreasing();
+
+        // indexes are shifted if the oldest points have been overwritten
+        if (wasXMonotoneIncreasing != isXMonotoneIncreasing) {
+            resetCompressor();
+        } else if (fromIndex > 0
+                && numDiscarded == ringBuffer.getNumDiscarded()) {
+            compressor.seriesAppended(fromIndex);
+        } else {
+            setCompressorSeries(series);
+        }
+
+        updateAxesWithRange();
+    }
+
     /*
      * @see ISeries#invalidateData()
      */
     public void invalidateData() {
 //        isDateSeries = false;
+        dataRevision++;
+        compressorRevision++;
 
         if (series.size() == 0) {
 //        	minX = 0;
@@ -213,37 +431,47 @@ abstract public class Series implements ISeries {
         }
 
         // find the min and max value of x series
-        minX = series.get(0).x;
-        maxX = series.get(0).x;
-        minY = series.get(0).y;
-        maxY = series.get(0).y;
-        
+        minX = series.getX(0);
+        maxX = series.getX(0);
+        minY = series.getY(0);
+        maxY = series.getY(0);
+
         isXMonotoneIncreasing = true;
         double lastX = maxX;
-        for (XYdata p : series) {
-            if (minX > p.x) {
-                minX = p.x;
+        int size = series.size();
+        for (int i = 0; i < size; i++) {
+            double x = series.getX(i);
+            double y = series.getY(i);
+            if (minX > x) {
+                minX = x;
             }
-            if (maxX < p.x) {
-                maxX = p.x;
+            if (maxX < x) {
+                maxX = x;
             }
 
-            if (lastX > p.x) {
+            if (lastX > x) {
                 isXMonotoneIncreasing = false;
             }
-            lastX = p.x;
-            
-            if (minY > p.y) {
-                minY = p.y;
+            lastX = x;
+
+            if (minY > y) {
+                minY = y;
             }
-            if (maxY < p.y) {
-                maxY = p.y;
+            if (maxY < y) {
+                maxY = y;
             }
         }
 
-        setCompressor();
-        compressor.setSeries(series);
+        resetCompressor();
+
+        updateAxesWithRange();
+    }
 
+    /**
+     * Disables the log scale of axes and the stack, if the range of series
+     * contains zero or negative values.
+     */
+    private void updateAxesWithRange() {
         if (minX <= 0) {
             IAxis axis = chart.getAxisSet().getXAxis(xAxisId);
             if (axis != null) {
@@ -263,6 +491,86 @@ abstract public class Series implements ISeries {
      * @see ISeries#getSeries()
      */
     public ArrayList<XYdata> getSeries() {
+        if (series instanceof ListSeriesData) {
+            return ((ListSeriesData) series).getSeries();
+        }
+
+        int size = series.size();
+        ArrayList<XYdata> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(new XYdata(series.getX(i), series.getY(i)));
+        }
+        return list;
+    }
+
+    /*
+     * @see ISeries#setCompressionType(CompressionType)
+     */
+    public void setCompressionType(CompressionType type) {
+        CompressionType newType = type;
+        if (newType == null) {
+            newType = DEFAULT_COMPRESSION_TYPE;
+        }
+        if (compressionType == newType) {
+            return;
+        }
+        compressionType = newType;
+        resetCompressor();
+        ((SeriesSet) chart.getSeriesSet()).compressAllSeries();
+    }
+
+    /*
+     * @see ISeries#getCompressionType()
+     */
+    public CompressionType getCompressionType() {
+        return compressionType;
+    }
+
+    /*
+     * @see ISeries#setCompressionPointCount(int)
+     */
+    public void setCompressionPointCount(int count) {
+        if (count < 3) {
+            SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+        }
+        if (compressionPointCount == count) {
+            return;
+        }
+        compressionPointCount = count;
+        resetCompressor();
+        ((SeriesSet) chart.getSeriesSet()).compressAllSeries();
+    }
+
+    /*
+     * @see ISeries#getCompressionPointCount()
+     */
+    public int getCompressionPointCount() {
+        return compressionPointCount;
+    }
+
+    /*
+     * @see ISeries#setCompressionStrategy(ICompressionStrategy)
+     */
+    public void setCompressionStrategy(ICompressionStrategy strategy) {
+        if (compressionStrategy == strategy) {
+            return;
+        }
+        compressionStrategy = strategy;
+        resetCompressor();
+        ((SeriesSet) chart.getSeriesSet()).compressAllSeries();
+    }
+
+    /*
+     * @see ISeries#getCompressionStrategy()
+     */
+    public ICompressionStrategy getCompressionStrategy() {
+        return compressionStrategy;
+    }
+
+    /*
+     * @see ISeries#getSeriesData()
+     */
+    public ISeriesData getSeriesData() {
         return series;
     }
 
@@ -371,9 +679,289 @@ abstract public class Series implements ISeries {
     }
 
     /**
-     * Sets the compressor.
+     * Gets the default compression strategy for the series type, which is
+     * used while no compression strategy is set.
+     * 
+     * @return the compression strategy
+     */
+    abstract protected ICompressionStrategy getDefaultCompressionStrategy();
+
+    /**
+     * Creates the compressor with the compression strategy if set, and
+     * otherwise with the default one. This is the only place selecting the
+     * compressor.
+     * 
+     * @return the compressor
+     * @throws IllegalStateException
+     *             if the compression strategy created no compressor
+     */
+    protected ICompress createCompressor() {
+        ICompressionStrategy strategy = compressionStrategy;
+        if (strategy == null) {
+            strategy = getDefaultCompressionStrategy();
+        }
+        ICompress newCompressor = strategy.createCompressor(this,
+                isXMonotoneIncreasing);
+        if (newCompressor == null) {
+            throw new IllegalStateException(
+                    "Compression strategy created no compressor."); //$NON-NLS-1$
+        }
+        return newCompressor;
+    }
+
+    /**
+     * Creates the compressor and sets the series to it.
+     */
+    protected void resetCompressor() {
+        compressor = createCompressor();
+        checkedCompressedSeries = null;
+        setCompressorSeries(series);
+        invalidateAppearance();
+    }
+
+    /**
+     * Invalidates the appearance of series, so that the series is drawn again
+     * in next paint of plot area.
+     */
+    protected void invalidateAppearance() {
+        appearanceRevision++;
+    }
+
+    /**
+     * Gets the revision of series, which is incremented whenever the series
+     * data or anything else affecting the appearance of series is changed.
+     * The plot area draws again only the series whose revision is changed.
+     * 
+     * @return the revision
+     */
+    public int getRevision() {
+        return dataRevision + appearanceRevision + seriesLabel.getRevision()
+                + xErrorBar.getRevision() + yErrorBar.getRevision();
+    }
+
+    /**
+     * Gets the revision of series data, which is incremented on each change.
+     * 
+     * @return the revision
+     */
+    public int getDataRevision() {
+        return dataRevision;
+    }
+
+    /**
+     * Sets the given series data to the compressor. The result of background
+     * compression in progress is discarded.
+     * 
+     * @param data
+     *            the series data
+     */
+    void setCompressorSeries(ISeriesData data) {
+        enableLogColumn(compressor);
+        compressor.setSeries(data);
+        compressorSnapshot = null;
+        capturedSeries = null;
+        compressorRevision++;
+    }
+
+    /**
+     * Enables the columns of logarithms kept by the compressor only if the
+     * series data is stored on the heap. The series data mapped from a file
+     * doesn't grow the heap, and the columns would bring back the heap
+     * footprint proportional to the number of data points.
+     * 
+     * @param target
+     *            the compressor
+     */
+    private void enableLogColumn(ICompress target) {
+        if (target instanceof Compress) {
+            ((Compress) target)
+                    .setLogColumnEnabled(!(series instanceof MappedSeriesData));
+        }
+    }
+
+    /**
+     * Gets the state indicating if the compressor holds a compressed series,
+     * rather than the series data itself.
+     * 
+     * @return true if the compressor holds a compressed series
+     */
+    boolean isCompressed() {
+        ISeriesData cseries = compressor.getCompressedSeries();
+        return cseries != null && cseries != series
+                && cseries != compressorSnapshot;
+    }
+
+    /**
+     * Gets the revision of series data set to compressor.
+     * 
+     * @return the revision
+     */
+    int getCompressorRevision() {
+        return compressorRevision;
+    }
+
+    /**
+     * Gets the state indicating if the series can be compressed in
+     * background, i.e. if its data points can be captured on UI thread.
+     * 
+     * @return true if the series can be compressed in background
+     */
+    boolean isBackgroundCompressible() {
+        return SeriesSnapshot.isCapturable(series);
+    }
+
+    /**
+     * Captures the data points of series data to be read on a worker thread.
+     * The captured data points are reused while the series data is unchanged.
+     * 
+     * @return the captured data points
+     */
+    private ISeriesData captureSeries() {
+        if (capturedSeries == null || capturedRevision != compressorRevision
+                || capturedSeries.size() != series.size()) {
+            capturedSeries = SeriesSnapshot.capture(series);
+            capturedRevision = compressorRevision;
+        }
+        return capturedSeries;
+    }
+
+    /**
+     * Prepares the compressor to compress in background, whose series is the
+     * snapshot of the current series data. The compressor is reused across
+     * background compressions unless the series data has been replaced or
+     * changed in place, so that its cache is kept.
+     * 
+     * @return the compressor to compress in background
+     */
+    ICompress prepareBackgroundCompressor() {
+        if (backgroundCompressor == null
+                || backgroundRevision != compressorRevision) {
+            backgroundCompressor = createCompressor();
+            enableLogColumn(backgroundCompressor);
+            backgroundSnapshot = new SeriesSnapshot(series);
+            backgroundSnapshot.freeze(captureSeries());
+            backgroundCompressor.setSeries(backgroundSnapshot);
+            backgroundRevision = compressorRevision;
+        } else {
+            backgroundSnapshot.freeze(captureSeries());
+            if (backgroundSnapshot.size() > backgroundSize) {
+                backgroundCompressor.seriesAppended(backgroundSize);
+            }
+        }
+        backgroundSize = backgroundSnapshot.size();
+        return backgroundCompressor;
+    }
+
+    /**
+     * Completes the background compression, swapping the compressor with the
+     * background compressor. The previous compressor is kept to compress in
+     * background next time. Nothing is done if the series data has been
+     * replaced or changed in place since the background compressor was
+     * prepared.
+     * 
+     * @param compressed
+     *            the background compressor which has compressed
+     * @param revision
+     *            the compressor revision when the background compressor was
+     *            prepared
+     * @return true if the compressor has been swapped
      */
-    abstract protected void setCompressor();
+    boolean completeBackgroundCompression(ICompress compressed, int revision) {
+        if (compressed != backgroundCompressor
+                || revision != compressorRevision) {
+            return false;
+        }
+
+        // catch up with the data points appended while compressing
+        int size = backgroundSnapshot.size();
+        backgroundSnapshot.release();
+        ICompress previousCompressor = compressor;
+        SeriesSnapshot previousSnapshot = compressorSnapshot;
+        compressor = backgroundCompressor;
+        compressorSnapshot = backgroundSnapshot;
+        if (series.size() > size) {
+            compressor.seriesAppended(size);
+        }
+
+        // the compressor for the series itself cannot be reused
+        backgroundCompressor = (previousSnapshot == null) ? null
+                : previousCompressor;
+        backgroundSnapshot = previousSnapshot;
+        backgroundSize = series.size();
+        invalidateAppearance();
+        return true;
+    }
+
+    /**
+     * Gets the compressed series to be drawn on the given X axis, so that the
+     * values can be read directly from the arrays. If the X axis is a valid
+     * category axis, the X values are replaced with the series indexes.
+     * <p>
+     * If the compressed series is not stored in arrays, it is copied into the
+     * buffers reused for each drawing.
+     *
+     * @param xAxis
+     *            the X axis
+     * @return the compressed series
+     */
+    protected ArraySeriesData getCompressedSeries(Axis xAxis) {
+        ISeriesData cseries = compressor.getCompressedSeries();
+        if (compressionStrategy != null && cseries != checkedCompressedSeries) {
+            checkCompressedIndexes(cseries);
+            checkedCompressedSeries = cseries;
+        }
+        boolean isCategory = xAxis.isValidCategoryAxis();
+        int size = cseries.size();
+        if (!isCategory && cseries instanceof ArraySeriesData) {
+            return (ArraySeriesData) cseries;
+        }
+        if (!isCategory && compressor instanceof Compress) {
+            Compress compress = (Compress) compressor;
+            double[] xSeries = compress.getCompressedXSeries();
+            if (xSeries != null) {
+                return new ArraySeriesData(xSeries,
+                        compress.getCompressedYSeries(), size);
+            }
+        }
+
+        if (xDrawBuffer.length < size) {
+            xDrawBuffer = new double[size];
+            yDrawBuffer = new double[size];
+        }
+        int[] indexes = compressor.getCompressedIndexes();
+        for (int i = 0; i < size; i++) {
+            xDrawBuffer[i] = isCategory ? indexes[i] : cseries.getX(i);
+            yDrawBuffer[i] = cseries.getY(i);
+        }
+        return new ArraySeriesData(xDrawBuffer, yDrawBuffer, size);
+    }
+
+    /**
+     * Checks that the compressed indexes of a compressor created by the
+     * compression strategy set by client code point to the data points of
+     * the series. The check is done once per compressed series rather than
+     * on every drawing.
+     * 
+     * @param cseries
+     *            the compressed series
+     * @throws IllegalStateException
+     *             if the compressed indexes are invalid
+     */
+    private void checkCompressedIndexes(ISeriesData cseries) {
+        int size = cseries.size();
+        int[] indexes = compressor.getCompressedIndexes();
+        if (indexes == null || indexes.length < size) {
+            throw new IllegalStateException(
+                    "Compressed indexes are fewer than compressed series."); //$NON-NLS-1$
+        }
+        int seriesSize = series.size();
+        for (int i = 0; i < size; i++) {
+            if (indexes[i] < 0 || indexes[i] >= seriesSize) {
+                throw new IllegalStateException(
+                        "Compressed index is out of range: " + indexes[i]); //$NON-NLS-1$
+            }
+        }
+    }
 
     /*
      * @see ISeries#getXAxisId()
@@ -397,6 +985,7 @@ abstract public class Series implements ISeries {
         }
 
         xAxisId = id;
+        invalidateAppearance();
 
         ((SeriesSet) chart.getSeriesSet()).updateStackAndRiserData();
     }
@@ -413,6 +1002,7 @@ abstract public class Series implements ISeries {
      */
     public void setYAxisId(int id) {
         yAxisId = id;
+        invalidateAppearance();
     }
 
     /*
@@ -443,6 +1033,9 @@ abstract public class Series implements ISeries {
      *            The stack series
      */
     protected void setStackSeries(double[] stackSeries) {
+        if (!Arrays.equals(this.stackSeries, stackSeries)) {
+            invalidateAppearance();
+        }
         this.stackSeries = stackSeries;
     }
 
@@ -490,7 +1083,7 @@ abstract public class Series implements ISeries {
                     throw new IllegalArgumentException(
                             "Series index is out of range."); //$NON-NLS-1$
                 }
-                dataCoordinate = series.get(index).x;
+                dataCoordinate = series.getX(index);
             }
         } else if (axis.getDirection() == Direction.Y) {
             if (isValidStackSeries()) {
@@ -504,7 +1097,7 @@ abstract public class Series implements ISeries {
                     throw new IllegalArgumentException(
                             "Series index is out of range."); //$NON-NLS-1$
                 }
-                dataCoordinate = series.get(index).y;
+                dataCoordinate = series.getY(index);
             }
         } else {
             throw new IllegalStateException("unknown axis direction"); //$NON-NLS-1$
@@ -637,4 +1230,51 @@ abstract public class Series implements ISeries {
      */
     abstract protected void draw(GC gc, int width, int height, Axis xAxis,
             Axis yAxis);
+
+    /**
+     * Creates the command to rasterize series on a worker thread. The command
+     * is created on UI thread from the compressed series, and draws the same
+     * as <tt>draw(GC, int, int)</tt> except for anti-aliasing.
+     *
+     * @param width
+     *            the width to draw series
+     * @param height
+     *            the height to draw series
+     * @return the command, or null if the series cannot be rasterized without
+     *         graphics context
+     */
+    public IRasterCommand createRasterCommand(int width, int height) {
+
+        if (!visible || width < 0 || height < 0 || series.size() == 0) {
+            return EMPTY_RASTER_COMMAND;
+        }
+
+        Axis xAxis = (Axis) chart.getAxisSet().getXAxis(getXAxisId());
+        Axis yAxis = (Axis) chart.getAxisSet().getYAxis(getYAxisId());
+        if (xAxis == null || yAxis == null) {
+            return EMPTY_RASTER_COMMAND;
+        }
+
+        return createRasterCommand(width, height, xAxis, yAxis);
+    }
+
+    /**
+     * Creates the command to rasterize series on a worker thread. By default,
+     * the series cannot be rasterized.
+     *
+     * @param width
+     *            the width to draw series
+     * @param height
+     *            the height to draw series
+     * @param xAxis
+     *            the x axis
+     * @param yAxis
+     *            the y axis
+     * @return the command, or null if the series cannot be rasterized without
+     *         graphics context
+     */
+    protected IRasterCommand createRasterCommand(int width, int height,
+            Axis xAxis, Axis yAxis) {
+        return null;
+    }
 }
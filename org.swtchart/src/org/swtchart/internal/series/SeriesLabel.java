@@ -38,6 +38,9 @@ public class SeriesLabel implements ISeriesLabel {
     /** the formats for series labels */
     private String[] formats;
 
+    /** the revision, which is incremented on each change */
+    private int revision;
+
     /** the default label color */
     private static final int DEFAULT_COLOR = SWT.COLOR_BLACK;
 
@@ -59,6 +62,15 @@ public class SeriesLabel implements ISeriesLabel {
         formats = new String[0];
     }
 
+    /**
+     * Gets the revision, which is incremented on each change.
+     * 
+     * @return the revision
+     */
+    int getRevision() {
+        return revision;
+    }
+
     /*
      * @see ISeriesLabel#getFormat()
      */
@@ -70,6 +82,7 @@ public class SeriesLabel implements ISeriesLabel {
      * @see ISeriesLabel#setFormat(String)
      */
     public void setFormat(String format) {
+        revision++;
         if (format == null) {
             this.format = DEFAULT_FORMAT;
         } else {
@@ -91,6 +104,7 @@ public class SeriesLabel implements ISeriesLabel {
      * @see ISeriesLabel#setFormats(String[])
      */
     public void setFormats(String[] formats) {
+        revision++;
         if (formats == null) {
             this.formats = new String[0];
             return;
@@ -114,6 +128,7 @@ public class SeriesLabel implements ISeriesLabel {
      * @see ISeriesLabel#setForeground(Color)
      */
     public void setForeground(Color color) {
+        revision++;
         if (color != null && color.isDisposed()) {
             SWT.error(SWT.ERROR_INVALID_ARGUMENT);
         }
@@ -139,6 +154,7 @@ public class SeriesLabel implements ISeriesLabel {
      * @see ISeriesLabel#setFont(Font)
      */
     public void setFont(Font font) {
+        revision++;
         if (font != null && font.isDisposed()) {
             SWT.error(SWT.ERROR_INVALID_ARGUMENT);
         }
@@ -160,6 +176,7 @@ public class SeriesLabel implements ISeriesLabel {
      * @see ISeriesLabel#setVisible(boolean)
      */
     public void setVisible(boolean visible) {
+        revision++;
         this.isVisible = visible;
     }
 
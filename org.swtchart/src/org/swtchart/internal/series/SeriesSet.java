@@ -10,20 +10,31 @@ import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.widgets.Display;
 import org.swtchart.Chart;
 import org.swtchart.IAxis;
 import org.swtchart.IAxis.Direction;
 import org.swtchart.ISeries;
 import org.swtchart.ISeries.SeriesType;
+import org.swtchart.ISeriesData;
 import org.swtchart.ISeriesSet;
 import org.swtchart.Range;
+import org.swtchart.compress.CompressConfig;
+import org.swtchart.compress.ICancellation;
+import org.swtchart.compress.ICompress;
 import org.swtchart.internal.axis.Axis;
-import org.swtchart.internal.compress.CompressConfig;
-import org.swtchart.internal.compress.ICompress;
+import org.swtchart.internal.compress.CompressExecutor;
 
 /**
  * A series container.
@@ -36,6 +47,19 @@ public class SeriesSet implements ISeriesSet {
     /** the series */
     private LinkedHashMap<String, Series> seriesMap;
 
+    /**
+     * the generation of compression, which is incremented each time all
+     * series are compressed so that outdated background compression is
+     * abandoned
+     */
+    private volatile int compressGeneration;
+
+    /** the state indicating if background compression is in progress */
+    private boolean backgroundCompressRunning;
+
+    /** the state indicating if compressing again is requested meanwhile */
+    private boolean backgroundCompressPending;
+
     /**
      * Constructor.
      * 
@@ -68,6 +92,8 @@ public class SeriesSet implements ISeriesSet {
             series = new BarSeries(chart, trimmedId);
         } else if (type == SeriesType.LINE) {
             series = new LineSeries(chart, trimmedId);
+        } else if (type == SeriesType.TRACE_DENSITY) {
+            series = new TraceDensitySeries(chart, trimmedId);
         } else {
             SWT.error(SWT.ERROR_INVALID_ARGUMENT);
             return null; // to suppress warning...
@@ -263,15 +289,21 @@ public class SeriesSet implements ISeriesSet {
             return;
         }
 
-        CompressConfig config = new CompressConfig();
-
         final int PRECISION = 2;
         Point p = chart.getPlotArea().getSize();
         int width = p.x * PRECISION;
         int height = p.y * PRECISION;
-        config.setSizeInPixel(width, height);
 
+        List<Series> seriesList = new ArrayList<>();
+        List<ICompress> compressors = new ArrayList<>();
+        List<CompressConfig> configs = new ArrayList<>();
         for (ISeries series : getSeries()) {
+
+            // trace density series is drawn from the whole series data
+            if (series.getType() == SeriesType.TRACE_DENSITY) {
+                continue;
+            }
+
             int xAxisId = series.getXAxisId();
             int yAxisId = series.getYAxisId();
 
@@ -292,6 +324,9 @@ public class SeriesSet implements ISeriesSet {
             double yMin = yRange.lower;
             double yMax = yRange.upper;
 
+            CompressConfig config = new CompressConfig();
+            config.setSizeInPixel(width, height);
+            config.setParallelEnabled(chart.isParallelCompressEnabled());
             config.setXLogScale(xAxis.isLogScaleEnabled());
             config.setYLogScale(yAxis.isLogScaleEnabled());
 
@@ -308,8 +343,334 @@ public class SeriesSet implements ISeriesSet {
             }
             config.setYRange(lower, upper);
 
+            boolean horizontal = ((Axis) xAxis).isHorizontalAxis();
+            config.setXAxis(xMin, xMax, horizontal ? p.x : p.y, horizontal,
+                    xAxis.isCategoryEnabled());
+
+            // line series are drawn as the polyline projected when compressing
+            if (series.getType() == SeriesType.LINE) {
+                config.setYAxis(yMin, yMax, horizontal ? p.y : p.x);
+            }
+
             ICompress compressor = ((Series) series).getCompressor();
-            compressor.compress(config);
+            compressor.setCacheBudget(chart.getCompressCacheBudget());
+            seriesList.add((Series) series);
+            compressors.add(compressor);
+            configs.add(config);
+        }
+
+        if (chart.isAsyncCompressEnabled()) {
+            compressInBackground(seriesList, configs);
+        } else if (chart.isParallelCompressEnabled() && compressors.size() > 1) {
+            compressInParallel(compressors, configs);
+        } else {
+            for (int i = 0; i < compressors.size(); i++) {
+                compressors.get(i).compress(configs.get(i));
+            }
+        }
+    }
+
+    /**
+     * Gets the number of times the compressed series have been served without
+     * compressing, summed over all series.
+     * 
+     * @return the number of cache hits
+     */
+    public long getCompressCacheHitCount() {
+        long count = 0;
+        for (Series series : seriesMap.values()) {
+            count += series.getCompressor().getCacheHitCount();
+        }
+        return count;
+    }
+
+    /**
+     * Gets the number of times the series have been actually compressed,
+     * summed over all series.
+     * 
+     * @return the number of cache misses
+     */
+    public long getCompressCacheMissCount() {
+        long count = 0;
+        for (Series series : seriesMap.values()) {
+            count += series.getCompressor().getCacheMissCount();
+        }
+        return count;
+    }
+
+    /**
+     * Compresses the series in background, while the previous compressed
+     * series are drawn. The plot area is redrawn when all of them are
+     * completed. The series which have not been compressed yet are compressed
+     * right away, since they would be drawn uncompressed otherwise, and so
+     * are the series on category axis and the series whose data points cannot
+     * be captured to be read on a worker thread.
+     * <p>
+     * Only one background compression runs at a time. If compressing again
+     * is requested meanwhile, the compression in progress is abandoned, and
+     * the series are compressed again with the latest configurations once it
+     * is finished.
+     * 
+     * @param seriesList
+     *            the series
+     * @param configs
+     *            the configurations for each series
+     */
+    private void compressInBackground(List<Series> seriesList,
+            List<CompressConfig> configs) {
+        int generation = ++compressGeneration;
+
+        List<Series> targets = new ArrayList<>();
+        List<CompressConfig> targetConfigs = new ArrayList<>();
+        for (int i = 0; i < seriesList.size(); i++) {
+            Series series = seriesList.get(i);
+            CompressConfig config = configs.get(i);
+            if (!series.isCompressed() || config.isXAxisCategory()
+                    || !series.isBackgroundCompressible()) {
+                series.getCompressor().compress(config);
+            } else {
+                targets.add(series);
+                targetConfigs.add(config);
+            }
+        }
+
+        if (targets.isEmpty()) {
+            return;
+        }
+        if (backgroundCompressRunning) {
+            backgroundCompressPending = true;
+            return;
+        }
+        startBackgroundCompress(targets, targetConfigs, generation);
+    }
+
+    /**
+     * Starts compressing the given series on the compress executor. Each
+     * series is compressed by its background compressor with the snapshot of
+     * series data, so that the compressor being drawn is not touched. The
+     * compressors check every chunk of data points whether compressing again
+     * has been requested meanwhile, and give up the outdated compression.
+     * <p>
+     * If the executor rejects the first task, e.g. because it has been shut
+     * down, the series are compressed right away on this thread as if they
+     * were not compressed in background. The tasks rejected after that are
+     * run on this thread, since the tasks already accepted complete the
+     * background compression.
+     * 
+     * @param targets
+     *            the series
+     * @param configs
+     *            the configurations for each series
+     * @param generation
+     *            the generation of compression
+     */
+    private void startBackgroundCompress(final List<Series> targets,
+            final List<CompressConfig> configs, final int generation) {
+        final int size = targets.size();
+        final ICompress[] compressors = new ICompress[size];
+        final int[] revisions = new int[size];
+        final RuntimeException[] errors = new RuntimeException[size];
+        for (int i = 0; i < size; i++) {
+            Series series = targets.get(i);
+            compressors[i] = series.prepareBackgroundCompressor();
+            compressors[i].setCacheBudget(chart.getCompressCacheBudget());
+            revisions[i] = series.getCompressorRevision();
+        }
+
+        final ICancellation cancellation = new ICancellation() {
+            public boolean isCanceled() {
+                return generation != compressGeneration;
+            }
+        };
+        final Display display = chart.getDisplay();
+        final Runnable completion = new Runnable() {
+            public void run() {
+                completeBackgroundCompress(targets, configs, compressors,
+                        revisions, errors, generation);
+            }
+        };
+
+        // the series are compressed one after another if not in parallel
+        final boolean parallel = chart.isParallelCompressEnabled();
+        int numTasks = parallel ? size : 1;
+        final AtomicInteger remaining = new AtomicInteger(numTasks);
+
+        ExecutorService executor = chart.getCompressExecutor();
+        if (executor == null) {
+            executor = CompressExecutor.getDefault();
+        }
+        for (int i = 0; i < numTasks; i++) {
+            final int from = parallel ? i : 0;
+            final int to = parallel ? i + 1 : size;
+            Runnable task = new Runnable() {
+                public void run() {
+                    try {
+                        for (int j = from; j < to; j++) {
+                            if (cancellation.isCanceled()) {
+                                break;
+                            }
+                            try {
+                                compressors[j].compress(configs.get(j),
+                                        cancellation);
+                            } catch (RuntimeException e) {
+                                errors[j] = e;
+                            }
+                        }
+                    } finally {
+                        if (remaining.decrementAndGet() == 0
+                                && !display.isDisposed()) {
+                            display.asyncExec(completion);
+                        }
+                    }
+                }
+            };
+
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                if (i == 0) {
+
+                    // nothing runs in background, so that compress right away
+                    for (int j = 0; j < size; j++) {
+                        targets.get(j).getCompressor().compress(configs.get(j));
+                    }
+                    return;
+                }
+
+                // the completion is still posted by the last task
+                task.run();
+                continue;
+            }
+            backgroundCompressRunning = true;
+        }
+    }
+
+    /**
+     * Completes the background compression on UI thread. If it is still up
+     * to date, the compressors are swapped and the plot area is redrawn. Then
+     * the series are compressed again if requested meanwhile.
+     * <p>
+     * The series whose background compression has failed is compressed again
+     * on this thread, since the error cannot be reported to the caller of
+     * asynchronous compression. If that fails as well, the series is drawn
+     * uncompressed.
+     * 
+     * @param targets
+     *            the series
+     * @param configs
+     *            the configurations for each series
+     * @param compressors
+     *            the background compressors
+     * @param revisions
+     *            the revisions of series data set to compressors
+     * @param errors
+     *            the errors thrown while compressing
+     * @param generation
+     *            the generation of compression
+     */
+    private void completeBackgroundCompress(List<Series> targets,
+            List<CompressConfig> configs, ICompress[] compressors,
+            int[] revisions, RuntimeException[] errors, int generation) {
+        backgroundCompressRunning = false;
+        if (chart.isDisposed()) {
+            return;
+        }
+
+        if (generation == compressGeneration) {
+            boolean updated = false;
+            for (int i = 0; i < compressors.length; i++) {
+                Series series = targets.get(i);
+
+                // the error is ignored if the series data has been changed
+                if (errors[i] != null) {
+                    if (revisions[i] == series.getCompressorRevision()) {
+                        compressInForeground(series, configs.get(i));
+                        updated = true;
+                    }
+                } else if (series.completeBackgroundCompression(
+                        compressors[i], revisions[i])) {
+                    updated = true;
+                }
+            }
+            if (updated) {
+                chart.getPlotArea().redraw();
+            }
+        }
+
+        if (backgroundCompressPending) {
+            backgroundCompressPending = false;
+            compressAllSeries();
+        }
+    }
+
+    /**
+     * Compresses the series on this thread after its background compression
+     * has failed. If it fails again, the compressor is reset so that the
+     * series is drawn uncompressed.
+     * 
+     * @param series
+     *            the series
+     * @param config
+     *            the configuration
+     */
+    private static void compressInForeground(Series series,
+            CompressConfig config) {
+        try {
+            series.getCompressor().compress(config);
+        } catch (RuntimeException e) {
+            series.resetCompressor();
+        }
+    }
+
+    /**
+     * Compresses the series in parallel, and waits until all of them are
+     * completed.
+     * 
+     * @param compressors
+     *            the compressors
+     * @param configs
+     *            the configurations for each compressor
+     */
+    private void compressInParallel(List<ICompress> compressors,
+            List<CompressConfig> configs) {
+        ExecutorService executor = chart.getCompressExecutor();
+        if (executor == null) {
+            executor = CompressExecutor.getDefault();
+        }
+
+        List<Future<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i < compressors.size(); i++) {
+            final ICompress compressor = compressors.get(i);
+            final CompressConfig config = configs.get(i);
+            futures.add(executor.submit(new Callable<Boolean>() {
+                public Boolean call() {
+                    return compressor.compress(config);
+                }
+            }));
+        }
+
+        // the results have to be joined before painting
+        boolean interrupted = false;
+        for (Future<Boolean> future : futures) {
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    } else if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+                    throw new IllegalStateException(cause);
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
         }
     }
 
@@ -331,24 +692,24 @@ public class SeriesSet implements ISeriesSet {
                 continue;
             }
 
-            ICompress compressor = ((Series) series).getCompressor();
             if (axis.isValidCategoryAxis()) {
                 String[] categorySeries = axis.getCategorySeries();
                 if (categorySeries == null) {
                     continue;
                 }
-                ArrayList<XYdata> oseries = series.getSeries();
-                ArrayList<XYdata> cseries = new ArrayList<>(categorySeries.length);
+                ISeriesData oseries = series.getSeriesData();
+                double[] xSeries = new double[categorySeries.length];
+                double[] ySeries = new double[categorySeries.length];
                 for (int i = 0; i < categorySeries.length; i++) {
-                	if (oseries.size()>i) {
-                		cseries.add(new XYdata(i, oseries.get(i).y));
-                	} else {
-                		cseries.add(new XYdata(i, 0)); // TODO newly added hack!
-                	}
+                    xSeries[i] = i;
+                    if (oseries.size() > i) {
+                        ySeries[i] = oseries.getY(i);
+                    }
                 }
-                compressor.setSeries(cseries);
-            } else if (((Series) series).getSeries() != null) { // FIXME is never null!
-                compressor.setSeries(((Series) series).getSeries());
+                ((Series) series).setCompressorSeries(new ArraySeriesData(
+                        xSeries, ySeries));
+            } else {
+                ((Series) series).setCompressorSeries(series.getSeriesData());
             }
         }
         compressAllSeries();
@@ -436,18 +797,17 @@ public class SeriesSet implements ISeriesSet {
      *            the series
      */
     private static void setStackSeries(double[] stackSeries, ISeries series) {
-        ArrayList<XYdata> oseries = series.getSeries();
+        ISeriesData oseries = series.getSeriesData();
         if (oseries == null || stackSeries == null) {
             return;
         }
 
-        // TODO optimize
         for (int i = 0; i < stackSeries.length; i++) {
             if (i >= oseries.size()) {
                 break;
             }
             stackSeries[i] = BigDecimal.valueOf(stackSeries[i])
-                    .add(BigDecimal.valueOf(oseries.get(i).y)).doubleValue();
+                    .add(BigDecimal.valueOf(oseries.getY(i))).doubleValue();
         }
         double[] copiedStackSeries = new double[stackSeries.length];
         System.arraycopy(stackSeries, 0, copiedStackSeries, 0,
@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2008-2016 SWTChart project. All rights reserved.
+ *
+ * This code is distributed under the terms of the Eclipse Public License v1.0
+ * which is available at http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.swtchart.internal.series;
+
+import org.swtchart.ISeriesData;
+
+/**
+ * A view of series data which can be frozen to the data points captured on UI
+ * thread, so that a compressor on a worker thread never reads the series data
+ * being changed.
+ * <p>
+ * The captured data points are never written to. The arrays of series data
+ * are shared while only appending, since they are copied on next append, and
+ * the other kinds of series data which can be changed are copied when
+ * captured.
+ */
+class SeriesSnapshot implements ISeriesData {
+
+    /** the source series data */
+    private final ISeriesData source;
+
+    /** the captured data points, or null to follow the source */
+    private ISeriesData frozen;
+
+    /**
+     * Constructor. The snapshot follows the source until frozen.
+     *
+     * @param source
+     *            the source series data
+     */
+    SeriesSnapshot(ISeriesData source) {
+        this.source = source;
+    }
+
+    /**
+     * Freezes the snapshot to the given data points captured from the source.
+     *
+     * @param captured
+     *            the data points captured with <tt>capture(ISeriesData)</tt>
+     */
+    void freeze(ISeriesData captured) {
+        frozen = captured;
+    }
+
+    /**
+     * Releases the frozen data points, so that the source is followed.
+     */
+    void release() {
+        frozen = null;
+    }
+
+    /**
+     * Gets the state indicating if the data points can be captured from the
+     * given series data.
+     *
+     * @param data
+     *            the series data
+     * @return true if the data points can be captured
+     */
+    static boolean isCapturable(ISeriesData data) {
+        return data instanceof ArraySeriesData
+                || data instanceof MappedSeriesData
+                || data instanceof RingBufferSeriesData
+                || data instanceof ListSeriesData;
+    }
+
+    /**
+     * Captures the data points of the given series data on UI thread.
+     *
+     * @param data
+     *            the series data
+     * @return the captured data points
+     */
+    static ISeriesData capture(ISeriesData data) {
+        if (data instanceof ArraySeriesData) {
+            return ((ArraySeriesData) data).capture();
+        }
+
+        // the mapped file is read only
+        if (data instanceof MappedSeriesData) {
+            return data;
+        }
+
+        // other data points are copied
+        int size = data.size();
+        double[] xSeries = new double[size];
+        double[] ySeries = new double[size];
+        for (int i = 0; i < size; i++) {
+            xSeries[i] = data.getX(i);
+            ySeries[i] = data.getY(i);
+        }
+        return new ArraySeriesData(xSeries, ySeries);
+    }
+
+    /*
+     * @see ISeriesData#size()
+     */
+    public int size() {
+        return (frozen == null) ? source.size() : frozen.size();
+    }
+
+    /*
+     * @see ISeriesData#getX(int)
+     */
+    public double getX(int index) {
+        return (frozen == null) ? source.getX(index) : frozen.getX(index);
+    }
+
+    /*
+     * @see ISeriesData#getY(int)
+     */
+    public double getY(int index) {
+        return (frozen == null) ? source.getY(index) : frozen.getY(index);
+    }
+}
@@ -0,0 +1,205 @@
+/*******************************************************************************
+ * Copyright (c) 2008-2016 SWTChart project. All rights reserved.
+ *
+ * This code is distributed under the terms of the Eclipse Public License v1.0
+ * which is available at http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.swtchart.internal.series;
+
+import java.util.Arrays;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.RGB;
+import org.swtchart.Chart;
+import org.swtchart.CompressionStrategies;
+import org.swtchart.IAxis.Direction;
+import org.swtchart.ICompressionStrategy;
+import org.swtchart.ISeriesData;
+import org.swtchart.ITraceDensitySeries;
+import org.swtchart.Range;
+import org.swtchart.internal.axis.Axis;
+
+/**
+ * Trace density series.
+ */
+public class TraceDensitySeries extends Series implements ITraceDensitySeries {
+
+    /** the indexes of the first data points of traces */
+    private int[] traceStarts;
+
+    /** the number of traces, including the empty first trace */
+    private int numTraces;
+
+    /** the color map */
+    private RGB[] colorMap;
+
+    /** the grid counting traces per pixel */
+    private DensityGrid densityGrid;
+
+    /** the data revision, axis ranges and plot area size of density grid */
+    private double[] densityGridKey;
+
+    /** the margin in pixels attached at the minimum and maximum plot */
+    private static final int MARGIN_AT_MIN_MAX_PLOT = 2;
+
+    /**
+     * Constructor.
+     *
+     * @param chart
+     *            the chart
+     * @param id
+     *            the series id
+     */
+    protected TraceDensitySeries(Chart chart, String id) {
+        super(chart, id);
+
+        type = SeriesType.TRACE_DENSITY;
+        compressor = createCompressor();
+        traceStarts = new int[16];
+        numTraces = 1;
+        colorMap = DensityGrid.DEFAULT_COLOR_MAP;
+        densityGrid = new DensityGrid();
+    }
+
+    /*
+     * @see Series#setSeries(ISeriesData)
+     */
+    @Override
+    public void setSeries(ISeriesData data) {
+        numTraces = 1;
+        super.setSeries(data);
+    }
+
+    /*
+     * @see ITraceDensitySeries#addTrace(double[], double[])
+     */
+    public void addTrace(double[] xSeries, double[] ySeries) {
+        if (xSeries == null || ySeries == null) {
+            SWT.error(SWT.ERROR_NULL_ARGUMENT);
+            return; // to suppress warning...
+        }
+
+        // the traces would be shifted when the oldest points are overwritten
+        if (series instanceof RingBufferSeriesData) {
+            throw new IllegalStateException(
+                    "Ring buffer series data doesn't support traces."); //$NON-NLS-1$
+        }
+
+        int fromIndex = series.size();
+        appendPoints(xSeries, ySeries);
+        if (fromIndex == 0 || series.size() == fromIndex) {
+            return;
+        }
+
+        if (numTraces == traceStarts.length) {
+            traceStarts = Arrays.copyOf(traceStarts, numTraces * 2);
+        }
+        traceStarts[numTraces++] = fromIndex;
+    }
+
+    /*
+     * @see ITraceDensitySeries#clearTraces()
+     */
+    public void clearTraces() {
+        setSeries(new ArraySeriesData(new double[0], new double[0]));
+    }
+
+    /*
+     * @see ITraceDensitySeries#getTraceCount()
+     */
+    public int getTraceCount() {
+        return (series.size() == 0) ? 0 : numTraces;
+    }
+
+    /*
+     * @see ITraceDensitySeries#getColorMap()
+     */
+    public RGB[] getColorMap() {
+        RGB[] colors = new RGB[colorMap.length];
+        System.arraycopy(colorMap, 0, colors, 0, colors.length);
+        return colors;
+    }
+
+    /*
+     * @see ITraceDensitySeries#setColorMap(RGB[])
+     */
+    public void setColorMap(RGB[] colors) {
+        invalidateAppearance();
+        if (colors == null) {
+            colorMap = DensityGrid.DEFAULT_COLOR_MAP;
+        } else {
+            if (colors.length == 0) {
+                SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+            }
+            for (RGB color : colors) {
+                if (color == null) {
+                    SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+                }
+            }
+            colorMap = new RGB[colors.length];
+            System.arraycopy(colors, 0, colorMap, 0, colors.length);
+        }
+        densityGrid.disposeImage();
+    }
+
+    /*
+     * @see ITraceDensitySeries#getDensity(int, int)
+     */
+    public int getDensity(int x, int y) {
+        return densityGrid.get(x, y);
+    }
+
+    /*
+     * @see Series#getDefaultCompressionStrategy()
+     */
+    @Override
+    protected ICompressionStrategy getDefaultCompressionStrategy() {
+        return CompressionStrategies.get(CompressionStrategies.SCATTER);
+    }
+
+    /*
+     * @see Series#getAdjustedRange(Axis, int)
+     */
+    @Override
+    public Range getAdjustedRange(Axis axis, int length) {
+        Range range;
+        if (axis.getDirection() == Direction.X) {
+            range = getXRange();
+        } else {
+            range = getYRange();
+        }
+
+        return getRangeWithMargin(MARGIN_AT_MIN_MAX_PLOT,
+                MARGIN_AT_MIN_MAX_PLOT, length, axis, range);
+    }
+
+    /*
+     * @see Series#dispose()
+     */
+    @Override
+    protected void dispose() {
+        super.dispose();
+        densityGrid.disposeImage();
+    }
+
+    /*
+     * @see Series#draw(GC, int, int, Axis, Axis)
+     */
+    @Override
+    protected void draw(GC gc, int width, int height, Axis xAxis, Axis yAxis) {
+        double[] key = DensityGrid.createKey(dataRevision, width, height,
+                xAxis, yAxis);
+        if (!Arrays.equals(key, densityGridKey)) {
+            densityGrid.countTraces(series, traceStarts, numTraces, xAxis,
+                    yAxis, width, height);
+            densityGridKey = key;
+        }
+
+        Image image = densityGrid.getImage(gc.getDevice(), colorMap);
+        if (image != null) {
+            gc.drawImage(image, 0, 0);
+        }
+    }
+}